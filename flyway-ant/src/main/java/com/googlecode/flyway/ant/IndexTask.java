@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2010-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.ant;
+
+import com.googlecode.flyway.core.resolver.MigrationIndexGenerator;
+import com.googlecode.flyway.core.util.Locations;
+import com.googlecode.flyway.core.util.StringUtils;
+import com.googlecode.flyway.core.util.logging.LogFactory;
+import org.apache.tools.ant.BuildException;
+import org.apache.tools.ant.Task;
+
+import java.io.File;
+
+/**
+ * Ant task that generates the migration index (META-INF/flyway/index) in a classes directory. When this directory is
+ * packaged as a jar, Flyway finds the migrations it contains using this index, without scanning the jar at runtime.
+ * Unlike the other tasks, this one does not need a database connection.
+ */
+@SuppressWarnings({"UnusedDeclaration"})
+public class IndexTask extends Task {
+    /**
+     * The directory containing the compiled classes and resources to index.
+     */
+    private File classesDir;
+
+    /**
+     * Locations on the classpath to index. These should be the same locations Flyway uses to find migrations at
+     * runtime. (default: db.migration)<br/>Also configurable with Ant Property: ${flyway.locations}
+     */
+    private String[] locations = {"db.migration"};
+
+    /**
+     * The file name prefix for Sql migrations (default: V)<br/>Also configurable with Ant Property: ${flyway.sqlMigrationPrefix}
+     */
+    private String sqlMigrationPrefix = "V";
+
+    /**
+     * The file name suffix for Sql migrations (default: .sql)<br/>Also configurable with Ant Property: ${flyway.sqlMigrationSuffix}
+     */
+    private String sqlMigrationSuffix = ".sql";
+
+    /**
+     * @param classesDir The directory containing the compiled classes and resources to index.
+     */
+    public void setClassesDir(File classesDir) {
+        this.classesDir = classesDir;
+    }
+
+    /**
+     * Do not use. For Ant itself.
+     *
+     * @param locations The locations on the classpath.
+     */
+    public void addConfiguredLocations(AbstractMigrationLoadingTask.Locations locations) {
+        this.locations = locations.locations.toArray(new String[locations.locations.size()]);
+    }
+
+    /**
+     * @param sqlMigrationPrefix The file name prefix for Sql migrations (default: V)<br/>Also configurable with Ant Property: ${flyway.sqlMigrationPrefix}
+     */
+    public void setSqlMigrationPrefix(String sqlMigrationPrefix) {
+        this.sqlMigrationPrefix = sqlMigrationPrefix;
+    }
+
+    /**
+     * @param sqlMigrationSuffix The file name suffix for Sql migrations (default: .sql)<br/>Also configurable with Ant Property: ${flyway.sqlMigrationSuffix}
+     */
+    public void setSqlMigrationSuffix(String sqlMigrationSuffix) {
+        this.sqlMigrationSuffix = sqlMigrationSuffix;
+    }
+
+    @Override
+    public void execute() throws BuildException {
+        LogFactory.setLogCreator(new AntLogCreator(getProject()));
+
+        if (classesDir == null) {
+            throw new BuildException("The classesDir attribute is required");
+        }
+
+        String locationsProperty = getProject().getProperty("flyway.locations");
+        if (locationsProperty != null) {
+            locations = StringUtils.tokenizeToStringArray(locationsProperty, ",");
+        }
+        String sqlMigrationPrefixProperty = getProject().getProperty("flyway.sqlMigrationPrefix");
+        if (sqlMigrationPrefixProperty != null) {
+            sqlMigrationPrefix = sqlMigrationPrefixProperty;
+        }
+        String sqlMigrationSuffixProperty = getProject().getProperty("flyway.sqlMigrationSuffix");
+        if (sqlMigrationSuffixProperty != null) {
+            sqlMigrationSuffix = sqlMigrationSuffixProperty;
+        }
+
+        try {
+            new MigrationIndexGenerator(new Locations(locations), sqlMigrationPrefix, sqlMigrationSuffix)
+                    .generate(classesDir);
+        } catch (Exception e) {
+            throw new BuildException("Unable to generate the migration index", e);
+        }
+    }
+}
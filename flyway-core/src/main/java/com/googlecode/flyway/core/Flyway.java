@@ -20,12 +20,14 @@ import com.googlecode.flyway.core.api.MigrationInfo;
 import com.googlecode.flyway.core.api.MigrationInfoService;
 import com.googlecode.flyway.core.api.MigrationVersion;
 import com.googlecode.flyway.core.command.DbClean;
+import com.googlecode.flyway.core.command.DbCoordinate;
 import com.googlecode.flyway.core.command.DbInit;
 import com.googlecode.flyway.core.command.DbMigrate;
 import com.googlecode.flyway.core.command.DbSchemas;
 import com.googlecode.flyway.core.command.DbValidate;
 import com.googlecode.flyway.core.dbsupport.DbSupport;
 import com.googlecode.flyway.core.dbsupport.DbSupportFactory;
+import com.googlecode.flyway.core.dbsupport.JdbcTemplate;
 import com.googlecode.flyway.core.dbsupport.Schema;
 import com.googlecode.flyway.core.info.MigrationInfoServiceImpl;
 import com.googlecode.flyway.core.metadatatable.MetaDataTable;
@@ -33,11 +35,15 @@ import com.googlecode.flyway.core.metadatatable.MetaDataTableImpl;
 import com.googlecode.flyway.core.metadatatable.MetaDataTableRow;
 import com.googlecode.flyway.core.migration.SchemaVersion;
 import com.googlecode.flyway.core.resolver.CompositeMigrationResolver;
+import com.googlecode.flyway.core.resolver.MigrationFingerprint;
 import com.googlecode.flyway.core.resolver.MigrationResolver;
+import com.googlecode.flyway.core.resolver.sql.SqlScriptCache;
 import com.googlecode.flyway.core.util.Locations;
 import com.googlecode.flyway.core.util.StringUtils;
 import com.googlecode.flyway.core.util.jdbc.DriverDataSource;
 import com.googlecode.flyway.core.util.jdbc.JdbcUtils;
+import com.googlecode.flyway.core.util.jdbc.TransactionCallback;
+import com.googlecode.flyway.core.util.jdbc.TransactionTemplate;
 import com.googlecode.flyway.core.util.logging.Log;
 import com.googlecode.flyway.core.util.logging.LogFactory;
 import com.googlecode.flyway.core.validation.ValidationErrorMode;
@@ -75,6 +81,24 @@ public class Flyway {
      */
     private String encoding = "UTF-8";
 
+    /**
+     * The maximum number of consecutive data manipulation statements (INSERT, UPDATE, DELETE, MERGE) of a sql migration
+     * to send to the database as a single JDBC batch. 0 or 1 to execute every statement on its own. (default: 0)
+     */
+    private int sqlBatchSize;
+
+    /**
+     * The maximum number of updates of the metadata table to send to the database as a single JDBC batch when upgrading
+     * it to the current format. (default: 100)
+     */
+    private int metaDataBatchSize = JdbcTemplate.DEFAULT_BATCH_SIZE;
+
+    /**
+     * The maximum number of bytes of sql migration contents and parsed statements kept in memory, shared by all Flyway
+     * instances of this JVM, to avoid loading and parsing the same scripts again. 0 to disable it. (default: 16 MB)
+     */
+    private int sqlScriptCacheSize = SqlScriptCache.DEFAULT_MAX_WEIGHT;
+
     /**
      * The schemas managed by Flyway. The first schema in the list will be automatically set as the default one during
      * the migration. It will also be the one containing the metadata table. These schema names are case-sensitive.
@@ -111,6 +135,12 @@ public class Flyway {
      */
     private String placeholderSuffix = "}";
 
+    /**
+     * Whether to fail when a sql migration contains a placeholder without a value, instead of leaving it untouched.
+     * (default: {@code false})
+     */
+    private boolean failOnUnresolvedPlaceholders;
+
     /**
      * The file name prefix for sql migrations. (default: V)
      */
@@ -150,7 +180,7 @@ public class Flyway {
     /**
      * The version to tag an existing schema with when executing init. (default: 1)
      */
-    private MigrationVersion initVersion = new MigrationVersion("1");
+    private MigrationVersion initVersion = MigrationVersion.fromVersion("1");
 
     /**
      * The description to tag an existing schema with when executing init. (default: << Flyway Init >>)
@@ -191,6 +221,49 @@ public class Flyway {
      */
     private boolean outOfOrder;
 
+    /**
+     * The maximum number of schemas to clean concurrently, each on its own connection obtained from the dataSource.
+     * <p>Only use a value greater than 1 if the schemas are independent of each other, as objects referenced across
+     * schemas may otherwise fail to drop or deadlock.</p>
+     * <p>(default: 1)</p>
+     */
+    private int cleanParallelism = 1;
+
+    /**
+     * Whether clean should drop all objects of a schema with a single server-side block instead of one statement per
+     * object. Only supported on Oracle.
+     * <p>(default: {@code false})</p>
+     */
+    private boolean serverSideClean;
+
+    /**
+     * Whether to serialize concurrent migrations with a native advisory lock of the database instead of locking the
+     * metadata table. Only supported on PostgreSQL 9.1+, MySQL, Oracle and SQL Server.
+     * <p>(default: {@code false})</p>
+     */
+    private boolean advisoryLocks;
+
+    /**
+     * Whether to store a fingerprint of the resolved migrations after each successful migration run and to skip
+     * migrate and validate when it still matches. Only use this if the metadata table is never modified by hand.
+     * <p>(default: {@code false})</p>
+     */
+    private boolean useFingerprint;
+
+    /**
+     * Whether instances migrating the same schema at the same time should elect a single leader to perform the
+     * migration, while the others wait for it to complete. Implies the use of the fingerprint.
+     * <p>(default: {@code false})</p>
+     */
+    private boolean coordinatedMigrate;
+
+    /**
+     * The maximum number of seconds an instance waits for the leader to complete a coordinated migration, before
+     * performing it itself.
+     * <p>(default: 600)</p>
+     */
+    private int leaderTimeout = 600;
+
     /**
      * The dataSource to use to access the database. Must have the necessary privileges to execute ddl.
      */
@@ -283,6 +356,15 @@ public class Flyway {
         return placeholderSuffix;
     }
 
+    /**
+     * Whether to fail when a sql migration contains a placeholder without a value, instead of leaving it untouched.
+     *
+     * @return {@code true} to fail, {@code false} to leave it untouched. (default: {@code false})
+     */
+    public boolean isFailOnUnresolvedPlaceholders() {
+        return failOnUnresolvedPlaceholders;
+    }
+
     /**
      * Retrieves the file name prefix for sql migrations.
      *
@@ -456,6 +538,68 @@ public class Flyway {
         return outOfOrder;
     }
 
+    /**
+     * Retrieves the maximum number of schemas to clean concurrently, each on its own connection obtained from the
+     * dataSource.
+     *
+     * @return The maximum number of schemas to clean concurrently. (default: 1)
+     */
+    public int getCleanParallelism() {
+        return cleanParallelism;
+    }
+
+    /**
+     * Checks whether clean should drop all objects of a schema with a single server-side block instead of one
+     * statement per object.
+     *
+     * @return {@code true} to clean server-side, {@code false} to drop the objects one by one. (default: {@code false})
+     */
+    public boolean isServerSideClean() {
+        return serverSideClean;
+    }
+
+    /**
+     * Checks whether to serialize concurrent migrations with a native advisory lock of the database instead of locking
+     * the metadata table.
+     *
+     * @return {@code true} to use an advisory lock, {@code false} to lock the metadata table. (default: {@code false})
+     */
+    public boolean isAdvisoryLocks() {
+        return advisoryLocks;
+    }
+
+    /**
+     * Checks whether to store a fingerprint of the resolved migrations after each successful migration run and to skip
+     * migrate and validate when it still matches.
+     *
+     * @return {@code true} to use the fingerprint, {@code false} to always perform the full migrate and validate.
+     *         (default: {@code false})
+     */
+    public boolean isUseFingerprint() {
+        return useFingerprint;
+    }
+
+    /**
+     * Checks whether instances migrating the same schema at the same time should elect a single leader to perform the
+     * migration, while the others wait for it to complete.
+     *
+     * @return {@code true} to coordinate migrations, {@code false} to let every instance perform the migration.
+     *         (default: {@code false})
+     */
+    public boolean isCoordinatedMigrate() {
+        return coordinatedMigrate;
+    }
+
+    /**
+     * Retrieves the maximum number of seconds an instance waits for the leader to complete a coordinated migration,
+     * before performing it itself.
+     *
+     * @return The timeout in seconds. (default: 600)
+     */
+    public int getLeaderTimeout() {
+        return leaderTimeout;
+    }
+
     /**
      * Retrieves the dataSource to use to access the database. Must have the necessary privileges to execute ddl.
      *
@@ -539,6 +683,77 @@ public class Flyway {
         this.locations = new Locations(locations);
     }
 
+    /**
+     * Retrieves the maximum number of consecutive data manipulation statements (INSERT, UPDATE, DELETE, MERGE) of a sql
+     * migration to send to the database as a single JDBC batch.
+     *
+     * @return The maximum batch size. 0 or 1 if every statement is executed on its own. (default: 0)
+     */
+    public int getSqlBatchSize() {
+        return sqlBatchSize;
+    }
+
+    /**
+     * Retrieves the maximum number of updates of the metadata table to send to the database as a single JDBC batch when
+     * upgrading it to the current format.
+     *
+     * @return The maximum batch size. (default: 100)
+     */
+    public int getMetaDataBatchSize() {
+        return metaDataBatchSize;
+    }
+
+    /**
+     * Retrieves the maximum number of bytes of sql migration contents and parsed statements kept in memory.
+     *
+     * @return The maximum cache size in bytes. 0 if the cache is disabled. (default: 16 MB)
+     */
+    public int getSqlScriptCacheSize() {
+        return sqlScriptCacheSize;
+    }
+
+    /**
+     * Sets the maximum number of consecutive data manipulation statements (INSERT, UPDATE, DELETE, MERGE) of a sql
+     * migration to send to the database as a single JDBC batch. This greatly reduces the number of round trips for
+     * scripts containing lots of data. Errors are still reported with the line number of the failed statement.
+     *
+     * @param sqlBatchSize The maximum batch size. 0 or 1 to execute every statement on its own. (default: 0)
+     */
+    public void setSqlBatchSize(int sqlBatchSize) {
+        if (sqlBatchSize < 0) {
+            throw new FlywayException("Invalid sql batch size: " + sqlBatchSize + ". It must not be negative.");
+        }
+        this.sqlBatchSize = sqlBatchSize;
+    }
+
+    /**
+     * Sets the maximum number of updates of the metadata table to send to the database as a single JDBC batch when
+     * upgrading it to the current format. Larger batches mean fewer round trips when upgrading large metadata tables over slow links.
+     *
+     * @param metaDataBatchSize The maximum batch size. 1 to execute every update on its own. (default: 100)
+     */
+    public void setMetaDataBatchSize(int metaDataBatchSize) {
+        if (metaDataBatchSize < 1) {
+            throw new FlywayException("Invalid metadata batch size: " + metaDataBatchSize + ". It must be at least 1.");
+        }
+        this.metaDataBatchSize = metaDataBatchSize;
+    }
+
+    /**
+     * Sets the maximum number of bytes of sql migration contents and parsed statements kept in memory. The cache is
+     * shared by all Flyway instances of this JVM and resized whenever one of them runs a command. Scripts larger than
+     * 1/8 of this size are never cached.
+     *
+     * @param sqlScriptCacheSize The maximum cache size in bytes. 0 to disable the cache and release its memory.
+     *                           (default: 16 MB)
+     */
+    public void setSqlScriptCacheSize(int sqlScriptCacheSize) {
+        if (sqlScriptCacheSize < 0) {
+            throw new FlywayException("Invalid sql script cache size: " + sqlScriptCacheSize + ". It must not be negative.");
+        }
+        this.sqlScriptCacheSize = sqlScriptCacheSize;
+    }
+
     /**
      * Sets the encoding of Sql migrations.
      *
@@ -581,7 +796,7 @@ public class Flyway {
     @Deprecated
     public void setTarget(SchemaVersion target) {
         LOG.warn("Flyway.setTarget(SchemaVersion) has been deprecated. Use setTarget(MigrationVersion) instead. Will be removed in Flyway 3.0.");
-        this.target = new MigrationVersion(target.toString());
+        this.target = MigrationVersion.fromVersion(target.toString());
     }
 
     /**
@@ -603,7 +818,7 @@ public class Flyway {
      *               number will not be applied. (default: the latest version)
      */
     public void setTarget(String target) {
-        this.target = new MigrationVersion(target);
+        this.target = MigrationVersion.fromVersion(target);
     }
 
     /**
@@ -633,6 +848,15 @@ public class Flyway {
         this.placeholderSuffix = placeholderSuffix;
     }
 
+    /**
+     * Whether to fail when a sql migration contains a placeholder without a value, instead of leaving it untouched.
+     *
+     * @param failOnUnresolvedPlaceholders {@code true} to fail, {@code false} to leave it untouched. (default: {@code false})
+     */
+    public void setFailOnUnresolvedPlaceholders(boolean failOnUnresolvedPlaceholders) {
+        this.failOnUnresolvedPlaceholders = failOnUnresolvedPlaceholders;
+    }
+
     /**
      * Sets the file name prefix for sql migrations.
      *
@@ -669,7 +893,7 @@ public class Flyway {
     @Deprecated
     public void setInitialVersion(SchemaVersion initialVersion) {
         LOG.warn("Flyway.setInitialVersion(SchemaVersion) has been deprecated. Use setInitVersion(MigrationVersion) instead. Will be removed in Flyway 3.0.");
-        this.initVersion = new MigrationVersion(initialVersion.toString());
+        this.initVersion = MigrationVersion.fromVersion(initialVersion.toString());
     }
 
     /**
@@ -693,7 +917,7 @@ public class Flyway {
     @Deprecated
     public void setInitialVersion(String initialVersion) {
         LOG.warn("Flyway.setInitialVersion(String) has been deprecated. Use setInitVersion(String) instead. Will be removed in Flyway 3.0.");
-        this.initVersion = new MigrationVersion(initialVersion);
+        this.initVersion = MigrationVersion.fromVersion(initialVersion);
     }
 
     /**
@@ -723,7 +947,7 @@ public class Flyway {
      * @param initVersion The version to tag an existing schema with when executing init. (default: 1)
      */
     public void setInitVersion(String initVersion) {
-        this.initVersion = new MigrationVersion(initVersion);
+        this.initVersion = MigrationVersion.fromVersion(initVersion);
     }
 
     /**
@@ -779,6 +1003,99 @@ public class Flyway {
         this.outOfOrder = outOfOrder;
     }
 
+    /**
+     * Sets the maximum number of schemas to clean concurrently, each on its own connection obtained from the
+     * dataSource.
+     * <p>Only use a value greater than 1 if the schemas are independent of each other, as objects referenced across
+     * schemas may otherwise fail to drop or deadlock.</p>
+     *
+     * @param cleanParallelism The maximum number of schemas to clean concurrently. (default: 1)
+     */
+    public void setCleanParallelism(int cleanParallelism) {
+        if (cleanParallelism < 1) {
+            throw new FlywayException("Invalid clean parallelism: " + cleanParallelism + ". It must be at least 1.");
+        }
+        this.cleanParallelism = cleanParallelism;
+    }
+
+    /**
+     * Sets whether clean should drop all objects of a schema with a single server-side block instead of one statement
+     * per object.
+     * <p>This saves a round trip per object, which matters for remote databases with thousands of objects. It is only
+     * supported on Oracle, where an anonymous PL/SQL block drops the objects in the same order as the regular clean.
+     * Should the user lack the privileges to run the block, clean falls back to dropping the objects one by one. It is
+     * ignored on all other databases.</p>
+     *
+     * @param serverSideClean {@code true} to clean server-side, {@code false} to drop the objects one by one.
+     *                        (default: {@code false})
+     */
+    public void setServerSideClean(boolean serverSideClean) {
+        this.serverSideClean = serverSideClean;
+    }
+
+    /**
+     * Sets whether to serialize concurrent migrations with a native advisory lock of the database instead of locking
+     * the metadata table.
+     * <p>An advisory lock does not block readers of the metadata table while a migration is running. It is only
+     * supported on PostgreSQL 9.1+, MySQL, Oracle and SQL Server and ignored on all other databases.</p>
+     * <p>Advisory locks and table locks do not exclude each other. Only enable this once every Flyway instance migrating
+     * this schema has it enabled, and never during a rolling upgrade from an older Flyway version, as these always lock
+     * the metadata table and would migrate concurrently with the instances holding the advisory lock.</p>
+     *
+     * @param advisoryLocks {@code true} to use an advisory lock, {@code false} to lock the metadata table.
+     *                      (default: {@code false})
+     */
+    public void setAdvisoryLocks(boolean advisoryLocks) {
+        this.advisoryLocks = advisoryLocks;
+    }
+
+    /**
+     * Sets whether to store a fingerprint of the resolved migrations after each successful migration run and to skip
+     * migrate and validate when it still matches.
+     * <p>The fingerprint covers the version, checksum and type of every resolved migration, as well as the target,
+     * outOfOrder and ignoreFailedFutureMigration settings. It is stored next to the metadata table and is discarded as
+     * soon as a migration is applied by other means. As long as it matches, migrate and validate are reduced to a single
+     * lookup, without reading the metadata table. Only use this if the metadata table is never modified by hand.</p>
+     *
+     * @param useFingerprint {@code true} to use the fingerprint, {@code false} to always perform the full migrate and
+     *                       validate. (default: {@code false})
+     */
+    public void setUseFingerprint(boolean useFingerprint) {
+        this.useFingerprint = useFingerprint;
+    }
+
+    /**
+     * Sets whether instances migrating the same schema at the same time should elect a single leader to perform the
+     * migration, while the others wait for it to complete.
+     * <p>This is meant for clusters where many instances call migrate on startup. The first instance to claim the
+     * leadership migrates the schema. The others poll the fingerprint with a jittered backoff, instead of queuing for the
+     * lock on the metadata table and reading it in full, and return as soon as the leader has stored it. Should the
+     * leader fail or not complete within the leaderTimeout, they perform the migration themselves. Implies
+     * useFingerprint.</p>
+     *
+     * @param coordinatedMigrate {@code true} to coordinate migrations, {@code false} to let every instance perform the
+     *                           migration. (default: {@code false})
+     */
+    public void setCoordinatedMigrate(boolean coordinatedMigrate) {
+        this.coordinatedMigrate = coordinatedMigrate;
+    }
+
+    /**
+     * Sets the maximum number of seconds an instance waits for the leader to complete a coordinated migration, before
+     * performing it itself.
+     * <p>This is also the lease of the leadership claim. A claim older than this is considered abandoned by a leader
+     * that died, and the next instance to start takes it over. Claims are timestamped with the clock of the machine
+     * making them, so the clocks of all instances must be in sync.</p>
+     *
+     * @param leaderTimeout The timeout in seconds. (default: 600)
+     */
+    public void setLeaderTimeout(int leaderTimeout) {
+        if (leaderTimeout < 0) {
+            throw new FlywayException("Invalid leader timeout: " + leaderTimeout + ". It must not be negative.");
+        }
+        this.leaderTimeout = leaderTimeout;
+    }
+
     /**
      * Starts the database migration. All pending migrations will be applied in order.
      * Calling migrate on an up-to-date database has no effect.
@@ -793,46 +1110,155 @@ public class Flyway {
                 MetaDataTable metaDataTable =
                         new MetaDataTableImpl(dbSupport, schemas[0].getTable(table), migrationResolver);
 
+                if (isFingerprintUnchanged(migrationResolver, metaDataTable)) {
+                    LOG.info("Schema " + schemas[0] + " is up to date. No migration necessary. (fingerprint unchanged)");
+                    return 0;
+                }
+
                 new DbSchemas(connectionMetaDataTable, schemas, metaDataTable).create();
 
-                if (validateOnMigrate) {
-                    doValidate(connectionMetaDataTable, dbSupport, migrationResolver, metaDataTable, schemas);
+                // Electing a leader requires the metadata table. Until it holds its first entry, every instance
+                // migrates on its own, as it would otherwise be mistaken for user objects by the init check.
+                if (!coordinatedMigrate || metaDataTable.getLatestInstalledRank() == 0) {
+                    return doMigrate(connectionMetaDataTable, connectionUserObjects, dbSupport, migrationResolver,
+                            metaDataTable, schemas);
                 }
 
-                if (metaDataTable.getCurrentSchemaVersion() == MigrationVersion.EMPTY) {
-                    List<Schema> nonEmptySchemas = new ArrayList<Schema>();
-                    for (Schema schema : schemas) {
-                        if (!schema.empty()) {
-                            nonEmptySchemas.add(schema);
-                        }
+                String fingerprint = MigrationFingerprint.calculate(migrationResolver.resolveMigrations(), target,
+                        outOfOrder, ignoreFailedFutureMigration);
+                DbCoordinate dbCoordinate =
+                        new DbCoordinate(connectionMetaDataTable, metaDataTable, fingerprint, leaderTimeout * 1000L);
+                if (!dbCoordinate.elect()) {
+                    if (dbCoordinate.awaitLeader()) {
+                        return 0;
                     }
+                    return doMigrate(connectionMetaDataTable, connectionUserObjects, dbSupport, migrationResolver,
+                            metaDataTable, schemas);
+                }
 
-                    if (initOnMigrate || disableInitCheck || nonEmptySchemas.isEmpty()) {
-                        if (initOnMigrate && !nonEmptySchemas.isEmpty()) {
-                            new DbInit(connectionMetaDataTable, metaDataTable, initVersion, initDescription).init();
-                        }
-                    } else {
-                        if (nonEmptySchemas.size() == 1) {
-                            throw new FlywayException("Found non-empty schema " + nonEmptySchemas.get(0)
-                                    + " without metadata table! Use init() first to initialize the metadata table.");
-                        } else {
-                            throw new FlywayException("Found non-empty schemas "
-                                    + StringUtils.collectionToCommaDelimitedString(nonEmptySchemas)
-                                    + " without metadata table! Use init() first to initialize the metadata table.");
-                        }
-                    }
+                try {
+                    return doMigrate(connectionMetaDataTable, connectionUserObjects, dbSupport, migrationResolver,
+                            metaDataTable, schemas);
+                } finally {
+                    dbCoordinate.resign();
+                }
+            }
+        });
+    }
+
+    /**
+     * Performs the actual migration, once the schemas have been created.
+     *
+     * @param connectionMetaDataTable The database connection for the metadata table.
+     * @param connectionUserObjects   The database connection for user objects.
+     * @param dbSupport               The database-specific support for these connections.
+     * @param migrationResolver       The migration resolver.
+     * @param metaDataTable           The metadata table.
+     * @param schemas                 The schemas managed by Flyway.
+     * @return The number of successfully applied migrations.
+     */
+    private int doMigrate(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport,
+                          MigrationResolver migrationResolver, MetaDataTable metaDataTable, Schema[] schemas) {
+        if (validateOnMigrate) {
+            doValidate(connectionMetaDataTable, dbSupport, migrationResolver, metaDataTable, schemas);
+        }
+
+        if (metaDataTable.getCurrentSchemaVersion() == MigrationVersion.EMPTY) {
+            List<Schema> nonEmptySchemas = new ArrayList<Schema>();
+            for (Schema schema : schemas) {
+                if (!schema.empty()) {
+                    nonEmptySchemas.add(schema);
                 }
+            }
 
-                if (!schemas[0].equals(dbSupport.getCurrentSchema())) {
-                    DbSupportFactory.createDbSupport(connectionUserObjects).setCurrentSchema(schemas[0]);
+            if (initOnMigrate || disableInitCheck || nonEmptySchemas.isEmpty()) {
+                if (initOnMigrate && !nonEmptySchemas.isEmpty()) {
+                    new DbInit(connectionMetaDataTable, metaDataTable, initVersion, initDescription).init();
                 }
+            } else {
+                if (nonEmptySchemas.size() == 1) {
+                    throw new FlywayException("Found non-empty schema " + nonEmptySchemas.get(0)
+                            + " without metadata table! Use init() first to initialize the metadata table.");
+                } else {
+                    throw new FlywayException("Found non-empty schemas "
+                            + StringUtils.collectionToCommaDelimitedString(nonEmptySchemas)
+                            + " without metadata table! Use init() first to initialize the metadata table.");
+                }
+            }
+        }
 
-                DbMigrate dbMigrator =
-                        new DbMigrate(connectionMetaDataTable, connectionUserObjects, dbSupport, metaDataTable,
-                                schemas[0], migrationResolver, target, ignoreFailedFutureMigration, outOfOrder);
-                return dbMigrator.migrate();
+        if (!schemas[0].equals(dbSupport.getCurrentSchema())) {
+            DbSupport dbSupportUserObjects = DbSupportFactory.createDbSupport(connectionUserObjects);
+            try {
+                dbSupportUserObjects.setCurrentSchema(schemas[0]);
+            } finally {
+                dbSupportUserObjects.getJdbcTemplate().close();
             }
-        });
+        }
+
+        DbMigrate dbMigrator =
+                new DbMigrate(connectionMetaDataTable, connectionUserObjects, dbSupport, metaDataTable,
+                        schemas[0], migrationResolver, target, ignoreFailedFutureMigration, outOfOrder);
+        int migrationSuccessCount = dbMigrator.migrate();
+
+        if (useFingerprint || coordinatedMigrate) {
+            storeFingerprint(connectionMetaDataTable, migrationResolver, metaDataTable);
+        }
+
+        return migrationSuccessCount;
+    }
+
+    /**
+     * Checks whether the fingerprint of the resolved migrations matches the one stored at the end of the last
+     * successful migration run, with no migrations applied since.
+     *
+     * @param migrationResolver The migration resolver.
+     * @param metaDataTable     The metadata table.
+     * @return {@code true} if it does and there is nothing to migrate or validate, {@code false} if the full migrate
+     *         and validate must be performed.
+     */
+    private boolean isFingerprintUnchanged(MigrationResolver migrationResolver, MetaDataTable metaDataTable) {
+        if (!useFingerprint && !coordinatedMigrate) {
+            return false;
+        }
+
+        String fingerprint = MigrationFingerprint.calculate(migrationResolver.resolveMigrations(), target, outOfOrder,
+                ignoreFailedFutureMigration);
+        return fingerprint.equals(metaDataTable.getFingerprint());
+    }
+
+    /**
+     * Stores the fingerprint of the resolved migrations after a successful migration run. As the stored fingerprint
+     * also lets validate be skipped, the migrations are validated first if this hasn't already been done by migrate.
+     *
+     * @param connectionMetaDataTable The database connection for the metadata table.
+     * @param migrationResolver       The migration resolver.
+     * @param metaDataTable           The metadata table.
+     */
+    private void storeFingerprint(Connection connectionMetaDataTable, MigrationResolver migrationResolver,
+                                  final MetaDataTable metaDataTable) {
+        if (!validateOnMigrate) {
+            String validationError =
+                    new DbValidate(connectionMetaDataTable, metaDataTable, migrationResolver, target, outOfOrder).validate();
+            if (validationError != null) {
+                LOG.debug("Not storing fingerprint as validation failed: " + validationError);
+                return;
+            }
+        }
+
+        final String fingerprint = MigrationFingerprint.calculate(migrationResolver.resolveMigrations(), target,
+                outOfOrder, ignoreFailedFutureMigration);
+        try {
+            new TransactionTemplate(connectionMetaDataTable).execute(new TransactionCallback<Void>() {
+                public Void doInTransaction() {
+                    metaDataTable.lock();
+                    metaDataTable.updateFingerprint(fingerprint);
+                    return null;
+                }
+            });
+        } finally {
+            metaDataTable.unlock();
+        }
     }
 
     /**
@@ -847,6 +1273,11 @@ public class Flyway {
                 MetaDataTable metaDataTable =
                         new MetaDataTableImpl(dbSupport, schemas[0].getTable(table), migrationResolver);
 
+                if (isFingerprintUnchanged(migrationResolver, metaDataTable)) {
+                    LOG.info("Migrations validated. (fingerprint unchanged)");
+                    return null;
+                }
+
                 doValidate(connectionMetaDataTable, dbSupport, migrationResolver, metaDataTable, schemas);
                 return null;
             }
@@ -886,7 +1317,8 @@ public class Flyway {
             public Void execute(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport, Schema[] schemas) {
                 MetaDataTableImpl metaDataTable =
                         new MetaDataTableImpl(dbSupport, schemas[0].getTable(table), createMigrationResolver());
-                new DbClean(connectionMetaDataTable, metaDataTable, schemas).clean();
+                new DbClean(connectionMetaDataTable, metaDataTable, schemas, dataSource, cleanParallelism,
+                        serverSideClean).clean();
                 return null;
             }
         });
@@ -984,7 +1416,7 @@ public class Flyway {
      * @return A new, fully configured, MigrationResolver instance.
      */
     private MigrationResolver createMigrationResolver() {
-        return new CompositeMigrationResolver(locations, encoding, sqlMigrationPrefix, sqlMigrationSuffix, placeholders, placeholderPrefix, placeholderSuffix);
+        return new CompositeMigrationResolver(locations, encoding, sqlMigrationPrefix, sqlMigrationSuffix, placeholders, placeholderPrefix, placeholderSuffix, failOnUnresolvedPlaceholders, sqlBatchSize);
     }
 
     /**
@@ -1019,6 +1451,10 @@ public class Flyway {
         if (placeholderSuffixProp != null) {
             setPlaceholderSuffix(placeholderSuffixProp);
         }
+        String failOnUnresolvedPlaceholdersProp = properties.getProperty("flyway.failOnUnresolvedPlaceholders");
+        if (failOnUnresolvedPlaceholdersProp != null) {
+            setFailOnUnresolvedPlaceholders(Boolean.parseBoolean(failOnUnresolvedPlaceholdersProp));
+        }
         String sqlMigrationPrefixProp = properties.getProperty("flyway.sqlMigrationPrefix");
         if (sqlMigrationPrefixProp != null) {
             setSqlMigrationPrefix(sqlMigrationPrefixProp);
@@ -1027,6 +1463,18 @@ public class Flyway {
         if (sqlMigrationSuffixProp != null) {
             setSqlMigrationSuffix(sqlMigrationSuffixProp);
         }
+        String sqlBatchSizeProp = properties.getProperty("flyway.sqlBatchSize");
+        if (sqlBatchSizeProp != null) {
+            setSqlBatchSize(Integer.parseInt(sqlBatchSizeProp));
+        }
+        String metaDataBatchSizeProp = properties.getProperty("flyway.metaDataBatchSize");
+        if (metaDataBatchSizeProp != null) {
+            setMetaDataBatchSize(Integer.parseInt(metaDataBatchSizeProp));
+        }
+        String sqlScriptCacheSizeProp = properties.getProperty("flyway.sqlScriptCacheSize");
+        if (sqlScriptCacheSizeProp != null) {
+            setSqlScriptCacheSize(Integer.parseInt(sqlScriptCacheSizeProp));
+        }
         String encodingProp = properties.getProperty("flyway.encoding");
         if (encodingProp != null) {
             setEncoding(encodingProp);
@@ -1057,7 +1505,7 @@ public class Flyway {
         }
         String initialVersionProp = properties.getProperty("flyway.initialVersion");
         if (initialVersionProp != null) {
-            setInitialVersion(new MigrationVersion(initialVersionProp));
+            setInitialVersion(MigrationVersion.fromVersion(initialVersionProp));
         }
         String initialDescriptionProp = properties.getProperty("flyway.initialDescription");
         if (initialDescriptionProp != null) {
@@ -1065,7 +1513,7 @@ public class Flyway {
         }
         String initVersionProp = properties.getProperty("flyway.initVersion");
         if (initVersionProp != null) {
-            setInitVersion(new MigrationVersion(initVersionProp));
+            setInitVersion(MigrationVersion.fromVersion(initVersionProp));
         }
         String initDescriptionProp = properties.getProperty("flyway.initDescription");
         if (initDescriptionProp != null) {
@@ -1085,12 +1533,36 @@ public class Flyway {
         }
         String targetProp = properties.getProperty("flyway.target");
         if (targetProp != null) {
-            setTarget(new MigrationVersion(targetProp));
+            setTarget(MigrationVersion.fromVersion(targetProp));
         }
         String outOfOrderProp = properties.getProperty("flyway.outOfOrder");
         if (outOfOrderProp != null) {
             setOutOfOrder(Boolean.parseBoolean(outOfOrderProp));
         }
+        String cleanParallelismProp = properties.getProperty("flyway.cleanParallelism");
+        if (cleanParallelismProp != null) {
+            setCleanParallelism(Integer.parseInt(cleanParallelismProp));
+        }
+        String serverSideCleanProp = properties.getProperty("flyway.serverSideClean");
+        if (serverSideCleanProp != null) {
+            setServerSideClean(Boolean.parseBoolean(serverSideCleanProp));
+        }
+        String advisoryLocksProp = properties.getProperty("flyway.advisoryLocks");
+        if (advisoryLocksProp != null) {
+            setAdvisoryLocks(Boolean.parseBoolean(advisoryLocksProp));
+        }
+        String useFingerprintProp = properties.getProperty("flyway.useFingerprint");
+        if (useFingerprintProp != null) {
+            setUseFingerprint(Boolean.parseBoolean(useFingerprintProp));
+        }
+        String coordinatedMigrateProp = properties.getProperty("flyway.coordinatedMigrate");
+        if (coordinatedMigrateProp != null) {
+            setCoordinatedMigrate(Boolean.parseBoolean(coordinatedMigrateProp));
+        }
+        String leaderTimeoutProp = properties.getProperty("flyway.leaderTimeout");
+        if (leaderTimeoutProp != null) {
+            setLeaderTimeout(Integer.parseInt(leaderTimeoutProp));
+        }
 
         Map<String, String> placeholdersFromProps = new HashMap<String, String>();
         for (Object property : properties.keySet()) {
@@ -1117,16 +1589,22 @@ public class Flyway {
 
         Connection connectionMetaDataTable = null;
         Connection connectionUserObjects = null;
+        DbSupport dbSupport = null;
 
         try {
             if (dataSource == null) {
                 throw new FlywayException("DataSource not set! Check your configuration!");
             }
 
+            SqlScriptCache.getInstance().setMaxWeight(sqlScriptCacheSize);
+
             connectionMetaDataTable = JdbcUtils.openConnection(dataSource);
             connectionUserObjects = JdbcUtils.openConnection(dataSource);
 
-            DbSupport dbSupport = DbSupportFactory.createDbSupport(connectionMetaDataTable);
+            dbSupport = DbSupportFactory.createDbSupport(connectionMetaDataTable);
+            dbSupport.getJdbcTemplate().setBatchSize(metaDataBatchSize);
+            dbSupport.setServerSideClean(serverSideClean);
+            dbSupport.setAdvisoryLocks(advisoryLocks);
             LOG.debug("DDL Transactions Supported: " + dbSupport.supportsDdlTransactions());
 
             if (schemaNames.length == 0) {
@@ -1146,6 +1624,9 @@ public class Flyway {
 
             result = command.execute(connectionMetaDataTable, connectionUserObjects, dbSupport, schemas);
         } finally {
+            if (dbSupport != null) {
+                dbSupport.getJdbcTemplate().close();
+            }
             JdbcUtils.closeConnection(connectionUserObjects);
             JdbcUtils.closeConnection(connectionMetaDataTable);
         }
@@ -15,9 +15,17 @@
  */
 package com.googlecode.flyway.core.api;
 
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 /**
  * A version of a migration.
  *
+ * <p>The version string is parsed once into a comparison key holding the numeric value of each element, without the
+ * trailing zeroes. Comparing versions and computing their hash code therefore never needs to look at the version string
+ * again.</p>
+ *
  * @author Axel Fontaine
  */
 public final class MigrationVersion implements Comparable<MigrationVersion> {
@@ -31,6 +39,12 @@ public final class MigrationVersion implements Comparable<MigrationVersion> {
      */
     public static final MigrationVersion LATEST = new MigrationVersion(Long.toString(Long.MAX_VALUE), "<< Latest Version >>");
 
+    /**
+     * The versions created through {@link #fromVersion(String)}, by version string.
+     */
+    private static final ConcurrentMap<String, MigrationVersion> INTERNED_VERSIONS =
+            new ConcurrentHashMap<String, MigrationVersion>();
+
     /**
      * The version.
      */
@@ -41,6 +55,17 @@ public final class MigrationVersion implements Comparable<MigrationVersion> {
      */
     private final String displayText;
 
+    /**
+     * The numeric value of each element of the version, without trailing zeroes. Ex.: 1.02.0.3.0.0 -> [1, 2, 0, 3]
+     * {@code null} for the empty schema.
+     */
+    private final long[] key;
+
+    /**
+     * The hash code, computed from the key so it is consistent with equals.
+     */
+    private final int hashCode;
+
     /**
      * Creates a Version using this version string.
      *
@@ -63,6 +88,8 @@ public final class MigrationVersion implements Comparable<MigrationVersion> {
 
         this.version = normalizedVersion;
         this.displayText = normalizedVersion;
+        this.key = parseKey(normalizedVersion);
+        this.hashCode = Arrays.hashCode(key);
     }
 
     /**
@@ -75,13 +102,59 @@ public final class MigrationVersion implements Comparable<MigrationVersion> {
     private MigrationVersion(String version, String displayText) {
         this.version = version;
         this.displayText = displayText;
+        this.key = version == null ? null : parseKey(version);
+        this.hashCode = Arrays.hashCode(key);
+    }
+
+    /**
+     * Retrieves the version for this version string. Versions are immutable, so the same instance is returned for
+     * every occurrence of the same version string, instead of parsing it again.
+     *
+     * @param version The version in one of the following formats: 6, 6.0, 005, 1.2.3.4, 201004200021.
+     * @return The version.
+     */
+    public static MigrationVersion fromVersion(String version) {
+        MigrationVersion migrationVersion = INTERNED_VERSIONS.get(version);
+        if (migrationVersion == null) {
+            migrationVersion = new MigrationVersion(version);
+            MigrationVersion existingVersion = INTERNED_VERSIONS.putIfAbsent(version, migrationVersion);
+            if (existingVersion != null) {
+                migrationVersion = existingVersion;
+            }
+        }
+        return migrationVersion;
     }
 
     /**
-     * @return The individual elements this version string is composed of. Ex. 1.2.3.4.0 -> [1, 2, 3, 4, 0]
+     * Parses this version string into its comparison key.
+     *
+     * @param version The version string, containing only digits and dots.
+     * @return The numeric value of each element, without trailing zeroes. Ex. 1.2.3.4.0 -> [1, 2, 3, 4]
+     * @throws FlywayException when an element is empty or too large.
      */
-    private String[] getElements() {
-        return tokenizeToStringArray(version, ".");
+    private static long[] parseKey(String version) {
+        String[] elements = version.split("\\.");
+
+        int length = elements.length;
+        long[] values = new long[length];
+        for (int i = 0; i < length; i++) {
+            try {
+                values[i] = Long.parseLong(elements[i]);
+            } catch (NumberFormatException e) {
+                throw new FlywayException("Invalid version element '" + elements[i] + "' in version: " + version, e);
+            }
+        }
+
+        while ((length > 0) && (values[length - 1] == 0)) {
+            length--;
+        }
+        if (length == values.length) {
+            return values;
+        }
+
+        long[] key = new long[length];
+        System.arraycopy(values, 0, key, 0, length);
+        return key;
     }
 
     /**
@@ -104,9 +177,7 @@ public final class MigrationVersion implements Comparable<MigrationVersion> {
 
     @Override
     public int hashCode() {
-        int result = version != null ? version.hashCode() : 0;
-        result = 31 * result + displayText.hashCode();
-        return result;
+        return hashCode;
     }
 
     public int compareTo(MigrationVersion o) {
@@ -129,91 +200,15 @@ public final class MigrationVersion implements Comparable<MigrationVersion> {
         if (o == LATEST) {
             return Integer.MIN_VALUE;
         }
-        final String[] elements1 = getElements();
-        final String[] elements2 = o.getElements();
-        int smallestNumberOfElements = Math.min(elements1.length, elements2.length);
-        for (int i = 0; i < smallestNumberOfElements; i++) {
-            String element1 = elements1[i];
-            String element2 = elements2[i];
-            final int compared;
-            if (isNumeric(element1) && isNumeric(element2)) {
-                compared = Long.valueOf(element1).compareTo(Long.valueOf(element2));
-            } else {
-                compared = element1.compareTo(element2);
-            }
-            if (compared != 0) {
-                return compared;
-            }
-        }
-
-        final int lengthDifference = elements1.length - elements2.length;
-        if (lengthDifference > 0 && onlyTrailingZeroes(elements1, smallestNumberOfElements)) {
-            return 0;
-        }
-        if (lengthDifference < 0 && onlyTrailingZeroes(elements2, smallestNumberOfElements)) {
-            return 0;
-        }
-        return lengthDifference;
-    }
 
-    /**
-     * Checks whether the elements at this position and beyond are only zeroes or not.
-     *
-     * @param elements The elements to check.
-     * @param position The position where to start checking.
-     *
-     * @return {@code true} if they are all zeroes, {@code false} if not.
-     */
-    private boolean onlyTrailingZeroes(String[] elements, int position) {
-        for (int i = position; i < elements.length; i++) {
-            String element = elements[i];
-            if (!isNumeric(element) || !Long.valueOf(element).equals(0L)) {
-                return false;
+        final long[] key1 = key;
+        final long[] key2 = o.key;
+        int smallestNumberOfElements = Math.min(key1.length, key2.length);
+        for (int i = 0; i < smallestNumberOfElements; i++) {
+            if (key1[i] != key2[i]) {
+                return key1[i] < key2[i] ? -1 : 1;
             }
         }
-        return true;
-    }
-
-    /**
-     * Splits this string into an array using these delimiters.
-     *
-     * @param str        The string to split.
-     * @param delimiters The delimiters to use.
-     * @return The resulting array.
-     */
-    private String[] tokenizeToStringArray(String str, String delimiters) {
-        if (str == null) {
-            return null;
-        }
-        String[] tokens = str.split("[" + delimiters + "]");
-        for (int i = 0; i < tokens.length; i++) {
-            tokens[i] = tokens[i].trim();
-        }
-        return tokens;
-    }
-
-    /**
-     * <p>Checks if the String contains only unicode digits. A decimal point is not a unicode digit and returns
-     * false.</p> <p/> <p>{@code null} will return {@code false}. An empty String ("") will return {@code true}.</p>
-     * <p/>
-     * <pre>
-     * StringUtils.isNumeric(null)   = false
-     * StringUtils.isNumeric("")     = true
-     * StringUtils.isNumeric("  ")   = false
-     * StringUtils.isNumeric("123")  = true
-     * StringUtils.isNumeric("12 3") = false
-     * StringUtils.isNumeric("ab2c") = false
-     * StringUtils.isNumeric("12-3") = false
-     * StringUtils.isNumeric("12.3") = false
-     * </pre>
-     *
-     * @param str the String to check, may be null
-     * @return {@code true} if only contains digits, and is non-null
-     */
-    private boolean isNumeric(String str) {
-        if (str == null) {
-            return false;
-        }
-        return str.matches("\\d*");
+        return key1.length - key2.length;
     }
 }
@@ -16,16 +16,28 @@
 package com.googlecode.flyway.core.command;
 
 import com.googlecode.flyway.core.api.FlywayException;
+import com.googlecode.flyway.core.dbsupport.DbSupport;
+import com.googlecode.flyway.core.dbsupport.DbSupportFactory;
 import com.googlecode.flyway.core.dbsupport.Schema;
 import com.googlecode.flyway.core.metadatatable.MetaDataTable;
 import com.googlecode.flyway.core.util.StopWatch;
+import com.googlecode.flyway.core.util.StringUtils;
 import com.googlecode.flyway.core.util.TimeFormat;
+import com.googlecode.flyway.core.util.jdbc.JdbcUtils;
 import com.googlecode.flyway.core.util.jdbc.TransactionCallback;
 import com.googlecode.flyway.core.util.jdbc.TransactionTemplate;
 import com.googlecode.flyway.core.util.logging.Log;
 import com.googlecode.flyway.core.util.logging.LogFactory;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Main workflow for cleaning the database.
@@ -49,16 +61,51 @@ public class DbClean {
     private final Schema[] schemas;
 
     /**
-     * Creates a new database cleaner.
+     * The dataSource to obtain the additional connections from when cleaning in parallel. {@code null} to always
+     * clean sequentially.
+     */
+    private final DataSource dataSource;
+
+    /**
+     * The maximum number of schemas to clean concurrently, each on its own connection.
+     */
+    private final int parallelism;
+
+    /**
+     * Whether to drop all objects of a schema with a single server-side block, where the database supports it.
+     */
+    private final boolean serverSideClean;
+
+    /**
+     * Creates a new database cleaner that cleans the schemas sequentially.
      *
      * @param connection    The connection to use.
      * @param metaDataTable The metadata table.
      * @param schemas       The schemas to clean.
      */
     public DbClean(Connection connection, MetaDataTable metaDataTable, Schema[] schemas) {
+        this(connection, metaDataTable, schemas, null, 1, false);
+    }
+
+    /**
+     * Creates a new database cleaner.
+     *
+     * @param connection      The connection to use.
+     * @param metaDataTable   The metadata table.
+     * @param schemas         The schemas to clean.
+     * @param dataSource      The dataSource to obtain the additional connections from when cleaning in parallel.
+     * @param parallelism     The maximum number of schemas to clean concurrently. 1 to clean sequentially.
+     * @param serverSideClean Whether to drop all objects of a schema with a single server-side block on the additional
+     *                        connections, where the database supports it.
+     */
+    public DbClean(Connection connection, MetaDataTable metaDataTable, Schema[] schemas,
+                   DataSource dataSource, int parallelism, boolean serverSideClean) {
         this.connection = connection;
         this.metaDataTable = metaDataTable;
         this.schemas = schemas;
+        this.dataSource = dataSource;
+        this.parallelism = parallelism;
+        this.serverSideClean = serverSideClean;
     }
 
     /**
@@ -74,22 +121,123 @@ public class DbClean {
             LOG.error("Error while checking whether the schemas should be dropped", e);
         }
 
-        for (Schema schema : schemas) {
+        if ((dataSource != null) && (parallelism > 1) && (schemas.length > 1)) {
+            cleanInParallel(dropSchemas);
+        } else {
+            for (Schema schema : schemas) {
+                if (dropSchemas) {
+                    dropSchema(connection, schema);
+                } else {
+                    cleanSchema(connection, schema);
+                }
+            }
+        }
+
+        metaDataTable.clearCache();
+    }
+
+    /**
+     * Cleans (or drops) the schemas concurrently, each on its own connection. All schemas are processed, even if
+     * some of them fail. The failures are then reported in the order of the schemas.
+     *
+     * @param dropSchemas {@code true} if the schemas should be dropped, {@code false} if they should be cleaned.
+     * @throws FlywayException when clean failed for at least one schema.
+     */
+    private void cleanInParallel(final boolean dropSchemas) {
+        int threads = Math.min(parallelism, schemas.length);
+        LOG.debug("Cleaning " + schemas.length + " schemas using " + threads + " parallel connections ...");
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Exception> failures = new ArrayList<Exception>();
+        List<Schema> failedSchemas = new ArrayList<Schema>();
+        try {
+            List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (final Schema schema : schemas) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    public Void call() {
+                        cleanOnOwnConnection(schema, dropSchemas);
+                        return null;
+                    }
+                }));
+            }
+
+            for (int i = 0; i < schemas.length; i++) {
+                try {
+                    futures.get(i).get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    failures.add((Exception) cause);
+                    failedSchemas.add(schemas[i]);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlywayException("Interrupted while cleaning schemas", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        stopWatch.stop();
+
+        if (failures.size() == 1) {
+            Exception failure = failures.get(0);
+            if (failure instanceof FlywayException) {
+                throw (FlywayException) failure;
+            }
+            throw new FlywayException("Unable to clean schema " + failedSchemas.get(0), failure);
+        }
+        if (!failures.isEmpty()) {
+            for (int i = 0; i < failures.size(); i++) {
+                LOG.error("Unable to clean schema " + failedSchemas.get(i), failures.get(i));
+            }
+            throw new FlywayException("Unable to clean schemas "
+                    + StringUtils.collectionToCommaDelimitedString(failedSchemas), failures.get(0));
+        }
+
+        LOG.info(String.format("Cleaned %d schemas in parallel (execution time %s)",
+                schemas.length, TimeFormat.format(stopWatch.getTotalTimeMillis())));
+    }
+
+    /**
+     * Cleans (or drops) this schema using a new connection obtained from the dataSource.
+     *
+     * @param schema      The schema to clean.
+     * @param dropSchemas {@code true} if the schema should be dropped, {@code false} if it should be cleaned.
+     * @throws FlywayException when clean failed.
+     */
+    private void cleanOnOwnConnection(Schema schema, boolean dropSchemas) {
+        Connection schemaConnection = JdbcUtils.openConnection(dataSource);
+        DbSupport dbSupport = null;
+        try {
+            dbSupport = DbSupportFactory.createDbSupport(schemaConnection);
+            dbSupport.setServerSideClean(serverSideClean);
+            Schema schemaOnConnection = dbSupport.getSchema(schema.getName());
             if (dropSchemas) {
-                dropSchema(schema);
+                dropSchema(schemaConnection, schemaOnConnection);
             } else {
-                cleanSchema(schema);
+                cleanSchema(schemaConnection, schemaOnConnection);
+            }
+        } finally {
+            if (dbSupport != null) {
+                dbSupport.getJdbcTemplate().close();
             }
+            JdbcUtils.closeConnection(schemaConnection);
         }
     }
 
     /**
      * Drops this schema.
      *
-     * @param schema The schema to drop.
+     * @param connection The connection to use.
+     * @param schema     The schema to drop.
      * @throws FlywayException when the drop failed.
      */
-    private void dropSchema(final Schema schema) {
+    private void dropSchema(Connection connection, final Schema schema) {
         LOG.debug("Dropping schema " + schema + " ...");
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
@@ -107,10 +255,11 @@ public class DbClean {
     /**
      * Cleans this schema of all objects.
      *
-     * @param schema The schema to clean.
+     * @param connection The connection to use.
+     * @param schema     The schema to clean.
      * @throws FlywayException when clean failed.
      */
-    private void cleanSchema(final Schema schema) {
+    private void cleanSchema(Connection connection, final Schema schema) {
         LOG.debug("Cleaning schema " + schema + " ...");
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
@@ -0,0 +1,184 @@
+/**
+ * Copyright (C) 2010-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.command;
+
+import com.googlecode.flyway.core.api.FlywayException;
+import com.googlecode.flyway.core.metadatatable.MetaDataTable;
+import com.googlecode.flyway.core.util.TimeFormat;
+import com.googlecode.flyway.core.util.jdbc.TransactionCallback;
+import com.googlecode.flyway.core.util.jdbc.TransactionTemplate;
+import com.googlecode.flyway.core.util.logging.Log;
+import com.googlecode.flyway.core.util.logging.LogFactory;
+
+import java.sql.Connection;
+import java.util.Random;
+
+/**
+ * Coordinates the migration of a schema by many instances starting at the same time. A single instance, the leader,
+ * performs the migration. The others, the followers, wait for it to publish the fingerprint of the migrated schema,
+ * polling a single row with a jittered backoff instead of queuing for the lock and reading the whole metadata table.
+ */
+public class DbCoordinate {
+    private static final Log LOG = LogFactory.getLog(DbCoordinate.class);
+
+    /**
+     * The delay before the first poll of a follower (in ms).
+     */
+    private static final long INITIAL_POLL_DELAY = 100;
+
+    /**
+     * The maximum delay between two polls of a follower (in ms).
+     */
+    private static final long MAX_POLL_DELAY = 5000;
+
+    /**
+     * The database connection to use for accessing the metadata table.
+     */
+    private final Connection connection;
+
+    /**
+     * The metadata table.
+     */
+    private final MetaDataTable metaDataTable;
+
+    /**
+     * The fingerprint of the resolved migrations and of the settings they will be applied with.
+     */
+    private final String fingerprint;
+
+    /**
+     * The maximum time a follower waits for the leader (in ms). This is also the lease time of the leadership claim,
+     * after which it is considered abandoned by a leader that died.
+     */
+    private final long leaderTimeout;
+
+    /**
+     * The source of the jitter, so that followers don't poll in lockstep.
+     */
+    private final Random random = new Random();
+
+    /**
+     * Creates a new DbCoordinate.
+     *
+     * @param connection    The database connection to use for accessing the metadata table.
+     * @param metaDataTable The metadata table.
+     * @param fingerprint   The fingerprint of the resolved migrations and of the settings they will be applied with.
+     * @param leaderTimeout The maximum time a follower waits for the leader (in ms).
+     */
+    public DbCoordinate(Connection connection, MetaDataTable metaDataTable, String fingerprint, long leaderTimeout) {
+        this.connection = connection;
+        this.metaDataTable = metaDataTable;
+        this.fingerprint = fingerprint;
+        this.leaderTimeout = leaderTimeout;
+    }
+
+    /**
+     * Tries to become the leader. This only holds the lock on the metadata table for the time needed to record the
+     * claim. The table holding the claims is created beforehand in a transaction of its own, as creating it would
+     * otherwise release the lock on databases committing DDL implicitly, letting another instance claim the leadership
+     * too.
+     *
+     * @return {@code true} if this instance is now the leader and must perform the migration, {@code false} if another
+     *         instance already is.
+     */
+    public boolean elect() {
+        try {
+            new TransactionTemplate(connection).execute(new TransactionCallback<Void>() {
+                public Void doInTransaction() {
+                    metaDataTable.lock();
+                    metaDataTable.ensureFingerprintTable();
+                    return null;
+                }
+            });
+        } finally {
+            metaDataTable.unlock();
+        }
+
+        try {
+            return new TransactionTemplate(connection).execute(new TransactionCallback<Boolean>() {
+                public Boolean doInTransaction() {
+                    metaDataTable.lock();
+                    return metaDataTable.claimLeadership(fingerprint, leaderTimeout);
+                }
+            });
+        } finally {
+            metaDataTable.unlock();
+        }
+    }
+
+    /**
+     * Waits as a follower for the leader to complete the migration.
+     *
+     * @return {@code true} if the leader has published the fingerprint and there is nothing left to migrate,
+     *         {@code false} if it gave up or didn't complete in time, in which case the follower must perform the
+     *         migration itself.
+     * @throws FlywayException when the thread was interrupted while waiting.
+     */
+    public boolean awaitLeader() throws FlywayException {
+        LOG.info("Waiting for another instance to migrate metadata table " + metaDataTable + " ...");
+
+        long start = System.currentTimeMillis();
+        long delay = INITIAL_POLL_DELAY;
+        while (System.currentTimeMillis() - start < leaderTimeout) {
+            sleep(delay / 2 + (long) (random.nextDouble() * delay / 2));
+            delay = Math.min(delay * 2, MAX_POLL_DELAY);
+
+            if (fingerprint.equals(metaDataTable.getFingerprint())) {
+                LOG.info("Metadata table " + metaDataTable + " migrated by another instance (waited "
+                        + TimeFormat.format(System.currentTimeMillis() - start) + ")");
+                return true;
+            }
+            if (!metaDataTable.isLeadershipClaimed(fingerprint, leaderTimeout)) {
+                LOG.info("The migration by another instance did not complete. Migrating metadata table "
+                        + metaDataTable + " ...");
+                return false;
+            }
+        }
+
+        LOG.warn("Timed out after " + TimeFormat.format(System.currentTimeMillis() - start)
+                + " waiting for another instance to migrate metadata table " + metaDataTable + ". Migrating it now.");
+        return false;
+    }
+
+    /**
+     * Releases the leadership, so that followers stop waiting. Called by the leader once the migration has ended,
+     * successfully or not.
+     */
+    public void resign() {
+        new TransactionTemplate(connection).execute(new TransactionCallback<Void>() {
+            public Void doInTransaction() {
+                metaDataTable.releaseLeadership(fingerprint);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Sleeps for this number of milliseconds.
+     *
+     * @param millis The time to sleep (in ms).
+     * @throws FlywayException when the thread was interrupted.
+     */
+    private void sleep(long millis) throws FlywayException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlywayException("Interrupted while waiting for another instance to migrate metadata table "
+                    + metaDataTable, e);
+        }
+    }
+}
@@ -95,6 +95,27 @@ public class DbMigrate {
      */
     private boolean outOfOrder;
 
+    /**
+     * The migrations still pending as calculated at the last refresh. {@code null} before the first refresh.
+     */
+    private MigrationInfoImpl[] pendingMigrations;
+
+    /**
+     * The index in pendingMigrations of the next migration to apply.
+     */
+    private int nextPendingMigration;
+
+    /**
+     * The highest installed rank in the metadata table, as known to this migrator. Used to detect migrations applied
+     * concurrently by another process without having to re-read the entire metadata table.
+     */
+    private int latestInstalledRank;
+
+    /**
+     * The current version of the schema, as known to this migrator.
+     */
+    private MigrationVersion currentSchemaVersion;
+
     /**
      * Creates a new database migrator.
      *
@@ -133,54 +154,52 @@ public class DbMigrate {
 
         int migrationSuccessCount = 0;
         while (true) {
-            final boolean firstRun = migrationSuccessCount == 0;
-            Pair<Boolean, MigrationVersion> result =
-                    new TransactionTemplate(connectionMetaDataTable).execute(new TransactionCallback<Pair<Boolean, MigrationVersion>>() {
+            Pair<Boolean, MigrationVersion> result;
+            try {
+                result = new TransactionTemplate(connectionMetaDataTable).execute(new TransactionCallback<Pair<Boolean, MigrationVersion>>() {
                         public Pair<Boolean, MigrationVersion> doInTransaction() {
                             metaDataTable.lock();
 
-                            MigrationInfoServiceImpl infoService =
-                                    new MigrationInfoServiceImpl(migrationResolver, metaDataTable, target, outOfOrder);
-                            infoService.refresh();
-
-                            MigrationVersion currentSchemaVersion = metaDataTable.getCurrentSchemaVersion();
-                            if (firstRun) {
+                            if (pendingMigrations == null) {
+                                MigrationVersion failedVersion = refreshPendingMigrations();
                                 LOG.info("Current version of schema " + schema + ": " + currentSchemaVersion);
 
                                 if (outOfOrder) {
                                     LOG.warn("outOfOrder mode is active. Migration of schema " + schema + " may not be reproducible.");
                                 }
-                            }
-
-                            MigrationInfo[] future = infoService.future();
-                            MigrationInfo[] resolved = infoService.resolved();
-                            boolean isFutureMigration = future.length < 0;
-                            if (isFutureMigration) {
-                                LOG.warn("Schema " + schema + " has a version (" + currentSchemaVersion + ") that is newer than the latest available migration ("
-                                        + resolved[resolved.length - 1].getVersion() + ") !");
-                            }
 
-                            MigrationInfo[] failed = infoService.failed();
-                            if (failed.length > 0) {
-                                if ((failed.length == 1)
-                                        && (failed[0].getState() == MigrationState.FUTURE_FAILED)
-                                        && ignoreFailedFutureMigration) {
-                                    LOG.warn("Schema " + schema + " contains a failed future migration to version " + failed[0].getVersion() + " !");
-                                } else {
-                                    return Pair.of(false, failed[0].getVersion());
+                                if (failedVersion != null) {
+                                    return Pair.of(false, failedVersion);
+                                }
+                            } else if (metaDataTable.getLatestInstalledRank() != latestInstalledRank) {
+                                LOG.debug("Metadata table " + metaDataTable + " has been modified by another process. Recalculating pending migrations...");
+                                MigrationVersion failedVersion = refreshPendingMigrations();
+                                if (failedVersion != null) {
+                                    return Pair.of(false, failedVersion);
                                 }
                             }
 
-                            MigrationInfoImpl[] pendingMigrations = infoService.pending();
-
-                            if (pendingMigrations.length == 0) {
+                            if (nextPendingMigration >= pendingMigrations.length) {
                                 return null;
                             }
 
-                            boolean isOutOfOrder = pendingMigrations[0].getVersion().compareTo(currentSchemaVersion) < 0;
-                            return applyMigration(pendingMigrations[0].getResolvedMigration(), isOutOfOrder);
+                            MigrationInfoImpl pendingMigration = pendingMigrations[nextPendingMigration];
+                            MigrationVersion version = pendingMigration.getVersion();
+                            boolean isOutOfOrder = version.compareTo(currentSchemaVersion) < 0;
+                            Pair<Boolean, MigrationVersion> migrationResult =
+                                    applyMigration(pendingMigration.getResolvedMigration(), isOutOfOrder);
+
+                            nextPendingMigration++;
+                            latestInstalledRank++;
+                            if (!isOutOfOrder) {
+                                currentSchemaVersion = version;
+                            }
+                            return migrationResult;
                         }
                     });
+            } finally {
+                metaDataTable.unlock();
+            }
 
             if (result == null) {
                 // No further migrations available
@@ -196,26 +215,71 @@ public class DbMigrate {
 
         stopWatch.stop();
 
-        logSummary(migrationSuccessCount, stopWatch.getTotalTimeMillis());
+        logSummary(migrationSuccessCount, stopWatch.getTotalTimeMillis(), metaDataTable.getLockWaitTime());
         return migrationSuccessCount;
     }
 
+    /**
+     * Calculates the migrations that are still pending based on a fresh read of the resolved migrations and the
+     * metadata table. Must be called while holding the lock on the metadata table.
+     *
+     * @return The version of the failed migration preventing further migrations. {@code null} if there is none.
+     */
+    private MigrationVersion refreshPendingMigrations() {
+        latestInstalledRank = metaDataTable.getLatestInstalledRank();
+
+        MigrationInfoServiceImpl infoService =
+                new MigrationInfoServiceImpl(migrationResolver, metaDataTable, target, outOfOrder);
+        infoService.refresh();
+
+        currentSchemaVersion = metaDataTable.getCurrentSchemaVersion();
+        pendingMigrations = infoService.pending();
+        nextPendingMigration = 0;
+
+        MigrationInfo[] future = infoService.future();
+        MigrationInfo[] resolved = infoService.resolved();
+        boolean isFutureMigration = future.length < 0;
+        if (isFutureMigration) {
+            LOG.warn("Schema " + schema + " has a version (" + currentSchemaVersion + ") that is newer than the latest available migration ("
+                    + resolved[resolved.length - 1].getVersion() + ") !");
+        }
+
+        MigrationInfo[] failed = infoService.failed();
+        if (failed.length > 0) {
+            if ((failed.length == 1)
+                    && (failed[0].getState() == MigrationState.FUTURE_FAILED)
+                    && ignoreFailedFutureMigration) {
+                LOG.warn("Schema " + schema + " contains a failed future migration to version " + failed[0].getVersion() + " !");
+            } else {
+                return failed[0].getVersion();
+            }
+        }
+
+        return null;
+    }
+
     /**
      * Logs the summary of this migration run.
      *
      * @param migrationSuccessCount The number of successfully applied migrations.
      * @param executionTime         The total time taken to perform this migration run (in ms).
+     * @param lockWaitTime          The part of the execution time spent waiting for the lock on the metadata table (in ms).
      */
-    private void logSummary(int migrationSuccessCount, long executionTime) {
+    private void logSummary(int migrationSuccessCount, long executionTime, long lockWaitTime) {
         if (migrationSuccessCount == 0) {
-            LOG.info("Schema " + schema + " is up to date. No migration necessary.");
+            if (lockWaitTime > 0) {
+                LOG.info("Schema " + schema + " is up to date. No migration necessary (lock wait time " + TimeFormat.format(lockWaitTime) + ").");
+            } else {
+                LOG.info("Schema " + schema + " is up to date. No migration necessary.");
+            }
             return;
         }
 
+        String times = "(execution time " + TimeFormat.format(executionTime) + ", lock wait time " + TimeFormat.format(lockWaitTime) + ")";
         if (migrationSuccessCount == 1) {
-            LOG.info("Successfully applied 1 migration to schema " + schema + " (execution time " + TimeFormat.format(executionTime) + ").");
+            LOG.info("Successfully applied 1 migration to schema " + schema + " " + times + ".");
         } else {
-            LOG.info("Successfully applied " + migrationSuccessCount + " migrations to schema " + schema + " (execution time " + TimeFormat.format(executionTime) + ").");
+            LOG.info("Successfully applied " + migrationSuccessCount + " migrations to schema " + schema + " " + times + ".");
         }
     }
 
@@ -242,7 +306,12 @@ public class DbMigrate {
         try {
             new TransactionTemplate(connectionUserObjects).execute(new TransactionCallback<Void>() {
                 public Void doInTransaction() {
-                    migration.getExecutor().execute(new JdbcTemplate(connectionUserObjects), dbSupport);
+                    JdbcTemplate jdbcTemplate = new JdbcTemplate(connectionUserObjects);
+                    try {
+                        migration.getExecutor().execute(jdbcTemplate, dbSupport);
+                    } finally {
+                        jdbcTemplate.close();
+                    }
                     return null;
                 }
             });
@@ -0,0 +1,58 @@
+/**
+ * Copyright (C) 2010-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.dbsupport;
+
+/**
+ * Base class for strategies using the native advisory (application) locks of the database instead of locking the
+ * table. Advisory locks only block other Flyway instances trying to acquire the same lock. Readers of the table are
+ * not affected.
+ */
+public abstract class AdvisoryLockStrategy implements LockStrategy {
+    /**
+     * The Jdbc Template for communicating with the DB.
+     */
+    protected final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates a new advisory lock strategy.
+     *
+     * @param jdbcTemplate The Jdbc Template for communicating with the DB.
+     */
+    public AdvisoryLockStrategy(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Computes the numeric key of the advisory lock for this table. The high 32 bits identify Flyway and the low 32
+     * bits the table.
+     *
+     * @param table The table to lock.
+     * @return The key.
+     */
+    protected long getLockKey(Table table) {
+        return ((long) "flyway".hashCode() << 32) | (table.toString().hashCode() & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Computes the name of the advisory lock for this table. It is short enough to be accepted by all databases.
+     *
+     * @param table The table to lock.
+     * @return The name.
+     */
+    protected String getLockName(Table table) {
+        return "flyway_" + Long.toHexString(getLockKey(table));
+    }
+}
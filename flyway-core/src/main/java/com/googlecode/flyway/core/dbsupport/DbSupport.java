@@ -28,6 +28,16 @@ public abstract class DbSupport {
      */
     protected final JdbcTemplate jdbcTemplate;
 
+    /**
+     * Whether clean may drop all objects of a schema with a single server-side block, where the database supports it.
+     */
+    private boolean serverSideClean;
+
+    /**
+     * Whether concurrent migrations may be serialized with a native advisory lock, where the database supports it.
+     */
+    private boolean advisoryLocks;
+
     /**
      * Creates a new DbSupport instance with this JdbcTemplate.
      *
@@ -44,6 +54,38 @@ public abstract class DbSupport {
         return jdbcTemplate;
     }
 
+    /**
+     * @return Whether clean may drop all objects of a schema with a single server-side block, where the database
+     *         supports it. (default: {@code false})
+     */
+    public boolean isServerSideClean() {
+        return serverSideClean;
+    }
+
+    /**
+     * @param serverSideClean Whether clean may drop all objects of a schema with a single server-side block, where the
+     *                        database supports it. (default: {@code false})
+     */
+    public void setServerSideClean(boolean serverSideClean) {
+        this.serverSideClean = serverSideClean;
+    }
+
+    /**
+     * @return Whether concurrent migrations may be serialized with a native advisory lock, where the database supports
+     *         it. (default: {@code false})
+     */
+    public boolean isAdvisoryLocks() {
+        return advisoryLocks;
+    }
+
+    /**
+     * @param advisoryLocks Whether concurrent migrations may be serialized with a native advisory lock, where the
+     *                      database supports it. (default: {@code false})
+     */
+    public void setAdvisoryLocks(boolean advisoryLocks) {
+        this.advisoryLocks = advisoryLocks;
+    }
+
     /**
      * Retrieves the schema with this name in the database.
      *
@@ -136,6 +178,16 @@ public abstract class DbSupport {
      */
     public abstract String getBooleanFalse();
 
+    /**
+     * Builds a query that only returns the first row of this table according to this ordering.
+     *
+     * @param columns The comma-separated list of (quoted) columns to select.
+     * @param table   The fully qualified (quoted) table to select from.
+     * @param orderBy The ordering to apply, without the ORDER BY keyword. (ex.: "version_rank" DESC)
+     * @return The database-specific query.
+     */
+    public abstract String getFirstRowQuery(String columns, String table, String orderBy);
+
     /**
      * Quote these identifiers for use in sql queries. Multiple identifiers will be quoted and separated by a dot.
      *
@@ -169,4 +221,27 @@ public abstract class DbSupport {
      * @return {@code true} if this database use a catalog to represent a schema. {@code false} if a schema is simply a schema.
      */
     public abstract boolean catalogIsSchema();
+
+    /**
+     * Creates the strategy to use to serialize the migrations of concurrent Flyway instances on the metadata table.
+     * This locks the table itself, unless advisory locks have been enabled.
+     *
+     * @return The lock strategy.
+     */
+    public LockStrategy createLockStrategy() {
+        if (advisoryLocks) {
+            return createAdvisoryLockStrategy();
+        }
+        return new TableLockStrategy();
+    }
+
+    /**
+     * Creates the strategy to use when advisory locks have been enabled. The default locks the table itself.
+     * Databases with native advisory locks override this.
+     *
+     * @return The lock strategy.
+     */
+    protected LockStrategy createAdvisoryLockStrategy() {
+        return new TableLockStrategy();
+    }
 }
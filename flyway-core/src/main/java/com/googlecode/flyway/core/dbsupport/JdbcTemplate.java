@@ -16,16 +16,21 @@
 package com.googlecode.flyway.core.dbsupport;
 
 import com.googlecode.flyway.core.util.jdbc.JdbcUtils;
+import com.googlecode.flyway.core.util.jdbc.RowCallbackHandler;
 import com.googlecode.flyway.core.util.jdbc.RowMapper;
+import com.googlecode.flyway.core.util.logging.Log;
+import com.googlecode.flyway.core.util.logging.LogFactory;
 
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -33,11 +38,59 @@ import java.util.Map;
  * Collection of utility methods for querying the DB. Inspired by Spring's JdbcTemplate.
  */
 public class JdbcTemplate {
+    private static final Log LOG = LogFactory.getLog(JdbcTemplate.class);
+
+    /**
+     * The default number of statements to send to the database in a single batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    /**
+     * The maximum number of prepared statements kept open for reuse on the connection.
+     */
+    public static final int STATEMENT_CACHE_SIZE = 20;
+
     /**
      * The DB connection to use.
      */
     private Connection connection;
 
+    /**
+     * The maximum number of statements to send to the database in a single batch.
+     */
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * The number of rows to fetch from the database per roundtrip when streaming query results. 0 to use the default
+     * of the driver.
+     */
+    private int fetchSize;
+
+    /**
+     * The prepared statements kept open for reuse, keyed by sql, in least-recently-used order.
+     */
+    private final Map<String, PreparedStatement> statementCache =
+            new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                    if (size() > STATEMENT_CACHE_SIZE) {
+                        JdbcUtils.closeStatement(eldest.getValue());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+
+    /**
+     * The number of times a cached prepared statement could be reused.
+     */
+    private int statementCacheHits;
+
+    /**
+     * The number of times a new prepared statement had to be created for the cache.
+     */
+    private int statementCacheMisses;
+
     /**
      * Creates a new JdbcTemplate.
      *
@@ -54,6 +107,56 @@ public class JdbcTemplate {
         return connection;
     }
 
+    /**
+     * @param batchSize The maximum number of statements to send to the database in a single batch.
+     *                  (default: {@link #DEFAULT_BATCH_SIZE})
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Invalid batch size: " + batchSize + ". It must be at least 1.");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param fetchSize The number of rows to fetch from the database per roundtrip when streaming query results.
+     *                  0 to use the default of the driver. (default: 0)
+     */
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize < 0) {
+            throw new IllegalArgumentException("Invalid fetch size: " + fetchSize + ". It must not be negative.");
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * @return The number of times a cached prepared statement could be reused.
+     */
+    public int getStatementCacheHits() {
+        return statementCacheHits;
+    }
+
+    /**
+     * @return The number of times a new prepared statement had to be created for the cache.
+     */
+    public int getStatementCacheMisses() {
+        return statementCacheMisses;
+    }
+
+    /**
+     * Closes all prepared statements cached by this JdbcTemplate. The connection itself is left open. This must be
+     * called before the connection is closed or handed back to a pool.
+     */
+    public void close() {
+        if (statementCacheHits + statementCacheMisses > 0) {
+            LOG.debug("Statement cache: " + statementCacheHits + " hits, " + statementCacheMisses + " misses");
+        }
+        for (PreparedStatement statement : statementCache.values()) {
+            JdbcUtils.closeStatement(statement);
+        }
+        statementCache.clear();
+    }
+
     /**
      * Executes this query with these parameters against this connection.
      *
@@ -63,31 +166,31 @@ public class JdbcTemplate {
      * @throws SQLException when the query execution failed.
      */
     public List<Map<String, String>> queryForList(String query, String... params) throws SQLException {
-        PreparedStatement statement = null;
+        PreparedStatement statement;
         ResultSet resultSet = null;
 
         List<Map<String, String>> result;
         try {
-            statement = connection.prepareStatement(query);
-            for (int i = 0; i < params.length; i++) {
-                statement.setString(i + 1, params[i]);
-            }
+            statement = prepareCachedStatement(query, params);
             resultSet = statement.executeQuery();
 
+            String[] columnLabels = getColumnLabels(resultSet);
+
             result = new ArrayList<Map<String, String>>();
             while (resultSet.next()) {
                 Map<String, String> rowMap = new HashMap<String, String>();
-                for (int i = 1; i <= resultSet.getMetaData().getColumnCount(); i++) {
-                    rowMap.put(resultSet.getMetaData().getColumnLabel(i), resultSet.getString(i));
+                for (int i = 0; i < columnLabels.length; i++) {
+                    rowMap.put(columnLabels[i], resultSet.getString(i + 1));
                 }
                 result.add(rowMap);
             }
+        } catch (SQLException e) {
+            evictCachedStatement(query);
+            throw e;
         } finally {
             JdbcUtils.closeResultSet(resultSet);
-            JdbcUtils.closeStatement(statement);
         }
 
-
         return result;
     }
 
@@ -100,24 +203,23 @@ public class JdbcTemplate {
      * @throws SQLException when the query execution failed.
      */
     public List<String> queryForStringList(String query, String... params) throws SQLException {
-        PreparedStatement statement = null;
+        PreparedStatement statement;
         ResultSet resultSet = null;
 
         List<String> result;
         try {
-            statement = connection.prepareStatement(query);
-            for (int i = 0; i < params.length; i++) {
-                statement.setString(i + 1, params[i]);
-            }
+            statement = prepareCachedStatement(query, params);
             resultSet = statement.executeQuery();
 
             result = new ArrayList<String>();
             while (resultSet.next()) {
                 result.add(resultSet.getString(1));
             }
+        } catch (SQLException e) {
+            evictCachedStatement(query);
+            throw e;
         } finally {
             JdbcUtils.closeResultSet(resultSet);
-            JdbcUtils.closeStatement(statement);
         }
 
         return result;
@@ -132,21 +234,20 @@ public class JdbcTemplate {
      * @throws SQLException when the query execution failed.
      */
     public int queryForInt(String query, String... params) throws SQLException {
-        PreparedStatement statement = null;
+        PreparedStatement statement;
         ResultSet resultSet = null;
 
         int result;
         try {
-            statement = connection.prepareStatement(query);
-            for (int i = 0; i < params.length; i++) {
-                statement.setString(i + 1, params[i]);
-            }
+            statement = prepareCachedStatement(query, params);
             resultSet = statement.executeQuery();
             resultSet.next();
             result = resultSet.getInt(1);
+        } catch (SQLException e) {
+            evictCachedStatement(query);
+            throw e;
         } finally {
             JdbcUtils.closeResultSet(resultSet);
-            JdbcUtils.closeStatement(statement);
         }
 
         return result;
@@ -161,23 +262,22 @@ public class JdbcTemplate {
      * @throws SQLException when the query execution failed.
      */
     public String queryForString(String query, String... params) throws SQLException {
-        PreparedStatement statement = null;
+        PreparedStatement statement;
         ResultSet resultSet = null;
 
         String result;
         try {
-            statement = connection.prepareStatement(query);
-            for (int i = 0; i < params.length; i++) {
-                statement.setString(i + 1, params[i]);
-            }
+            statement = prepareCachedStatement(query, params);
             resultSet = statement.executeQuery();
             result = null;
             if (resultSet.next()) {
                 result = resultSet.getString(1);
             }
+        } catch (SQLException e) {
+            evictCachedStatement(query);
+            throw e;
         } finally {
             JdbcUtils.closeResultSet(resultSet);
-            JdbcUtils.closeStatement(statement);
         }
 
         return result;
@@ -226,6 +326,26 @@ public class JdbcTemplate {
         }
     }
 
+    /**
+     * Executes these sql statements as a single batch using an ordinary Statement.
+     *
+     * @param sqls The statements to execute.
+     * @throws SQLException when the execution failed. This is a {@link java.sql.BatchUpdateException} when the
+     *                      failure could be attributed to individual statements of the batch.
+     */
+    public void executeBatch(List<String> sqls) throws SQLException {
+        Statement statement = null;
+        try {
+            statement = connection.createStatement();
+            for (String sql : sqls) {
+                statement.addBatch(sql);
+            }
+            statement.executeBatch();
+        } finally {
+            JdbcUtils.closeStatement(statement);
+        }
+    }
+
     /**
      * Executes this update sql statement.
      *
@@ -234,13 +354,75 @@ public class JdbcTemplate {
      * @throws SQLException when the execution failed.
      */
     public void update(String sql, Object... params) throws SQLException {
+        try {
+            prepareCachedStatement(sql, params).executeUpdate();
+        } catch (SQLException e) {
+            evictCachedStatement(sql);
+            throw e;
+        }
+    }
+
+    /**
+     * Executes this update sql statement once for each set of parameters. A single prepared statement is reused for
+     * all executions and the parameter sets are sent to the database in batches.
+     *
+     * @param sql         The statement to execute.
+     * @param batchParams The parameters for each execution of the statement.
+     * @return The update count of each execution, in the order of the parameter sets.
+     *         {@link Statement#SUCCESS_NO_INFO} for the executions the driver reported no count for.
+     * @throws SQLException when the execution failed.
+     */
+    public int[] batchUpdate(String sql, List<Object[]> batchParams) throws SQLException {
+        int[] updateCounts = new int[batchParams.size()];
+        if (batchParams.isEmpty()) {
+            return updateCounts;
+        }
+
         PreparedStatement statement = null;
         try {
-            statement = prepareStatement(sql, params);
-            statement.executeUpdate();
+            statement = connection.prepareStatement(sql);
+            int executed = 0;
+            int batchCount = 0;
+            for (Object[] params : batchParams) {
+                statement.clearParameters();
+                setParams(statement, params);
+                statement.addBatch();
+                batchCount++;
+
+                if (batchCount == batchSize) {
+                    executed = executeBatch(statement, sql, updateCounts, executed);
+                    batchCount = 0;
+                }
+            }
+            if (batchCount > 0) {
+                executeBatch(statement, sql, updateCounts, executed);
+            }
         } finally {
             JdbcUtils.closeStatement(statement);
         }
+        return updateCounts;
+    }
+
+    /**
+     * Executes the batch collected on this statement and records its update counts.
+     *
+     * @param statement    The statement holding the batch.
+     * @param sql          The sql of the statement.
+     * @param updateCounts The update counts of all executions so far.
+     * @param offset       The number of executions whose update counts have already been recorded.
+     * @return The number of executions whose update counts have been recorded, including this batch.
+     * @throws SQLException when the execution of the batch or of one of its statements failed.
+     */
+    private int executeBatch(PreparedStatement statement, String sql, int[] updateCounts, int offset)
+            throws SQLException {
+        int[] batchUpdateCounts = statement.executeBatch();
+        for (int i = 0; i < batchUpdateCounts.length; i++) {
+            if (batchUpdateCounts[i] == Statement.EXECUTE_FAILED) {
+                throw new SQLException("Execution " + (offset + i + 1) + " of batch statement failed: " + sql);
+            }
+            updateCounts[offset + i] = batchUpdateCounts[i];
+        }
+        return offset + batchUpdateCounts.length;
     }
 
     /**
@@ -253,18 +435,64 @@ public class JdbcTemplate {
      */
     private PreparedStatement prepareStatement(String sql, Object[] params) throws SQLException {
         PreparedStatement statement = connection.prepareStatement(sql);
+        setParams(statement, params);
+        return statement;
+    }
+
+    /**
+     * Retrieves the cached prepared statement for this sql, or creates and caches a new one if none is available yet,
+     * and sets these params on it. The statement must not be closed by the caller.
+     *
+     * @param sql    The sql to execute.
+     * @param params The params.
+     * @return The prepared statement.
+     * @throws SQLException when the statement could not be prepared.
+     */
+    private PreparedStatement prepareCachedStatement(String sql, Object[] params) throws SQLException {
+        PreparedStatement statement = statementCache.get(sql);
+        if (statement == null) {
+            statementCacheMisses++;
+            statement = connection.prepareStatement(sql);
+            statementCache.put(sql, statement);
+        } else {
+            statementCacheHits++;
+            statement.clearParameters();
+        }
+        setParams(statement, params);
+        return statement;
+    }
+
+    /**
+     * Removes the prepared statement for this sql from the cache and closes it. This ensures a statement left in an
+     * unknown state by a failed execution is never reused.
+     *
+     * @param sql The sql of the statement to evict.
+     */
+    private void evictCachedStatement(String sql) {
+        JdbcUtils.closeStatement(statementCache.remove(sql));
+    }
+
+    /**
+     * Sets these params on this prepared statement.
+     *
+     * @param statement The prepared statement.
+     * @param params    The params.
+     * @throws SQLException when the params could not be set.
+     */
+    private void setParams(PreparedStatement statement, Object[] params) throws SQLException {
         for (int i = 0; i < params.length; i++) {
             if (params[i] == null) {
                 setNull(statement, i + 1);
             } else if (params[i] instanceof Integer) {
                 statement.setInt(i + 1, (Integer) params[i]);
+            } else if (params[i] instanceof Long) {
+                statement.setLong(i + 1, (Long) params[i]);
             } else if (params[i] instanceof Boolean) {
                 statement.setBoolean(i + 1, (Boolean) params[i]);
             } else {
                 statement.setString(i + 1, (String) params[i]);
             }
         }
-        return statement;
     }
 
     /**
@@ -278,6 +506,22 @@ public class JdbcTemplate {
         // Do nothing by default.
     }
 
+    /**
+     * Retrieves the labels of all columns of this result set.
+     *
+     * @param resultSet The result set.
+     * @return The column labels, in column order.
+     * @throws SQLException when the result set metadata could not be read.
+     */
+    private String[] getColumnLabels(ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        String[] columnLabels = new String[metaData.getColumnCount()];
+        for (int i = 0; i < columnLabels.length; i++) {
+            columnLabels[i] = metaData.getColumnLabel(i + 1);
+        }
+        return columnLabels;
+    }
+
     /**
      * Executes this query and map the results using this row mapper.
      *
@@ -287,24 +531,42 @@ public class JdbcTemplate {
      * @return The list of results.
      * @throws SQLException when the query failed to execute.
      */
-    public <T> List<T> query(String query, RowMapper<T> rowMapper) throws SQLException {
-        Statement statement = null;
+    public <T> List<T> query(String query, final RowMapper<T> rowMapper) throws SQLException {
+        final List<T> results = new ArrayList<T>();
+        query(query, new RowCallbackHandler() {
+            public void processRow(ResultSet rs) throws SQLException {
+                results.add(rowMapper.mapRow(rs));
+            }
+        });
+        return results;
+    }
+
+    /**
+     * Executes this query with these parameters and streams the resulting rows one by one to this callback handler,
+     * fetching them from the database in chunks of the configured fetch size. The rows are never collected in memory.
+     *
+     * @param query              The query to execute.
+     * @param rowCallbackHandler The callback handler to pass each row to.
+     * @param params             The query parameters.
+     * @throws SQLException when the query failed to execute.
+     */
+    public void query(String query, RowCallbackHandler rowCallbackHandler, String... params) throws SQLException {
+        PreparedStatement statement = null;
         ResultSet resultSet = null;
 
-        List<T> results;
         try {
-            statement = connection.createStatement();
-            resultSet = statement.executeQuery(query);
+            statement = prepareStatement(query, params);
+            if (fetchSize > 0) {
+                statement.setFetchSize(fetchSize);
+            }
+            resultSet = statement.executeQuery();
 
-            results = new ArrayList<T>();
             while (resultSet.next()) {
-                results.add(rowMapper.mapRow(resultSet));
+                rowCallbackHandler.processRow(resultSet);
             }
         } finally {
             JdbcUtils.closeResultSet(resultSet);
             JdbcUtils.closeStatement(statement);
         }
-
-        return results;
     }
 }
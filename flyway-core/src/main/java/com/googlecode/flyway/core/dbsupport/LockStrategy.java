@@ -0,0 +1,41 @@
+/**
+ * Copyright (C) 2010-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.dbsupport;
+
+import java.sql.SQLException;
+
+/**
+ * Strategy used to serialize the migrations of concurrent Flyway instances on the same metadata table.
+ */
+public interface LockStrategy {
+    /**
+     * Acquires an exclusive lock for this table. The lock is held until the end of the current transaction, or until
+     * {@link #unlock(Table)} is called after it for strategies whose locks outlive the transaction.
+     *
+     * @param table The table to lock.
+     * @throws SQLException when the lock could not be acquired.
+     */
+    void lock(Table table) throws SQLException;
+
+    /**
+     * Releases the lock for this table. Must be called once the transaction in which the lock was acquired has ended.
+     * Strategies whose locks end with the transaction do nothing.
+     *
+     * @param table The table to unlock.
+     * @throws SQLException when the lock could not be released.
+     */
+    void unlock(Table table) throws SQLException;
+}
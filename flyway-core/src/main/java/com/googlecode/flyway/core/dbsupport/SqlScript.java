@@ -16,6 +16,7 @@
 package com.googlecode.flyway.core.dbsupport;
 
 import com.googlecode.flyway.core.api.FlywayException;
+import com.googlecode.flyway.core.util.PlaceholderReplacer;
 import com.googlecode.flyway.core.util.StringUtils;
 import com.googlecode.flyway.core.util.logging.Log;
 import com.googlecode.flyway.core.util.logging.LogFactory;
@@ -24,9 +25,14 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.sql.BatchUpdateException;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * Sql script containing a series of statements terminated by semi-columns (;). Single-line (--) and multi-line (/* * /)
@@ -41,10 +47,26 @@ public class SqlScript {
     private final DbSupport dbSupport;
 
     /**
-     * The sql statements contained in this script.
+     * The sql statements contained in this script. {@code null} if this script is streamed.
      */
     private final List<SqlStatement> sqlStatements;
 
+    /**
+     * The reader for the source of this script, if this script is streamed. {@code null} if it is not.
+     */
+    private final Reader sqlScriptReader;
+
+    /**
+     * The placeholder replacer to apply to each line of the script, if this script is streamed.
+     */
+    private final PlaceholderReplacer placeholderReplacer;
+
+    /**
+     * The maximum number of consecutive data manipulation statements to execute as a single batch. 0 or 1 to execute
+     * every statement on its own.
+     */
+    private int batchSize;
+
     /**
      * Creates a new sql script from this source with these placeholders to replace.
      *
@@ -54,6 +76,52 @@ public class SqlScript {
     public SqlScript(String sqlScriptSource, DbSupport dbSupport) {
         this.dbSupport = dbSupport;
         this.sqlStatements = parse(sqlScriptSource);
+        this.sqlScriptReader = null;
+        this.placeholderReplacer = null;
+    }
+
+    /**
+     * Creates a new sql script from this source, replacing the placeholders line by line exactly like a streamed
+     * script would.
+     *
+     * @param sqlScriptSource     The sql script as a text block with all placeholders still present.
+     * @param placeholderReplacer The placeholder replacer to apply to each line of the script.
+     * @param dbSupport           The database-specific support.
+     */
+    public SqlScript(String sqlScriptSource, PlaceholderReplacer placeholderReplacer, DbSupport dbSupport) {
+        this.dbSupport = dbSupport;
+        this.sqlStatements = collectStatements(new LineIterator(new StringReader(sqlScriptSource), placeholderReplacer));
+        this.sqlScriptReader = null;
+        this.placeholderReplacer = null;
+    }
+
+    /**
+     * Creates a new sql script from these statements, which have already been parsed.
+     *
+     * @param sqlStatements The sql statements contained in this script.
+     * @param dbSupport     The database-specific support.
+     */
+    public SqlScript(List<SqlStatement> sqlStatements, DbSupport dbSupport) {
+        this.dbSupport = dbSupport;
+        this.sqlStatements = sqlStatements;
+        this.sqlScriptReader = null;
+        this.placeholderReplacer = null;
+    }
+
+    /**
+     * Creates a new streamed sql script. The source is read from this reader only while the script is being executed.
+     * Each statement is executed as soon as it has been parsed, so the script is never held in memory as a whole.
+     * The script can only be executed once and the caller remains responsible for closing the reader afterwards.
+     *
+     * @param sqlScriptReader     The reader for the sql script source with all placeholders still present.
+     * @param placeholderReplacer The placeholder replacer to apply to each line of the script as it is read.
+     * @param dbSupport           The database-specific support.
+     */
+    public SqlScript(Reader sqlScriptReader, PlaceholderReplacer placeholderReplacer, DbSupport dbSupport) {
+        this.dbSupport = dbSupport;
+        this.sqlStatements = null;
+        this.sqlScriptReader = sqlScriptReader;
+        this.placeholderReplacer = placeholderReplacer;
     }
 
     /**
@@ -64,33 +132,183 @@ public class SqlScript {
     SqlScript(DbSupport dbSupport) {
         this.dbSupport = dbSupport;
         this.sqlStatements = null;
+        this.sqlScriptReader = null;
+        this.placeholderReplacer = null;
     }
 
     /**
      * For increased testability.
      *
-     * @return The sql statements contained in this script.
+     * @return The sql statements contained in this script. {@code null} if this script is streamed.
      */
     public List<SqlStatement> getSqlStatements() {
         return sqlStatements;
     }
 
+    /**
+     * @param batchSize The maximum number of consecutive data manipulation statements (INSERT, UPDATE, DELETE, MERGE)
+     *                  to execute as a single batch. 0 or 1 to execute every statement on its own. (default: 0)
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
     /**
      * Executes this script against the database.
      *
      * @param jdbcTemplate The jdbc template to use to execute this script.
      */
     public void execute(final JdbcTemplate jdbcTemplate) {
-        for (SqlStatement sqlStatement : sqlStatements) {
-            String sql = sqlStatement.getSql();
-            LOG.debug("Executing SQL: " + sql);
+        final List<SqlStatement> batch = new ArrayList<SqlStatement>();
+        final boolean batchingEnabled = (batchSize > 1) && supportsBatchUpdates(jdbcTemplate);
 
-            try {
-                jdbcTemplate.executeStatement(sql);
-            } catch (SQLException e) {
-                throw new FlywayException("Error executing statement at line " + sqlStatement.getLineNumber()
-                        + ": " + sql, e);
+        SqlStatementCallback callback = new SqlStatementCallback() {
+            public void process(SqlStatement sqlStatement) {
+                if (batchingEnabled && isBatchable(sqlStatement)) {
+                    batch.add(sqlStatement);
+                    if (batch.size() >= batchSize) {
+                        executeBatch(jdbcTemplate, batch);
+                    }
+                    return;
+                }
+
+                executeBatch(jdbcTemplate, batch);
+                executeStatement(jdbcTemplate, sqlStatement);
+            }
+        };
+
+        if (sqlStatements != null) {
+            for (SqlStatement sqlStatement : sqlStatements) {
+                callback.process(sqlStatement);
+            }
+        } else {
+            parse(new LineIterator(sqlScriptReader, placeholderReplacer), callback);
+        }
+
+        executeBatch(jdbcTemplate, batch);
+    }
+
+    /**
+     * Checks whether the database supports JDBC batch updates.
+     *
+     * @param jdbcTemplate The jdbc template for the database.
+     * @return {@code true} if it does, {@code false} if not.
+     */
+    private boolean supportsBatchUpdates(JdbcTemplate jdbcTemplate) {
+        try {
+            return jdbcTemplate.getMetaData().supportsBatchUpdates();
+        } catch (SQLException e) {
+            LOG.debug("Unable to check whether batch updates are supported: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether this statement can be added to a batch. Only data manipulation statements are batched, as the
+     * order and visibility of DDL and other statements must be preserved exactly.
+     *
+     * @param sqlStatement The statement to check.
+     * @return {@code true} if it can, {@code false} if not.
+     */
+    /* private -> for testing */
+    static boolean isBatchable(SqlStatement sqlStatement) {
+        String sql = sqlStatement.getSql();
+        int start = 0;
+        while ((start < sql.length()) && Character.isWhitespace(sql.charAt(start))) {
+            start++;
+        }
+
+        for (String keyword : new String[]{"INSERT", "UPDATE", "DELETE", "MERGE"}) {
+            int end = start + keyword.length();
+            if (sql.regionMatches(true, start, keyword, 0, keyword.length())
+                    && ((end == sql.length()) || Character.isWhitespace(sql.charAt(end)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Executes these statements as a single batch and clears the list afterwards.
+     *
+     * @param jdbcTemplate The jdbc template to use to execute the statements.
+     * @param batch        The statements to execute. Nothing happens when it is empty.
+     */
+    private void executeBatch(JdbcTemplate jdbcTemplate, List<SqlStatement> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (batch.size() == 1) {
+            executeStatement(jdbcTemplate, batch.get(0));
+            batch.clear();
+            return;
+        }
+
+        List<String> sqls = new ArrayList<String>(batch.size());
+        for (SqlStatement sqlStatement : batch) {
+            LOG.debug("Executing SQL (batched): " + sqlStatement.getSql());
+            sqls.add(sqlStatement.getSql());
+        }
+
+        try {
+            jdbcTemplate.executeBatch(sqls);
+        } catch (SQLException e) {
+            SqlStatement failedStatement = findFailedStatement(batch, e);
+            if (failedStatement == null) {
+                throw new FlywayException("Error executing batch of statements at lines "
+                        + batch.get(0).getLineNumber() + " to " + batch.get(batch.size() - 1).getLineNumber(), e);
             }
+            throw new FlywayException("Error executing statement at line " + failedStatement.getLineNumber()
+                    + ": " + failedStatement.getSql(), e);
+        }
+        batch.clear();
+    }
+
+    /**
+     * Determines which statement of this batch caused this failure, based on the update counts reported by the driver.
+     *
+     * @param batch The statements of the batch.
+     * @param e     The failure.
+     * @return The failed statement, or {@code null} if it could not be determined.
+     */
+    private SqlStatement findFailedStatement(List<SqlStatement> batch, SQLException e) {
+        if (!(e instanceof BatchUpdateException)) {
+            return null;
+        }
+
+        int[] updateCounts = ((BatchUpdateException) e).getUpdateCounts();
+        if (updateCounts == null) {
+            return null;
+        }
+
+        if (updateCounts.length < batch.size()) {
+            // The driver stopped at the first failure.
+            return batch.get(updateCounts.length);
+        }
+
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+                return batch.get(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Executes this statement against the database.
+     *
+     * @param jdbcTemplate The jdbc template to use to execute the statement.
+     * @param sqlStatement The statement to execute.
+     */
+    private void executeStatement(JdbcTemplate jdbcTemplate, SqlStatement sqlStatement) {
+        String sql = sqlStatement.getSql();
+        LOG.debug("Executing SQL: " + sql);
+
+        try {
+            jdbcTemplate.executeStatement(sql);
+        } catch (SQLException e) {
+            throw new FlywayException("Error executing statement at line " + sqlStatement.getLineNumber()
+                    + ": " + sql, e);
         }
     }
 
@@ -113,14 +331,40 @@ public class SqlScript {
      */
     /* private -> for testing */
     List<SqlStatement> linesToStatements(List<String> lines) {
-        List<SqlStatement> statements = new ArrayList<SqlStatement>();
+        return collectStatements(lines.iterator());
+    }
 
+    /**
+     * Turns these lines in a series of statements.
+     *
+     * @param lines The lines to analyse.
+     * @return The statements contained in these lines (in order).
+     */
+    private List<SqlStatement> collectStatements(Iterator<String> lines) {
+        final List<SqlStatement> statements = new ArrayList<SqlStatement>();
+        parse(lines, new SqlStatementCallback() {
+            public void process(SqlStatement sqlStatement) {
+                statements.add(sqlStatement);
+            }
+        });
+        return statements;
+    }
+
+    /**
+     * Turns these lines in a series of statements, handing each statement to this callback as soon as it is complete.
+     *
+     * @param lines    The lines to analyse.
+     * @param callback The callback to hand the statements contained in these lines to (in order).
+     */
+    private void parse(Iterator<String> lines, SqlStatementCallback callback) {
         boolean inMultilineComment = false;
         Delimiter nonStandardDelimiter = null;
         SqlStatementBuilder sqlStatementBuilder = dbSupport.createSqlStatementBuilder();
 
-        for (int lineNumber = 1; lineNumber <= lines.size(); lineNumber++) {
-            String line = lines.get(lineNumber - 1);
+        int lineNumber = 0;
+        while (lines.hasNext()) {
+            String line = lines.next();
+            lineNumber++;
 
             if (sqlStatementBuilder.isEmpty()) {
                 if (!StringUtils.hasText(line)) {
@@ -168,8 +412,8 @@ public class SqlScript {
 
             if (sqlStatementBuilder.isTerminated()) {
                 SqlStatement sqlStatement = sqlStatementBuilder.getSqlStatement();
-                statements.add(sqlStatement);
                 LOG.debug("Found statement at line " + sqlStatement.getLineNumber() + ": " + sqlStatement.getSql());
+                callback.process(sqlStatement);
 
                 sqlStatementBuilder = dbSupport.createSqlStatementBuilder();
             }
@@ -177,10 +421,8 @@ public class SqlScript {
 
         // Catch any statements not followed by delimiter.
         if (!sqlStatementBuilder.isEmpty()) {
-            statements.add(sqlStatementBuilder.getSqlStatement());
+            callback.process(sqlStatementBuilder.getSqlStatement());
         }
-
-        return statements;
     }
 
     /**
@@ -190,7 +432,7 @@ public class SqlScript {
      * @return The list of lines (in order).
      * @throws IllegalStateException Thrown when the textual data parsing failed.
      */
-    private List<String> readLines(Reader reader) {
+    private static List<String> readLines(Reader reader) {
         List<String> lines = new ArrayList<String>();
 
         BufferedReader bufferedReader = new BufferedReader(reader);
@@ -206,4 +448,95 @@ public class SqlScript {
 
         return lines;
     }
+
+    /**
+     * Receives the statements of a script one by one, as soon as they have been parsed.
+     */
+    private interface SqlStatementCallback {
+        /**
+         * Processes this statement.
+         *
+         * @param sqlStatement The statement.
+         */
+        void process(SqlStatement sqlStatement);
+    }
+
+    /**
+     * Iterates over the lines read from a reader, replacing the placeholders in each line as it is read. Only the
+     * current line is held in memory.
+     */
+    private static class LineIterator implements Iterator<String> {
+        /**
+         * The reader to read the lines from.
+         */
+        private final BufferedReader reader;
+
+        /**
+         * The placeholder replacer to apply to each line.
+         */
+        private final PlaceholderReplacer placeholderReplacer;
+
+        /**
+         * The lines that have been read, but not returned yet. A single source line results in multiple lines here
+         * when its placeholder values contain line breaks.
+         */
+        private final LinkedList<String> pendingLines = new LinkedList<String>();
+
+        /**
+         * The number of the source line that was read last.
+         */
+        private int lineNumber;
+
+        /**
+         * Creates a new LineIterator.
+         *
+         * @param reader              The reader to read the lines from.
+         * @param placeholderReplacer The placeholder replacer to apply to each line.
+         */
+        LineIterator(Reader reader, PlaceholderReplacer placeholderReplacer) {
+            this.reader = new BufferedReader(reader);
+            this.placeholderReplacer = placeholderReplacer;
+        }
+
+        public boolean hasNext() {
+            if (!pendingLines.isEmpty()) {
+                return true;
+            }
+
+            String line;
+            try {
+                line = reader.readLine();
+            } catch (IOException e) {
+                throw new FlywayException("Unable to read sql script", e);
+            }
+            if (line == null) {
+                return false;
+            }
+            lineNumber++;
+
+            String lineNoPlaceholders;
+            try {
+                lineNoPlaceholders = placeholderReplacer.replacePlaceholders(line);
+            } catch (FlywayException e) {
+                throw new FlywayException("Unable to replace placeholders at line " + lineNumber + ": " + e.getMessage(), e);
+            }
+            if ((lineNoPlaceholders.indexOf('\n') < 0) && (lineNoPlaceholders.indexOf('\r') < 0)) {
+                pendingLines.add(lineNoPlaceholders);
+            } else {
+                pendingLines.addAll(readLines(new StringReader(lineNoPlaceholders)));
+            }
+            return true;
+        }
+
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return pendingLines.removeFirst();
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
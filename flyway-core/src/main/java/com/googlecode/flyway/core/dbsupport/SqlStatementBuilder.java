@@ -44,6 +44,16 @@ public class SqlStatementBuilder {
      */
     private Delimiter delimiter = getDefaultDelimiter();
 
+    /**
+     * The delimiter for which {@link #upperCaseDelimiter} was computed.
+     */
+    private Delimiter upperCaseDelimiterSource;
+
+    /**
+     * The upper case text of the current delimiter, computed once per delimiter instead of once per line.
+     */
+    private String upperCaseDelimiter;
+
     /**
      * @return The default delimiter for this database.
      */
@@ -133,7 +143,7 @@ public class SqlStatementBuilder {
             statement.append("\n");
         }
 
-        String lineSimplified = line.replaceAll("\\s+", " ").trim().toUpperCase();
+        String lineSimplified = simplifyLine(line);
 
         if (endsWithOpenMultilineStringLiteral(lineSimplified)) {
             statement.append(line);
@@ -145,12 +155,50 @@ public class SqlStatementBuilder {
         statement.append(line);
 
         if (lineTerminatesStatement(lineSimplified, delimiter)) {
-            //TODO: Check if the delimiter can be stripped from the existing statement instead
-            statement = new StringBuilder(stripDelimiter(statement.toString(), delimiter));
+            int delimiterIndex = lastIndexOfDelimiter(statement, delimiter);
+            if (delimiterIndex >= 0) {
+                statement.setLength(delimiterIndex);
+            }
             terminated = true;
         }
     }
 
+    /**
+     * Simplifies this line for analysis: leading and trailing whitespace is removed, every run of whitespace inside it
+     * is collapsed into a single space and it is converted to upper case. This is done in a single pass over the line
+     * instead of using a regular expression, as this is called for every line of every script.
+     *
+     * @param line The line to simplify.
+     * @return The simplified line.
+     */
+    /* private -> testing */
+    static String simplifyLine(String line) {
+        int start = 0;
+        int end = line.length();
+        while ((start < end) && (line.charAt(start) <= ' ')) {
+            start++;
+        }
+        while ((end > start) && (line.charAt(end - 1) <= ' ')) {
+            end--;
+        }
+
+        StringBuilder simplified = new StringBuilder(end - start);
+        boolean previousWhitespace = false;
+        for (int i = start; i < end; i++) {
+            char c = line.charAt(i);
+            if ((c == ' ') || (c == '\t') || (c == '\n') || (c == '\u000B') || (c == '\f') || (c == '\r')) {
+                if (!previousWhitespace) {
+                    simplified.append(' ');
+                    previousWhitespace = true;
+                }
+            } else {
+                simplified.append(c);
+                previousWhitespace = false;
+            }
+        }
+        return simplified.toString().toUpperCase();
+    }
+
     /**
      * Checks whether this line ends the statement with an open multi-line string literal (which will be
      * continued on the next line).
@@ -188,7 +236,10 @@ public class SqlStatementBuilder {
             return false;
         }
 
-        String upperCaseDelimiter = delimiter.getDelimiter().toUpperCase();
+        if (delimiter != upperCaseDelimiterSource) {
+            upperCaseDelimiter = delimiter.getDelimiter().toUpperCase();
+            upperCaseDelimiterSource = delimiter;
+        }
 
         if (delimiter.isAloneOnLine()) {
             return line.equals(upperCaseDelimiter);
@@ -198,14 +249,40 @@ public class SqlStatementBuilder {
     }
 
     /**
-     * Strips this delimiter from this sql statement.
+     * Finds the last occurrence of this delimiter in this sql statement, ignoring case. The search starts at the end,
+     * where the delimiter is normally found, so the statement is not copied or scanned as a whole.
      *
-     * @param sql       The statement to parse.
-     * @param delimiter The delimiter to strip.
-     * @return The sql statement without delimiter.
+     * @param sql       The statement to search.
+     * @param delimiter The delimiter to look for.
+     * @return The index of the last occurrence of the delimiter, or -1 if it was not found.
      */
-    /* private -> testing */
-    static String stripDelimiter(String sql, Delimiter delimiter) {
-        return sql.substring(0, sql.toLowerCase().lastIndexOf(delimiter.getDelimiter().toLowerCase()));
+    private static int lastIndexOfDelimiter(CharSequence sql, Delimiter delimiter) {
+        String delimiterText = delimiter.getDelimiter();
+        for (int i = sql.length() - delimiterText.length(); i >= 0; i--) {
+            if (regionMatchesIgnoreCase(sql, i, delimiterText)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks whether this text occurs at this offset in this sql statement, ignoring case.
+     *
+     * @param sql    The statement to check.
+     * @param offset The offset in the statement.
+     * @param text   The text to look for.
+     * @return {@code true} if it does, {@code false} if not.
+     */
+    private static boolean regionMatchesIgnoreCase(CharSequence sql, int offset, String text) {
+        for (int j = 0; j < text.length(); j++) {
+            char c1 = sql.charAt(offset + j);
+            char c2 = text.charAt(j);
+            if ((c1 != c2) && (Character.toLowerCase(c1) != Character.toLowerCase(c2))
+                    && (Character.toUpperCase(c1) != Character.toUpperCase(c2))) {
+                return false;
+            }
+        }
+        return true;
     }
 }
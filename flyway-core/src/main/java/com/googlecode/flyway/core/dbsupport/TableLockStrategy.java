@@ -0,0 +1,32 @@
+/**
+ * Copyright (C) 2010-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.dbsupport;
+
+import java.sql.SQLException;
+
+/**
+ * Locks the table itself with a read/write pessimistic lock until the end of the current transaction. This blocks
+ * readers of the table as well on most databases.
+ */
+public class TableLockStrategy implements LockStrategy {
+    public void lock(Table table) throws SQLException {
+        table.doLock();
+    }
+
+    public void unlock(Table table) {
+        // The lock is released at the end of the transaction
+    }
+}
@@ -69,6 +69,10 @@ public class DerbyDbSupport extends DbSupport {
         return new DerbySqlStatementBuilder();
     }
 
+    public String getFirstRowQuery(String columns, String table, String orderBy) {
+        return "SELECT " + columns + " FROM " + table + " ORDER BY " + orderBy + " FETCH FIRST 1 ROWS ONLY";
+    }
+
     @Override
     public String doQuote(String identifier) {
         return "\"" + identifier + "\"";
@@ -20,11 +20,12 @@ import com.googlecode.flyway.core.dbsupport.JdbcTemplate;
 import com.googlecode.flyway.core.dbsupport.Schema;
 import com.googlecode.flyway.core.dbsupport.Table;
 import com.googlecode.flyway.core.util.StringUtils;
+import com.googlecode.flyway.core.util.jdbc.RowCallbackHandler;
 
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Derby implementation of Schema.
@@ -90,18 +91,18 @@ public class DerbySchema extends Schema {
      * @throws SQLException when the statements could not be generated.
      */
     private List<String> generateDropStatementsForConstraints() throws SQLException {
-        List<Map<String, String>> results = jdbcTemplate.queryForList("SELECT c.constraintname, t.tablename FROM sys.sysconstraints c" +
+        final List<String> statements = new ArrayList<String>();
+        jdbcTemplate.query("SELECT c.constraintname, t.tablename FROM sys.sysconstraints c" +
                 " INNER JOIN sys.systables t ON c.tableid = t.tableid" +
                 " INNER JOIN sys.sysschemas s ON c.schemaid = s.schemaid" +
-                " WHERE c.type = 'F' AND s.schemaname = ?", name);
-
-        List<String> statements = new ArrayList<String>();
-        for (Map<String, String> result : results) {
-            String dropStatement = "ALTER TABLE " + dbSupport.quote(name, result.get("TABLENAME"))
-                    + " DROP CONSTRAINT " + dbSupport.quote(result.get("CONSTRAINTNAME"));
-
-            statements.add(dropStatement);
-        }
+                " WHERE c.type = 'F' AND s.schemaname = ?", new RowCallbackHandler() {
+            public void processRow(ResultSet rs) throws SQLException {
+                String dropStatement = "ALTER TABLE " + dbSupport.quote(name, rs.getString("TABLENAME"))
+                        + " DROP CONSTRAINT " + dbSupport.quote(rs.getString("CONSTRAINTNAME"));
+
+                statements.add(dropStatement);
+            }
+        }, name);
         return statements;
     }
 
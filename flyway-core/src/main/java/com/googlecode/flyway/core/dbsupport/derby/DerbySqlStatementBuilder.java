@@ -16,124 +16,75 @@
 package com.googlecode.flyway.core.dbsupport.derby;
 
 import com.googlecode.flyway.core.dbsupport.SqlStatementBuilder;
-import com.googlecode.flyway.core.util.StringUtils;
-
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
 
 /**
  * SqlStatementBuilder supporting Derby-specific delimiter changes.
  */
 public class DerbySqlStatementBuilder extends SqlStatementBuilder {
     /**
-     * Are we currently inside a ' multi-line string literal
+     * Are we currently inside a ' multi-line string literal.
      */
-    boolean insideQuoteStringLiteral = false;
+    private boolean insideQuoteStringLiteral = false;
 
     /**
-     * Are we currently inside a $$ multi-line string literal
+     * Are we currently inside a $$ multi-line string literal.
      */
-    boolean insideDollarStringLiteral = false;
-
-    @Override
-    protected boolean endsWithOpenMultilineStringLiteral(String line) {
-        //Ignore all special characters that naturally occur in SQL, but are not opening or closing string literals
-        String[] tokens = StringUtils.tokenizeToStringArray(line, " ;=|(),");
-
-        List<Set<TokenType>> delimitingTokens = extractStringLiteralDelimitingTokens(tokens);
-
-        for (Set<TokenType> delimitingToken : delimitingTokens) {
-            if (!insideDollarStringLiteral && !insideQuoteStringLiteral && delimitingToken.contains(TokenType.QUOTE_OPEN)) {
-                insideQuoteStringLiteral = true;
-                continue;
-            }
-            if (insideQuoteStringLiteral && delimitingToken.contains(TokenType.QUOTE_CLOSE)) {
-                insideQuoteStringLiteral = false;
-                continue;
-            }
-            if (!insideDollarStringLiteral && !insideQuoteStringLiteral && delimitingToken.contains(TokenType.DOLLAR_OPEN)) {
-                insideDollarStringLiteral = true;
-                continue;
-            }
-            if (insideDollarStringLiteral && delimitingToken.contains(TokenType.DOLLAR_CLOSE)) {
-                insideDollarStringLiteral = false;
-            }
-        }
-
-        return insideQuoteStringLiteral || insideDollarStringLiteral;
-    }
+    private boolean insideDollarStringLiteral = false;
 
     /**
-     * Extract the type of all tokens that potentially delimit string literals.
-     *
-     * @param tokens The tokens to analyse.
-     * @return The list of potentially delimiting string literals token types per token. Tokens that do not have any
-     *         impact on string delimiting are discarded.
+     * Are we currently inside a " quoted identifier.
      */
-    private List<Set<TokenType>> extractStringLiteralDelimitingTokens(String[] tokens) {
-        List<Set<TokenType>> delimitingTokens = new ArrayList<Set<TokenType>>();
-        for (String token : tokens) {
-            //Remove escaped quotes as they do not form a string literal delimiter
-            String cleanToken = StringUtils.replace(token, "''", "");
+    private boolean insideQuotedIdentifier = false;
 
-            Set<TokenType> tokenTypes = new HashSet<TokenType>();
+    /**
+     * Are we currently inside a multi-line block comment.
+     */
+    private boolean insideBlockComment = false;
 
-            if (cleanToken.startsWith("'")) {
-                if ((cleanToken.length() > 1) && cleanToken.endsWith("'")) {
-                    // Ignore. ' string literal is opened and closed inside the same token.
-                    continue;
+    @Override
+    protected boolean endsWithOpenMultilineStringLiteral(String line) {
+        int length = line.length();
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            if (insideQuoteStringLiteral) {
+                if (c == '\'') {
+                    if ((i + 1 < length) && (line.charAt(i + 1) == '\'')) {
+                        // Escaped quote
+                        i++;
+                    } else {
+                        insideQuoteStringLiteral = false;
+                    }
                 }
-                tokenTypes.add(TokenType.QUOTE_OPEN);
-            }
-
-            if (cleanToken.endsWith("'")) {
-                tokenTypes.add(TokenType.QUOTE_CLOSE);
-            }
-
-            if (cleanToken.startsWith("$$")) {
-                if ((cleanToken.length() > 2) && cleanToken.endsWith("$$")) {
-                    // Ignore. $$ string literal is opened and closed inside the same token.
-                    continue;
+            } else if (insideDollarStringLiteral) {
+                if (line.startsWith("$$", i)) {
+                    insideDollarStringLiteral = false;
+                    i++;
                 }
-                tokenTypes.add(TokenType.DOLLAR_OPEN);
-            }
-
-            if (cleanToken.endsWith("$$")) {
-                tokenTypes.add(TokenType.DOLLAR_CLOSE);
-            }
-
-            if (!tokenTypes.isEmpty()) {
-                delimitingTokens.add(tokenTypes);
+            } else if (insideQuotedIdentifier) {
+                if (c == '"') {
+                    insideQuotedIdentifier = false;
+                }
+            } else if (insideBlockComment) {
+                if (line.startsWith("*/", i)) {
+                    insideBlockComment = false;
+                    i++;
+                }
+            } else if (c == '\'') {
+                insideQuoteStringLiteral = true;
+            } else if (c == '"') {
+                insideQuotedIdentifier = true;
+            } else if (line.startsWith("$$", i)) {
+                insideDollarStringLiteral = true;
+                i++;
+            } else if (line.startsWith("--", i)) {
+                // The rest of the line is a comment
+                break;
+            } else if (line.startsWith("/*", i)) {
+                insideBlockComment = true;
+                i++;
             }
         }
 
-        return delimitingTokens;
-    }
-
-    /**
-     * The types of tokens relevant for string delimiter related parsing.
-     */
-    private static enum TokenType {
-        /**
-         * Token opens ' string literal
-         */
-        QUOTE_OPEN,
-
-        /**
-         * Token closes ' string literal
-         */
-        QUOTE_CLOSE,
-
-        /**
-         * Token opens $$ string literal
-         */
-        DOLLAR_OPEN,
-
-        /**
-         * Token closes $$ string literal
-         */
-        DOLLAR_CLOSE
+        return insideQuoteStringLiteral || insideDollarStringLiteral || insideQuotedIdentifier;
     }
 }
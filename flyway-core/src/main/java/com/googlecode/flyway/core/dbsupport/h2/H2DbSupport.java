@@ -84,6 +84,10 @@ public class H2DbSupport extends DbSupport {
         return new H2SqlStatementBuilder();
     }
 
+    public String getFirstRowQuery(String columns, String table, String orderBy) {
+        return "SELECT " + columns + " FROM " + table + " ORDER BY " + orderBy + " LIMIT 1";
+    }
+
     @Override
     public String doQuote(String identifier) {
         return "\"" + identifier + "\"";
@@ -86,6 +86,10 @@ public class HsqlDbSupport extends DbSupport {
         return new HsqlSqlStatementBuilder();
     }
 
+    public String getFirstRowQuery(String columns, String table, String orderBy) {
+        return "SELECT " + columns + " FROM " + table + " ORDER BY " + orderBy + " LIMIT 1";
+    }
+
     @Override
     public String doQuote(String identifier) {
         return "\"" + identifier + "\"";
@@ -0,0 +1,64 @@
+/**
+ * Copyright (C) 2010-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.dbsupport.mysql;
+
+import com.googlecode.flyway.core.dbsupport.AdvisoryLockStrategy;
+import com.googlecode.flyway.core.dbsupport.JdbcTemplate;
+import com.googlecode.flyway.core.dbsupport.Table;
+import com.googlecode.flyway.core.util.logging.Log;
+import com.googlecode.flyway.core.util.logging.LogFactory;
+
+import java.sql.SQLException;
+
+/**
+ * MySQL named lock (GET_LOCK). Named locks belong to the session and survive the end of the transaction, so they must
+ * be released explicitly.
+ */
+public class MySQLAdvisoryLockStrategy extends AdvisoryLockStrategy {
+    private static final Log LOG = LogFactory.getLog(MySQLAdvisoryLockStrategy.class);
+
+    /**
+     * The number of seconds to wait for the lock before trying again.
+     */
+    private static final int LOCK_TIMEOUT_SECONDS = 10;
+
+    /**
+     * Creates a new advisory lock strategy.
+     *
+     * @param jdbcTemplate The Jdbc Template for communicating with the DB.
+     */
+    public MySQLAdvisoryLockStrategy(JdbcTemplate jdbcTemplate) {
+        super(jdbcTemplate);
+    }
+
+    public void lock(Table table) throws SQLException {
+        String lockName = getLockName(table);
+        while (true) {
+            String result = jdbcTemplate.queryForString("SELECT GET_LOCK(?, " + LOCK_TIMEOUT_SECONDS + ")", lockName);
+            if (result == null) {
+                throw new SQLException("Unable to acquire lock " + lockName);
+            }
+            if ("1".equals(result)) {
+                return;
+            }
+            LOG.debug("Still waiting for lock " + lockName + " on table " + table + " ...");
+        }
+    }
+
+    public void unlock(Table table) throws SQLException {
+        jdbcTemplate.queryForString("SELECT RELEASE_LOCK(?)", getLockName(table));
+    }
+}
@@ -16,6 +16,7 @@
 package com.googlecode.flyway.core.dbsupport.mysql;
 
 import com.googlecode.flyway.core.dbsupport.DbSupport;
+import com.googlecode.flyway.core.dbsupport.LockStrategy;
 import com.googlecode.flyway.core.dbsupport.Schema;
 import com.googlecode.flyway.core.dbsupport.SqlStatementBuilder;
 
@@ -69,6 +70,10 @@ public class MySQLDbSupport extends DbSupport {
         return new MySQLSqlStatementBuilder();
     }
 
+    public String getFirstRowQuery(String columns, String table, String orderBy) {
+        return "SELECT " + columns + " FROM " + table + " ORDER BY " + orderBy + " LIMIT 1";
+    }
+
     @Override
     public String doQuote(String identifier) {
         return "`" + identifier + "`";
@@ -83,4 +88,9 @@ public class MySQLDbSupport extends DbSupport {
     public boolean catalogIsSchema() {
         return true;
     }
+
+    @Override
+    protected LockStrategy createAdvisoryLockStrategy() {
+        return new MySQLAdvisoryLockStrategy(jdbcTemplate);
+    }
 }
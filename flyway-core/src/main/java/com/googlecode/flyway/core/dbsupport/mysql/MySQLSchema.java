@@ -19,11 +19,12 @@ import com.googlecode.flyway.core.dbsupport.DbSupport;
 import com.googlecode.flyway.core.dbsupport.JdbcTemplate;
 import com.googlecode.flyway.core.dbsupport.Schema;
 import com.googlecode.flyway.core.dbsupport.Table;
+import com.googlecode.flyway.core.util.jdbc.RowCallbackHandler;
 
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 /**
  * MySQL implementation of Schema.
@@ -90,17 +91,17 @@ public class MySQLSchema extends Schema {
      * @throws SQLException when the clean statements could not be generated.
      */
     private List<String> cleanRoutines() throws SQLException {
-        List<Map<String, String>> routineNames =
-                jdbcTemplate.queryForList(
-                        "SELECT routine_name, routine_type FROM information_schema.routines WHERE routine_schema=?",
-                        name);
-
-        List<String> statements = new ArrayList<String>();
-        for (Map<String, String> row : routineNames) {
-            String routineName = row.get("routine_name");
-            String routineType = row.get("routine_type");
-            statements.add("DROP " + routineType + " " + dbSupport.quote(name, routineName));
-        }
+        final List<String> statements = new ArrayList<String>();
+        jdbcTemplate.query(
+                "SELECT routine_name, routine_type FROM information_schema.routines WHERE routine_schema=?",
+                new RowCallbackHandler() {
+                    public void processRow(ResultSet rs) throws SQLException {
+                        String routineName = rs.getString("routine_name");
+                        String routineType = rs.getString("routine_type");
+                        statements.add("DROP " + routineType + " " + dbSupport.quote(name, routineName));
+                    }
+                },
+                name);
         return statements;
     }
 
@@ -17,10 +17,6 @@ package com.googlecode.flyway.core.dbsupport.mysql;
 
 import com.googlecode.flyway.core.dbsupport.Delimiter;
 import com.googlecode.flyway.core.dbsupport.SqlStatementBuilder;
-import com.googlecode.flyway.core.util.StringUtils;
-
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * SqlStatementBuilder supporting MySQL-specific delimiter changes.
@@ -41,9 +37,19 @@ public class MySQLSqlStatementBuilder extends SqlStatementBuilder {
      */
     private boolean insideDoubleQuoteStringLiteral = false;
 
+    /**
+     * Are we currently inside a ` quoted identifier.
+     */
+    private boolean insideQuotedIdentifier = false;
+
+    /**
+     * Are we currently inside a multi-line block comment.
+     */
+    private boolean insideBlockComment = false;
+
     @Override
     public Delimiter extractNewDelimiterFromLine(String line) {
-        if (line.toUpperCase().startsWith(DELIMITER_KEYWORD)) {
+        if (line.regionMatches(true, 0, DELIMITER_KEYWORD, 0, DELIMITER_KEYWORD.length())) {
             return new Delimiter(line.substring(DELIMITER_KEYWORD.length()).trim(), false);
         }
 
@@ -52,7 +58,7 @@ public class MySQLSqlStatementBuilder extends SqlStatementBuilder {
 
     @Override
     protected Delimiter changeDelimiterIfNecessary(String line, Delimiter delimiter) {
-        if (line.toUpperCase().startsWith(DELIMITER_KEYWORD)) {
+        if (line.regionMatches(true, 0, DELIMITER_KEYWORD, 0, DELIMITER_KEYWORD.length())) {
             return new Delimiter(line.substring(DELIMITER_KEYWORD.length()).trim(), false);
         }
 
@@ -71,124 +77,47 @@ public class MySQLSqlStatementBuilder extends SqlStatementBuilder {
 
     @Override
     protected boolean endsWithOpenMultilineStringLiteral(String line) {
-        //Ignore all special characters that naturally occur in SQL, but are not opening or closing string literals
-        String[] tokens = StringUtils.tokenizeToStringArray(line, " ;=|(),");
-
-        List<Token> delimitingTokens = extractStringLiteralDelimitingTokens(tokens);
-
-        for (Token delimitingToken : delimitingTokens) {
-            boolean moreTokensApplicable = true;
-            for (TokenType tokenType : delimitingToken.tokenTypes) {
-                if (!moreTokensApplicable) {
-                    continue;
-                }
-
-                if (!insideDoubleQuoteStringLiteral && !insideQuoteStringLiteral && (tokenType == TokenType.SINGLE_OPEN)) {
-                    insideQuoteStringLiteral = true;
-                    if (delimitingToken.singleTypeApplicable) {
-                        moreTokensApplicable = false;
+        int length = line.length();
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            if (insideQuoteStringLiteral || insideDoubleQuoteStringLiteral) {
+                char quote = insideQuoteStringLiteral ? '\'' : '"';
+                if (c == '\\') {
+                    // Skip the escaped character
+                    i++;
+                } else if (c == quote) {
+                    if ((i + 1 < length) && (line.charAt(i + 1) == quote)) {
+                        // Escaped quote
+                        i++;
+                    } else {
+                        insideQuoteStringLiteral = false;
+                        insideDoubleQuoteStringLiteral = false;
                     }
-                    continue;
                 }
-                if (insideQuoteStringLiteral && (tokenType == TokenType.SINGLE_CLOSE)) {
-                    insideQuoteStringLiteral = false;
-                    moreTokensApplicable = false;
-                    continue;
+            } else if (insideQuotedIdentifier) {
+                if (c == '`') {
+                    insideQuotedIdentifier = false;
                 }
-                if (!insideDoubleQuoteStringLiteral && !insideQuoteStringLiteral && (tokenType == TokenType.DOUBLE_OPEN)) {
-                    insideDoubleQuoteStringLiteral = true;
-                    continue;
-                }
-                if (insideDoubleQuoteStringLiteral && (tokenType == TokenType.DOUBLE_CLOSE)) {
-                    insideDoubleQuoteStringLiteral = false;
-                    moreTokensApplicable = false;
+            } else if (insideBlockComment) {
+                if (line.startsWith("*/", i)) {
+                    insideBlockComment = false;
+                    i++;
                 }
+            } else if (c == '\'') {
+                insideQuoteStringLiteral = true;
+            } else if (c == '"') {
+                insideDoubleQuoteStringLiteral = true;
+            } else if (c == '`') {
+                insideQuotedIdentifier = true;
+            } else if ((c == '#') || (line.startsWith("--", i) && ((i + 2 == length) || (line.charAt(i + 2) == ' ')))) {
+                // The rest of the line is a comment
+                break;
+            } else if (line.startsWith("/*", i)) {
+                insideBlockComment = true;
+                i++;
             }
         }
 
-        return insideQuoteStringLiteral || insideDoubleQuoteStringLiteral;
-    }
-
-    /**
-     * Extract the type of all tokens that potentially delimit string literals.
-     *
-     * @param tokens The tokens to analyse.
-     * @return The list of potentially delimiting string literals token types per token. Tokens that do not have any
-     *         impact on string delimiting are discarded.
-     */
-    private List<Token> extractStringLiteralDelimitingTokens(String[] tokens) {
-        List<Token> delimitingTokens = new ArrayList<Token>();
-        for (String token : tokens) {
-            //Remove escaped quotes as they do not form a string literal delimiter
-            String noQuoteQuote = StringUtils.replace(token, "''", "");
-            String cleanToken = StringUtils.replace(noQuoteQuote, "\\'", "");
-
-            List<TokenType> tokenTypes = new ArrayList<TokenType>();
-
-            if (cleanToken.startsWith("'")) {
-                tokenTypes.add(TokenType.SINGLE_OPEN);
-            }
-
-            if (cleanToken.endsWith("'")) {
-                tokenTypes.add(TokenType.SINGLE_CLOSE);
-            }
-
-            if (cleanToken.startsWith("\"")) {
-                tokenTypes.add(TokenType.DOUBLE_OPEN);
-            }
-
-            if (cleanToken.endsWith("\"")) {
-                tokenTypes.add(TokenType.DOUBLE_CLOSE);
-            }
-
-            if (!tokenTypes.isEmpty()) {
-                Token parsedToken = new Token();
-                parsedToken.tokenTypes = tokenTypes;
-                parsedToken.singleTypeApplicable = token.length() == 1;
-                delimitingTokens.add(parsedToken);
-            }
-        }
-
-        return delimitingTokens;
-    }
-
-    /**
-     * A parsed token.
-     */
-    private class Token {
-        /**
-         * TokenTypes of this token.
-         */
-        public List<TokenType> tokenTypes;
-
-        /**
-         * Flag indicating whether only a single tokenType may influence the parsing.
-         */
-        public boolean singleTypeApplicable;
-    }
-
-    /**
-     * The types of tokens relevant for string delimiter related parsing.
-     */
-    private static enum TokenType {
-        /**
-         * Token opens ' string literal
-         */
-        SINGLE_OPEN,
-
-        /**
-         * Token closes ' string literal
-         */
-        SINGLE_CLOSE,
-
-        /**
-         * Token opens " string literal
-         */
-        DOUBLE_OPEN,
-
-        /**
-         * Token closes " string literal
-         */
-        DOUBLE_CLOSE
+        return insideQuoteStringLiteral || insideDoubleQuoteStringLiteral || insideQuotedIdentifier;
     }
 }
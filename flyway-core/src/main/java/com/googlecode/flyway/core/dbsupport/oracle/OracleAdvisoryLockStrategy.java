@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) 2010-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.dbsupport.oracle;
+
+import com.googlecode.flyway.core.dbsupport.AdvisoryLockStrategy;
+import com.googlecode.flyway.core.dbsupport.JdbcTemplate;
+import com.googlecode.flyway.core.dbsupport.Table;
+import com.googlecode.flyway.core.dbsupport.TableLockStrategy;
+import com.googlecode.flyway.core.util.logging.Log;
+import com.googlecode.flyway.core.util.logging.LogFactory;
+
+import java.sql.SQLException;
+
+/**
+ * Oracle user lock (DBMS_LOCK), released on commit. Using DBMS_LOCK requires the EXECUTE privilege on it, which is not
+ * granted by default. Without it, the table itself is locked instead.
+ */
+public class OracleAdvisoryLockStrategy extends AdvisoryLockStrategy {
+    private static final Log LOG = LogFactory.getLog(OracleAdvisoryLockStrategy.class);
+
+    /**
+     * The strategy to fall back to when DBMS_LOCK is not available. {@code null} as long as DBMS_LOCK can be used.
+     */
+    private TableLockStrategy fallbackStrategy;
+
+    /**
+     * Creates a new advisory lock strategy.
+     *
+     * @param jdbcTemplate The Jdbc Template for communicating with the DB.
+     */
+    public OracleAdvisoryLockStrategy(JdbcTemplate jdbcTemplate) {
+        super(jdbcTemplate);
+    }
+
+    public void lock(Table table) throws SQLException {
+        if (fallbackStrategy != null) {
+            fallbackStrategy.lock(table);
+            return;
+        }
+
+        // Lock ids must be between 0 and 1073741823. Status 0 is success, 4 means the lock is already owned.
+        int lockId = (int) (getLockKey(table) & 0x3FFFFFFF);
+        try {
+            jdbcTemplate.execute("DECLARE status INTEGER; BEGIN"
+                    + " status := DBMS_LOCK.REQUEST(" + lockId + ", DBMS_LOCK.X_MODE, DBMS_LOCK.MAXWAIT, TRUE);"
+                    + " IF status NOT IN (0, 4) THEN RAISE_APPLICATION_ERROR(-20001, 'DBMS_LOCK.REQUEST failed: ' || status); END IF;"
+                    + " END;");
+        } catch (SQLException e) {
+            // ORA-06550: DBMS_LOCK is not visible to this user, ORA-01031: insufficient privileges
+            if ((e.getErrorCode() != 6550) && (e.getErrorCode() != 1031)) {
+                throw e;
+            }
+            LOG.debug("Unable to use DBMS_LOCK, locking table " + table + " instead: " + e.getMessage());
+            fallbackStrategy = new TableLockStrategy();
+            fallbackStrategy.lock(table);
+        }
+    }
+
+    public void unlock(Table table) {
+        // The lock is released at the end of the transaction
+    }
+}
@@ -16,6 +16,7 @@
 package com.googlecode.flyway.core.dbsupport.oracle;
 
 import com.googlecode.flyway.core.dbsupport.DbSupport;
+import com.googlecode.flyway.core.dbsupport.LockStrategy;
 import com.googlecode.flyway.core.dbsupport.Schema;
 import com.googlecode.flyway.core.dbsupport.SqlStatementBuilder;
 
@@ -70,6 +71,10 @@ public class OracleDbSupport extends DbSupport {
         return new OracleSqlStatementBuilder();
     }
 
+    public String getFirstRowQuery(String columns, String table, String orderBy) {
+        return "SELECT * FROM (SELECT " + columns + " FROM " + table + " ORDER BY " + orderBy + ") WHERE ROWNUM = 1";
+    }
+
     @Override
     public String doQuote(String identifier) {
         return "\"" + identifier + "\"";
@@ -84,4 +89,9 @@ public class OracleDbSupport extends DbSupport {
     public boolean catalogIsSchema() {
         return false;
     }
+
+    @Override
+    protected LockStrategy createAdvisoryLockStrategy() {
+        return new OracleAdvisoryLockStrategy(jdbcTemplate);
+    }
 }
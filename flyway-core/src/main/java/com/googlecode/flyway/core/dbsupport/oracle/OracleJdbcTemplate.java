@@ -32,6 +32,8 @@ public class OracleJdbcTemplate extends JdbcTemplate {
      */
     public OracleJdbcTemplate(Connection connection) {
         super(connection);
+        // The Oracle driver only fetches 10 rows per roundtrip by default, which makes reading large catalogs slow.
+        setFetchSize(100);
     }
 
     @Override
@@ -20,9 +20,11 @@ import com.googlecode.flyway.core.dbsupport.DbSupport;
 import com.googlecode.flyway.core.dbsupport.JdbcTemplate;
 import com.googlecode.flyway.core.dbsupport.Schema;
 import com.googlecode.flyway.core.dbsupport.Table;
+import com.googlecode.flyway.core.util.jdbc.RowCallbackHandler;
 import com.googlecode.flyway.core.util.logging.Log;
 import com.googlecode.flyway.core.util.logging.LogFactory;
 
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
@@ -33,6 +35,31 @@ import java.util.List;
 public class OracleSchema extends Schema {
     private static final Log LOG = LogFactory.getLog(OracleSchema.class);
 
+    /**
+     * The conditions restricting the tables of a schema to those that must be dropped explicitly by clean.
+     */
+    private static final String CLEANABLE_TABLES_CONDITIONS =
+            // Ignore Recycle bin objects
+            " AND table_name NOT LIKE 'BIN$%'"
+                    // Ignore Spatial Index Tables as they get dropped automatically when the index gets dropped.
+                    + " AND table_name NOT LIKE 'MDRT_%$'"
+                    // Ignore Materialized View Logs
+                    + " AND table_name NOT LIKE 'MLOG$%' AND table_name NOT LIKE 'RUPD$%'"
+                    // Ignore Oracle Text Index Tables
+                    + " AND table_name NOT LIKE 'DR$%'"
+                    // Ignore Index Organized Tables
+                    + " AND table_name NOT LIKE 'SYS_IOT_OVER_%'"
+                    // Ignore Nested Tables
+                    + " AND nested != 'YES'"
+                    // Ignore Nested Tables
+                    + " AND secondary != 'Y'";
+
+    /**
+     * The error codes (ORA-01031: insufficient privileges and ORA-06550: PL/SQL compilation error) indicating the
+     * server-side clean block can not be used with the privileges of the current user.
+     */
+    private static final int[] SERVER_SIDE_CLEAN_PRIVILEGE_ERRORS = {1031, 6550};
+
     /**
      * Creates a new Oracle schema.
      *
@@ -78,6 +105,94 @@ public class OracleSchema extends Schema {
             jdbcTemplate.execute(statement);
         }
 
+        if (!dbSupport.isServerSideClean() || !doCleanServerSide()) {
+            doCleanClientSide();
+        }
+    }
+
+    /**
+     * Drops all objects of this schema with a single anonymous PL/SQL block, which iterates over the objects and
+     * drops them on the server. This avoids a separate round trip for every object.
+     *
+     * @return {@code true} if the schema was cleaned, {@code false} if the current user lacks the privileges to clean
+     * it this way and the objects must be dropped one by one instead.
+     * @throws SQLException when the clean failed.
+     */
+    private boolean doCleanServerSide() throws SQLException {
+        try {
+            jdbcTemplate.execute(generateDropBlock(), name);
+            return true;
+        } catch (SQLException e) {
+            for (int errorCode : SERVER_SIDE_CLEAN_PRIVILEGE_ERRORS) {
+                if (e.getErrorCode() == errorCode) {
+                    LOG.debug("Unable to clean schema " + this + " using a PL/SQL block (" + e.getMessage().trim()
+                            + "). Dropping objects one by one instead.");
+                    return false;
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Generates the anonymous PL/SQL block dropping all objects of a schema, in the same order as the client-side
+     * clean. The name of the schema is passed as its only parameter. Objects that have already been dropped along with
+     * others (ORA-00942, ORA-02289 and ORA-04043) are skipped.
+     *
+     * @return The PL/SQL block.
+     * @throws SQLException when the block could not be generated.
+     */
+    private String generateDropBlock() throws SQLException {
+        StringBuilder block = new StringBuilder();
+        block.append("DECLARE\n");
+        block.append("  v_owner VARCHAR2(128) := ?;\n");
+        block.append("  PROCEDURE drop_object(p_statement VARCHAR2) IS\n");
+        block.append("  BEGIN\n");
+        block.append("    EXECUTE IMMEDIATE p_statement;\n");
+        block.append("  EXCEPTION\n");
+        block.append("    WHEN OTHERS THEN\n");
+        block.append("      IF SQLCODE NOT IN (-942, -2289, -4043) THEN\n");
+        block.append("        RAISE;\n");
+        block.append("      END IF;\n");
+        block.append("  END;\n");
+        block.append("  PROCEDURE drop_objects(p_type VARCHAR2, p_suffix VARCHAR2) IS\n");
+        block.append("  BEGIN\n");
+        block.append("    FOR o IN (SELECT object_name FROM all_objects WHERE owner = v_owner AND object_type = p_type\n");
+        // Ignore Spatial Index Sequences as they get dropped automatically when the index gets dropped.
+        block.append("              AND object_name NOT LIKE 'MDRS_%$') LOOP\n");
+        block.append("      drop_object('DROP ' || p_type || ' \"' || v_owner || '\".\"' || o.object_name || '\" ' || p_suffix);\n");
+        block.append("    END LOOP;\n");
+        block.append("  END;\n");
+        block.append("BEGIN\n");
+        block.append("  drop_objects('SEQUENCE', '');\n");
+        block.append("  drop_objects('FUNCTION', '');\n");
+        block.append("  drop_objects('MATERIALIZED VIEW', 'PRESERVE TABLE');\n");
+        block.append("  drop_objects('PACKAGE', '');\n");
+        block.append("  drop_objects('PROCEDURE', '');\n");
+        block.append("  drop_objects('SYNONYM', '');\n");
+        block.append("  drop_objects('TRIGGER', '');\n");
+        block.append("  drop_objects('VIEW', 'CASCADE CONSTRAINTS');\n");
+        block.append("  FOR t IN (SELECT table_name FROM all_tables WHERE owner = v_owner").append(CLEANABLE_TABLES_CONDITIONS).append(") LOOP\n");
+        block.append("    drop_object('DROP TABLE \"' || v_owner || '\".\"' || t.table_name || '\" CASCADE CONSTRAINTS PURGE');\n");
+        block.append("  END LOOP;\n");
+        if (xmlDBExtensionsAvailable()) {
+            block.append("  FOR t IN (SELECT table_name FROM all_xml_tables WHERE owner = v_owner) LOOP\n");
+            block.append("    drop_object('DROP TABLE \"' || v_owner || '\".\"' || t.table_name || '\" PURGE');\n");
+            block.append("  END LOOP;\n");
+        } else {
+            LOG.debug("Oracle XML DB Extensions are not available. No cleaning of XML tables.");
+        }
+        block.append("  drop_objects('TYPE', 'FORCE');\n");
+        block.append("END;");
+        return block.toString();
+    }
+
+    /**
+     * Drops all objects of this schema one by one, using a separate statement for each.
+     *
+     * @throws SQLException when the clean failed.
+     */
+    private void doCleanClientSide() throws SQLException {
         for (String statement : generateDropStatementsForObjectType("SEQUENCE", "")) {
             jdbcTemplate.execute(statement);
         }
@@ -164,16 +279,17 @@ public class OracleSchema extends Schema {
      * @return The complete drop statements, ready to execute.
      * @throws SQLException when the drop statements could not be generated.
      */
-    private List<String> generateDropStatementsForObjectType(String objectType, String extraArguments) throws SQLException {
+    private List<String> generateDropStatementsForObjectType(final String objectType, final String extraArguments) throws SQLException {
         String query = "SELECT object_name FROM all_objects WHERE object_type = ? AND owner = ?"
                 // Ignore Spatial Index Sequences as they get dropped automatically when the index gets dropped.
                 + " AND object_name NOT LIKE 'MDRS_%$'";
 
-        List<String> objectNames = jdbcTemplate.queryForStringList(query, objectType, name);
-        List<String> dropStatements = new ArrayList<String>();
-        for (String objectName : objectNames) {
-            dropStatements.add("DROP " + objectType + " " + dbSupport.quote(name, objectName) + " " + extraArguments);
-        }
+        final List<String> dropStatements = new ArrayList<String>();
+        jdbcTemplate.query(query, new RowCallbackHandler() {
+            public void processRow(ResultSet rs) throws SQLException {
+                dropStatements.add("DROP " + objectType + " " + dbSupport.quote(name, rs.getString(1)) + " " + extraArguments);
+            }
+        }, objectType, name);
         return dropStatements;
     }
 
@@ -223,21 +339,7 @@ public class OracleSchema extends Schema {
     @Override
     protected Table[] doAllTables() throws SQLException {
         List<String> tableNames = jdbcTemplate.queryForStringList(
-                "SELECT table_name FROM all_tables WHERE owner = ?"
-                        // Ignore Recycle bin objects
-                        + " AND table_name NOT LIKE 'BIN$%'"
-                        // Ignore Spatial Index Tables as they get dropped automatically when the index gets dropped.
-                        + " AND table_name NOT LIKE 'MDRT_%$'"
-                        // Ignore Materialized View Logs
-                        + " AND table_name NOT LIKE 'MLOG$%' AND table_name NOT LIKE 'RUPD$%'"
-                        // Ignore Oracle Text Index Tables
-                        + " AND table_name NOT LIKE 'DR$%'"
-                        // Ignore Index Organized Tables
-                        + " AND table_name NOT LIKE 'SYS_IOT_OVER_%'"
-                        // Ignore Nested Tables
-                        + " AND nested != 'YES'"
-                        // Ignore Nested Tables
-                        + " AND secondary != 'Y'", name);
+                "SELECT table_name FROM all_tables WHERE owner = ?" + CLEANABLE_TABLES_CONDITIONS, name);
 
         Table[] tables = new Table[tableNames.size()];
         for (int i = 0; i < tableNames.size(); i++) {
@@ -19,9 +19,6 @@ import com.googlecode.flyway.core.dbsupport.Delimiter;
 import com.googlecode.flyway.core.dbsupport.SqlStatementBuilder;
 import com.googlecode.flyway.core.util.StringUtils;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * SqlStatementBuilder supporting Oracle-specific PL/SQL constructs.
  */
@@ -42,24 +39,41 @@ public class OracleSqlStatementBuilder extends SqlStatementBuilder {
     private boolean insideQStringLiteral = false;
 
     /**
-     * Q-Quote close token to look for.
+     * Are we inside a " quoted identifier
+     */
+    private boolean insideQuotedIdentifier = false;
+
+    /**
+     * Are we inside a multi-line block comment
      */
-    private String qCloseToken = "]'";
+    private boolean insideBlockComment = false;
+
+    /**
+     * Q-Quote close character to look for, followed by a quote.
+     */
+    private char qCloseChar = ']';
 
     /**
      * Holds the beginning of the statement.
      */
     private String statementStart = "";
 
+    /**
+     * Flag indicating whether enough of the beginning of the statement has been collected to identify it.
+     */
+    private boolean statementStartComplete;
+
     @Override
     protected Delimiter changeDelimiterIfNecessary(String line, Delimiter delimiter) {
-        if (line.matches("DECLARE|DECLARE\\s.*") || line.matches("BEGIN|BEGIN\\s.*")) {
+        // The line has already been simplified, so all whitespace has been collapsed into single spaces.
+        if (line.equals("DECLARE") || line.startsWith("DECLARE ") || line.equals("BEGIN") || line.startsWith("BEGIN ")) {
             return PLSQL_DELIMITER;
         }
 
-        if (StringUtils.countOccurrencesOf(statementStart, " ") < 4) {
+        if (!statementStartComplete) {
             statementStart += line;
             statementStart += " ";
+            statementStartComplete = StringUtils.countOccurrencesOf(statementStart, " ") >= 4;
         }
 
         if (statementStart.startsWith("CREATE FUNCTION")
@@ -78,153 +92,97 @@ public class OracleSqlStatementBuilder extends SqlStatementBuilder {
 
     @Override
     protected boolean endsWithOpenMultilineStringLiteral(String line) {
-        String filteredStatementForParensQQuotes = StringUtils.replaceAll(line, "q'(", "q'[");
-        filteredStatementForParensQQuotes = StringUtils.replaceAll(filteredStatementForParensQQuotes, ")'", "]'");
-
-        //Ignore all special characters that naturally occur in SQL, but are not opening or closing string literals
-        String[] tokens = StringUtils.tokenizeToStringArray(filteredStatementForParensQQuotes, " ;=|(),");
-
-        List<Token> delimitingTokens = extractStringLiteralDelimitingTokens(tokens);
-
-
-        for (Token delimitingToken : delimitingTokens) {
-            boolean moreTokensApplicable = true;
-            for (TokenType tokenType : delimitingToken.tokenTypes) {
-                if (!moreTokensApplicable) {
-                    continue;
-                }
-
-                if (!insideQStringLiteral && !insideQuoteStringLiteral && (tokenType == TokenType.QUOTE_OPEN)) {
-                    insideQuoteStringLiteral = true;
-                    if (delimitingToken.singleTypeApplicable) {
-                        moreTokensApplicable = false;
+        int length = line.length();
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            if (insideQuoteStringLiteral) {
+                if (c == '\'') {
+                    if ((i + 1 < length) && (line.charAt(i + 1) == '\'')) {
+                        // Escaped quote
+                        i++;
+                    } else {
+                        insideQuoteStringLiteral = false;
                     }
-                    continue;
                 }
-                if (insideQuoteStringLiteral && (tokenType == TokenType.QUOTE_CLOSE)) {
-                    insideQuoteStringLiteral = false;
-                    moreTokensApplicable = false;
-                    continue;
+            } else if (insideQStringLiteral) {
+                if ((c == qCloseChar) && (i + 1 < length) && (line.charAt(i + 1) == '\'')) {
+                    insideQStringLiteral = false;
+                    i++;
                 }
-                if (!insideQStringLiteral && !insideQuoteStringLiteral && (tokenType == TokenType.Q_OPEN)) {
-                    insideQStringLiteral = true;
-                    continue;
+            } else if (insideQuotedIdentifier) {
+                if (c == '"') {
+                    insideQuotedIdentifier = false;
                 }
-                if (insideQStringLiteral && (tokenType == TokenType.Q_CLOSE)) {
-                    insideQStringLiteral = false;
-                    moreTokensApplicable = false;
+            } else if (insideBlockComment) {
+                if (line.startsWith("*/", i)) {
+                    insideBlockComment = false;
+                    i++;
                 }
+            } else if (c == '\'') {
+                insideQuoteStringLiteral = true;
+            } else if (((c == 'q') || (c == 'Q')) && (i + 2 < length) && (line.charAt(i + 1) == '\'')
+                    && isQQuotePrefixStart(line, i)) {
+                insideQStringLiteral = true;
+                qCloseChar = computeQCloseChar(line.charAt(i + 2));
+                i += 2;
+            } else if (c == '"') {
+                insideQuotedIdentifier = true;
+            } else if (line.startsWith("--", i)) {
+                // The rest of the line is a comment
+                break;
+            } else if (line.startsWith("/*", i)) {
+                insideBlockComment = true;
+                i++;
             }
         }
 
-        return insideQuoteStringLiteral || insideQStringLiteral;
+        return insideQuoteStringLiteral || insideQStringLiteral || insideQuotedIdentifier;
     }
 
     /**
-     * Extract the type of all tokens that potentially delimit string literals.
+     * Checks whether the q at this index of this line starts a q-quote (q'...' or nq'...') and isn't simply the end
+     * of an identifier.
      *
-     * @param tokens The tokens to analyse.
-     * @return The list of potentially delimiting string literals token types per token. Tokens that do not have any
-     *         impact on string delimiting are discarded.
+     * @param line  The line to analyse.
+     * @param index The index of the q.
+     * @return {@code true} if it does, {@code false} if not.
      */
-    private List<Token> extractStringLiteralDelimitingTokens(String[] tokens) {
-
-        List<Token> delimitingTokens = new ArrayList<Token>();
-        for (String token : tokens) {
-            //Remove escaped quotes as they do not form a string literal delimiter
-            String cleanToken = StringUtils.replace(token, "''", "");
-
-            List<TokenType> tokenTypes = new ArrayList<TokenType>();
-
-            if (cleanToken.startsWith("'")) {
-                tokenTypes.add(TokenType.QUOTE_OPEN);
-            }
-
-            if (cleanToken.endsWith("'")) {
-                tokenTypes.add(TokenType.QUOTE_CLOSE);
-            }
-
-            if (cleanToken.startsWith("q'") && (cleanToken.length() >= 3)) {
-                String qOpenToken = cleanToken.substring(0, 3);
-                qCloseToken = computeQCloseToken(qOpenToken);
-
-                tokenTypes.add(TokenType.Q_OPEN);
-            }
-
-            if (cleanToken.endsWith(qCloseToken)) {
-                tokenTypes.add(TokenType.Q_CLOSE);
-            }
-
-            if (!tokenTypes.isEmpty()) {
-                Token parsedToken = new Token();
-                parsedToken.tokenTypes = tokenTypes;
-                parsedToken.singleTypeApplicable = token.length() == 1;
-                delimitingTokens.add(parsedToken);
-            }
+    private boolean isQQuotePrefixStart(String line, int index) {
+        if ((index == 0) || !isIdentifierChar(line.charAt(index - 1))) {
+            return true;
         }
+        char previous = line.charAt(index - 1);
+        return ((previous == 'n') || (previous == 'N')) && ((index == 1) || !isIdentifierChar(line.charAt(index - 2)));
+    }
 
-        return delimitingTokens;
+    /**
+     * Checks whether this character may be part of an unquoted identifier.
+     *
+     * @param c The character to check.
+     * @return {@code true} if it can, {@code false} if not.
+     */
+    private static boolean isIdentifierChar(char c) {
+        return Character.isLetterOrDigit(c) || (c == '_') || (c == '$') || (c == '#');
     }
 
     /**
-     * Computes the closing token for a q-quote string starting with this opening token.
+     * Computes the closing character for a q-quote string starting with this opening character.
      *
-     * @param qOpenToken The opening token.
-     * @return The closing token.
+     * @param qOpenChar The opening character.
+     * @return The closing character.
      */
-    private String computeQCloseToken(String qOpenToken) {
-        char specialChar = qOpenToken.charAt(2);
-        switch (specialChar) {
+    private char computeQCloseChar(char qOpenChar) {
+        switch (qOpenChar) {
             case '[':
-                return "]'";
+                return ']';
             case '(':
-                return ")'";
+                return ')';
             case '{':
-                return "}'";
+                return '}';
             case '<':
-                return ">'";
+                return '>';
             default:
-                return specialChar + "'";
+                return qOpenChar;
         }
     }
-
-    /**
-     * A parsed token.
-     */
-    private class Token {
-        /**
-         * TokenTypes of this token.
-         */
-        public List<TokenType> tokenTypes;
-
-        /**
-         * Flag indicating whether only a single tokenType may influence the parsing.
-         */
-        public boolean singleTypeApplicable;
-    }
-
-    /**
-     * The types of tokens relevant for string delimiter related parsing.
-     */
-    private static enum TokenType {
-        /**
-         * Token opens ' string literal
-         */
-        QUOTE_OPEN,
-
-        /**
-         * Token closes ' string literal
-         */
-        QUOTE_CLOSE,
-
-        /**
-         * Token opens q' string literal
-         */
-        Q_OPEN,
-
-        /**
-         * Token closes q' string literal
-         */
-        Q_CLOSE
-    }
 }
@@ -15,11 +15,14 @@
  */
 package com.googlecode.flyway.core.dbsupport.postgresql;
 
+import com.googlecode.flyway.core.api.FlywayException;
 import com.googlecode.flyway.core.dbsupport.DbSupport;
+import com.googlecode.flyway.core.dbsupport.LockStrategy;
 import com.googlecode.flyway.core.dbsupport.Schema;
 import com.googlecode.flyway.core.dbsupport.SqlStatementBuilder;
 
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 
 /**
@@ -71,6 +74,10 @@ public class PostgreSQLDbSupport extends DbSupport {
         return new PostgreSQLSqlStatementBuilder();
     }
 
+    public String getFirstRowQuery(String columns, String table, String orderBy) {
+        return "SELECT " + columns + " FROM " + table + " ORDER BY " + orderBy + " LIMIT 1";
+    }
+
     @Override
     public String doQuote(String identifier) {
         return "\"" + identifier + "\"";
@@ -85,4 +92,21 @@ public class PostgreSQLDbSupport extends DbSupport {
     public boolean catalogIsSchema() {
         return false;
     }
+
+    @Override
+    protected LockStrategy createAdvisoryLockStrategy() {
+        try {
+            DatabaseMetaData databaseMetaData = jdbcTemplate.getMetaData();
+            int majorVersion = databaseMetaData.getDatabaseMajorVersion();
+            int minorVersion = databaseMetaData.getDatabaseMinorVersion();
+            if ((majorVersion > 9) || ((majorVersion == 9) && (minorVersion >= 1))) {
+                return new PostgreSQLAdvisoryLockStrategy(jdbcTemplate);
+            }
+        } catch (SQLException e) {
+            throw new FlywayException("Unable to determine the PostgreSQL version", e);
+        }
+
+        // Transaction-level advisory locks are only available as of PostgreSQL 9.1
+        return super.createAdvisoryLockStrategy();
+    }
 }
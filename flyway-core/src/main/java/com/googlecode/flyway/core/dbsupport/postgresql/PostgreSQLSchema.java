@@ -19,16 +19,22 @@ import com.googlecode.flyway.core.dbsupport.DbSupport;
 import com.googlecode.flyway.core.dbsupport.JdbcTemplate;
 import com.googlecode.flyway.core.dbsupport.Schema;
 import com.googlecode.flyway.core.dbsupport.Table;
+import com.googlecode.flyway.core.util.jdbc.RowCallbackHandler;
 
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 /**
  * PostgreSQL implementation of Schema.
  */
 public class PostgreSQLSchema extends Schema {
+    /**
+     * The maximum number of objects to drop with a single DROP statement.
+     */
+    private static final int BULK_DROP_SIZE = 100;
+
     /**
      * Creates a new PostgreSQL schema.
      *
@@ -65,8 +71,8 @@ public class PostgreSQLSchema extends Schema {
 
     @Override
     protected void doClean() throws SQLException {
-        for (Table table : allTables()) {
-            table.drop();
+        for (String statement : generateDropStatementsForTables()) {
+            jdbcTemplate.execute(statement);
         }
 
         for (String statement : generateDropStatementsForSequences()) {
@@ -98,6 +104,23 @@ public class PostgreSQLSchema extends Schema {
         }
     }
 
+    /**
+     * Generates the statements for dropping the tables in this schema.
+     *
+     * @return The drop statements.
+     * @throws SQLException when the clean statements could not be generated.
+     */
+    private List<String> generateDropStatementsForTables() throws SQLException {
+        List<String> tableNames =
+                jdbcTemplate.queryForStringList(
+                        "SELECT c.relname FROM pg_catalog.pg_class c"
+                                + " INNER JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace"
+                                + " WHERE n.nspname = ? AND c.relkind = 'r'",
+                        name);
+
+        return generateBulkDropStatements("TABLE", tableNames);
+    }
+
     /**
      * Generates the statements for dropping the sequences in this schema.
      *
@@ -107,13 +130,35 @@ public class PostgreSQLSchema extends Schema {
     private List<String> generateDropStatementsForSequences() throws SQLException {
         List<String> sequenceNames =
                 jdbcTemplate.queryForStringList(
-                        "SELECT sequence_name FROM information_schema.sequences WHERE sequence_schema=?", name);
+                        "SELECT c.relname FROM pg_catalog.pg_class c"
+                                + " INNER JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace"
+                                + " WHERE n.nspname = ? AND c.relkind = 'S'",
+                        name);
 
+        return generateBulkDropStatements("SEQUENCE", sequenceNames);
+    }
+
+    /**
+     * Generates the statements for dropping these objects of this type in this schema. Multiple objects are dropped
+     * with a single statement to keep the number of round trips low.
+     *
+     * @param objectType  The type of the objects to drop (TABLE, SEQUENCE, ...).
+     * @param objectNames The names of the objects to drop.
+     * @return The drop statements.
+     */
+    private List<String> generateBulkDropStatements(String objectType, List<String> objectNames) {
         List<String> statements = new ArrayList<String>();
-        for (String sequenceName : sequenceNames) {
-            statements.add("DROP SEQUENCE IF EXISTS " + dbSupport.quote(name, sequenceName));
+        for (int i = 0; i < objectNames.size(); i += BULK_DROP_SIZE) {
+            StringBuilder statement = new StringBuilder("DROP " + objectType + " IF EXISTS ");
+            for (int j = i; j < Math.min(i + BULK_DROP_SIZE, objectNames.size()); j++) {
+                if (j > i) {
+                    statement.append(", ");
+                }
+                statement.append(dbSupport.quote(name, objectNames.get(j)));
+            }
+            statement.append(" CASCADE");
+            statements.add(statement.toString());
         }
-
         return statements;
     }
 
@@ -130,10 +175,7 @@ public class PostgreSQLSchema extends Schema {
                         "select typname from pg_catalog.pg_type where typcategory in ('P', 'U') and typnamespace in (select oid from pg_catalog.pg_namespace where nspname = ?)",
                         name);
 
-        List<String> statements = new ArrayList<String>();
-        for (String typeName : typeNames) {
-            statements.add("DROP TYPE IF EXISTS " + dbSupport.quote(name, typeName) + " CASCADE");
-        }
+        List<String> statements = generateBulkDropStatements("TYPE", typeNames);
 
         if (recreate) {
             for (String typeName : typeNames) {
@@ -151,17 +193,17 @@ public class PostgreSQLSchema extends Schema {
      * @throws SQLException when the clean statements could not be generated.
      */
     private List<String> generateDropStatementsForAggregates() throws SQLException {
-        List<Map<String, String>> rows =
-                jdbcTemplate.queryForList(
-                        "SELECT proname, oidvectortypes(proargtypes) AS args "
-                                + "FROM pg_proc INNER JOIN pg_namespace ns ON (pg_proc.pronamespace = ns.oid) "
-                                + "WHERE pg_proc.proisagg = true AND ns.nspname = ?",
-                        name);
-
-        List<String> statements = new ArrayList<String>();
-        for (Map<String, String> row : rows) {
-            statements.add("DROP AGGREGATE IF EXISTS " + dbSupport.quote(name, row.get("proname")) + "(" + row.get("args") + ") CASCADE");
-        }
+        final List<String> statements = new ArrayList<String>();
+        jdbcTemplate.query(
+                "SELECT proname, oidvectortypes(proargtypes) AS args "
+                        + "FROM pg_proc INNER JOIN pg_namespace ns ON (pg_proc.pronamespace = ns.oid) "
+                        + "WHERE pg_proc.proisagg = true AND ns.nspname = ?",
+                new RowCallbackHandler() {
+                    public void processRow(ResultSet rs) throws SQLException {
+                        statements.add("DROP AGGREGATE IF EXISTS " + dbSupport.quote(name, rs.getString("proname")) + "(" + rs.getString("args") + ") CASCADE");
+                    }
+                },
+                name);
         return statements;
     }
 
@@ -172,17 +214,17 @@ public class PostgreSQLSchema extends Schema {
      * @throws SQLException when the clean statements could not be generated.
      */
     private List<String> generateDropStatementsForRoutines() throws SQLException {
-        List<Map<String, String>> rows =
-                jdbcTemplate.queryForList(
-                        "SELECT proname, oidvectortypes(proargtypes) AS args "
-                                + "FROM pg_proc INNER JOIN pg_namespace ns ON (pg_proc.pronamespace = ns.oid) "
-                                + "WHERE pg_proc.proisagg = false AND ns.nspname = ?",
-                        name);
-
-        List<String> statements = new ArrayList<String>();
-        for (Map<String, String> row : rows) {
-            statements.add("DROP FUNCTION IF EXISTS " + dbSupport.quote(name, row.get("proname")) + "(" + row.get("args") + ") CASCADE");
-        }
+        final List<String> statements = new ArrayList<String>();
+        jdbcTemplate.query(
+                "SELECT proname, oidvectortypes(proargtypes) AS args "
+                        + "FROM pg_proc INNER JOIN pg_namespace ns ON (pg_proc.pronamespace = ns.oid) "
+                        + "WHERE pg_proc.proisagg = false AND ns.nspname = ?",
+                new RowCallbackHandler() {
+                    public void processRow(ResultSet rs) throws SQLException {
+                        statements.add("DROP FUNCTION IF EXISTS " + dbSupport.quote(name, rs.getString("proname")) + "(" + rs.getString("args") + ") CASCADE");
+                    }
+                },
+                name);
         return statements;
     }
 
@@ -197,12 +239,7 @@ public class PostgreSQLSchema extends Schema {
                 jdbcTemplate.queryForStringList(
                         "SELECT t.typname FROM pg_catalog.pg_type t INNER JOIN pg_catalog.pg_namespace n ON n.oid = t.typnamespace WHERE n.nspname = ? and t.typtype = 'e'", name);
 
-        List<String> statements = new ArrayList<String>();
-        for (String enumName : enumNames) {
-            statements.add("DROP TYPE " + dbSupport.quote(name, enumName));
-        }
-
-        return statements;
+        return generateBulkDropStatements("TYPE", enumNames);
     }
 
     /**
@@ -216,12 +253,7 @@ public class PostgreSQLSchema extends Schema {
                 jdbcTemplate.queryForStringList(
                         "SELECT domain_name FROM information_schema.domains WHERE domain_schema=?", name);
 
-        List<String> statements = new ArrayList<String>();
-        for (String domainName : domainNames) {
-            statements.add("DROP DOMAIN " + dbSupport.quote(name, domainName));
-        }
-
-        return statements;
+        return generateBulkDropStatements("DOMAIN", domainNames);
     }
 
     @Override
@@ -16,138 +16,126 @@
 package com.googlecode.flyway.core.dbsupport.postgresql;
 
 import com.googlecode.flyway.core.dbsupport.SqlStatementBuilder;
-import com.googlecode.flyway.core.util.StringUtils;
-
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
 
 /**
  * SqlStatementBuilder supporting PostgreSQL specific syntax.
  */
 public class PostgreSQLSqlStatementBuilder extends SqlStatementBuilder {
     /**
-     * Matches $$, $BODY$, $xyz123$, ...
+     * Are we currently in a ' multi-line string literal
      */
-    /*private -> for testing*/
-    static final String DOLLAR_QUOTE_REGEX = "\\$[A-Za-z0-9_]*\\$.*";
+    private boolean insideQuoteStringLiteral = false;
 
     /**
-     * Are we currently in a ' multi-line string literal
+     * Does the current ' string literal support backslash escapes (E'...')
      */
-    private boolean insideQuoteStringLiteral = false;
+    private boolean escapeStringLiteral = false;
 
     /**
-     * Are we currently in a $$ multi-line string literal
+     * Are we currently in a " quoted identifier
      */
-    private boolean insideDollarStringLiteral = false;
+    private boolean insideQuotedIdentifier = false;
 
     /**
-     * The current dollar closing quote to look for.
+     * Are we currently in a multi-line block comment
+     */
+    private boolean insideBlockComment = false;
+
+    /**
+     * The dollar quote ($$, $BODY$, ...) of the multi-line string literal we are currently in. {@code null} if we are
+     * not inside one.
      */
     private String dollarQuote = null;
 
     @Override
     protected boolean endsWithOpenMultilineStringLiteral(String line) {
-        //Ignore all special characters that naturally occur in SQL, but are not opening or closing string literals
-        String[] tokens = StringUtils.tokenizeToStringArray(line, " ;=|(),");
-
-        List<Set<TokenType>> delimitingTokens = extractStringLiteralDelimitingTokens(tokens);
-
-        for (Set<TokenType> delimitingToken : delimitingTokens) {
-            if (!insideDollarStringLiteral && !insideQuoteStringLiteral && delimitingToken.contains(TokenType.QUOTE_OPEN)) {
+        int length = line.length();
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            if (insideQuoteStringLiteral) {
+                if (escapeStringLiteral && (c == '\\')) {
+                    // Skip the escaped character
+                    i++;
+                } else if (c == '\'') {
+                    if ((i + 1 < length) && (line.charAt(i + 1) == '\'')) {
+                        // Escaped quote
+                        i++;
+                    } else {
+                        insideQuoteStringLiteral = false;
+                    }
+                }
+            } else if (dollarQuote != null) {
+                if (line.startsWith(dollarQuote, i)) {
+                    i += dollarQuote.length() - 1;
+                    dollarQuote = null;
+                }
+            } else if (insideQuotedIdentifier) {
+                if (c == '"') {
+                    insideQuotedIdentifier = false;
+                }
+            } else if (insideBlockComment) {
+                if (line.startsWith("*/", i)) {
+                    insideBlockComment = false;
+                    i++;
+                }
+            } else if (c == '\'') {
                 insideQuoteStringLiteral = true;
-                continue;
-            }
-            if (insideQuoteStringLiteral && delimitingToken.contains(TokenType.QUOTE_CLOSE)) {
-                insideQuoteStringLiteral = false;
-                continue;
-            }
-            if (!insideDollarStringLiteral && !insideQuoteStringLiteral && delimitingToken.contains(TokenType.DOLLAR_OPEN)) {
-                insideDollarStringLiteral = true;
-                continue;
-            }
-            if (insideDollarStringLiteral && delimitingToken.contains(TokenType.DOLLAR_CLOSE)) {
-                insideDollarStringLiteral = false;
+                escapeStringLiteral = (i > 0) && ((line.charAt(i - 1) == 'E') || (line.charAt(i - 1) == 'e'))
+                        && ((i == 1) || !isIdentifierChar(line.charAt(i - 2)));
+            } else if (c == '"') {
+                insideQuotedIdentifier = true;
+            } else if (c == '$') {
+                if ((i == 0) || !isIdentifierChar(line.charAt(i - 1))) {
+                    dollarQuote = extractDollarQuote(line, i);
+                    if (dollarQuote != null) {
+                        i += dollarQuote.length() - 1;
+                    }
+                }
+            } else if (line.startsWith("--", i)) {
+                // The rest of the line is a comment
+                break;
+            } else if (line.startsWith("/*", i)) {
+                insideBlockComment = true;
+                i++;
             }
         }
 
-        return insideQuoteStringLiteral || insideDollarStringLiteral;
+        return insideQuoteStringLiteral || (dollarQuote != null) || insideQuotedIdentifier;
     }
 
     /**
-     * Extract the type of all tokens that potentially delimit string literals.
+     * Extracts the dollar quote ($$, $BODY$, $xyz123$, ...) starting at this index of this line.
      *
-     * @param tokens The tokens to analyse.
-     * @return The list of potentially delimiting string literals token types per token. Tokens that do not have any
-     *         impact on string delimiting are discarded.
+     * @param line  The line to analyse.
+     * @param index The index of the potential opening $.
+     * @return The dollar quote. {@code null} if there is none at this index.
      */
-    private List<Set<TokenType>> extractStringLiteralDelimitingTokens(String[] tokens) {
-        List<Set<TokenType>> delimitingTokens = new ArrayList<Set<TokenType>>();
-        for (String token : tokens) {
-            //Remove escaped quotes as they do not form a string literal delimiter
-            String cleanToken = StringUtils.replace(token, "''", "");
-
-            Set<TokenType> tokenTypes = new HashSet<TokenType>();
-
-            if (cleanToken.startsWith("'")) {
-                if ((cleanToken.length() > 1) && cleanToken.endsWith("'")) {
-                    // Ignore. ' string literal is opened and closed inside the same token.
-                    continue;
-                }
-                tokenTypes.add(TokenType.QUOTE_OPEN);
-            }
-
-            if (cleanToken.endsWith("'")) {
-                tokenTypes.add(TokenType.QUOTE_CLOSE);
-            }
-
-            if ((dollarQuote == null) && cleanToken.matches(DOLLAR_QUOTE_REGEX)) {
-                dollarQuote = cleanToken.substring(0, cleanToken.substring(1).indexOf("$") + 2);
-                if ((cleanToken.length() > dollarQuote.length()) && cleanToken.endsWith(dollarQuote)) {
-                    // Ignore. $$ string literal is opened and closed inside the same token.
-                    dollarQuote = null;
-                    continue;
-                }
-                tokenTypes.add(TokenType.DOLLAR_OPEN);
-            }
+    /*private -> for testing*/
+    static String extractDollarQuote(String line, int index) {
+        if (line.charAt(index) != '$') {
+            return null;
+        }
 
-            if ((dollarQuote != null) && !cleanToken.startsWith(dollarQuote) && cleanToken.endsWith(dollarQuote)) {
-                tokenTypes.add(TokenType.DOLLAR_CLOSE);
-                dollarQuote = null;
+        int length = line.length();
+        for (int i = index + 1; i < length; i++) {
+            char c = line.charAt(i);
+            if (c == '$') {
+                return line.substring(index, i + 1);
             }
-
-            if (!tokenTypes.isEmpty()) {
-                delimitingTokens.add(tokenTypes);
+            if (!isIdentifierChar(c)) {
+                return null;
             }
         }
-
-        return delimitingTokens;
+        return null;
     }
 
     /**
-     * The types of tokens relevant for string delimiter related parsing.
+     * Checks whether this character may be part of an unquoted identifier or of the tag of a dollar quote.
+     *
+     * @param c The character to check.
+     * @return {@code true} if it can, {@code false} if not.
      */
-    private static enum TokenType {
-        /**
-         * Token opens ' string literal
-         */
-        QUOTE_OPEN,
-
-        /**
-         * Token closes ' string literal
-         */
-        QUOTE_CLOSE,
-
-        /**
-         * Token opens $$ string literal
-         */
-        DOLLAR_OPEN,
-
-        /**
-         * Token closes $$ string literal
-         */
-        DOLLAR_CLOSE
+    private static boolean isIdentifierChar(char c) {
+        return ((c >= 'A') && (c <= 'Z')) || ((c >= 'a') && (c <= 'z')) || ((c >= '0') && (c <= '9')) || (c == '_');
     }
 }
@@ -0,0 +1,48 @@
+/**
+ * Copyright (C) 2010-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.dbsupport.sqlserver;
+
+import com.googlecode.flyway.core.dbsupport.AdvisoryLockStrategy;
+import com.googlecode.flyway.core.dbsupport.JdbcTemplate;
+import com.googlecode.flyway.core.dbsupport.Table;
+
+import java.sql.SQLException;
+
+/**
+ * SQL Server application lock (sp_getapplock), owned by the transaction.
+ */
+public class SQLServerAdvisoryLockStrategy extends AdvisoryLockStrategy {
+    /**
+     * Creates a new advisory lock strategy.
+     *
+     * @param jdbcTemplate The Jdbc Template for communicating with the DB.
+     */
+    public SQLServerAdvisoryLockStrategy(JdbcTemplate jdbcTemplate) {
+        super(jdbcTemplate);
+    }
+
+    public void lock(Table table) throws SQLException {
+        // Negative return codes indicate failure (timeout, deadlock, ...)
+        jdbcTemplate.execute("DECLARE @status INT;"
+                + " EXEC @status = sp_getapplock @Resource = '" + getLockName(table) + "', @LockMode = 'Exclusive',"
+                + " @LockOwner = 'Transaction', @LockTimeout = -1;"
+                + " IF @status < 0 RAISERROR('sp_getapplock failed: %d', 16, 1, @status);");
+    }
+
+    public void unlock(Table table) {
+        // The lock is released at the end of the transaction
+    }
+}
@@ -16,6 +16,7 @@
 package com.googlecode.flyway.core.dbsupport.sqlserver;
 
 import com.googlecode.flyway.core.dbsupport.DbSupport;
+import com.googlecode.flyway.core.dbsupport.LockStrategy;
 import com.googlecode.flyway.core.dbsupport.Schema;
 import com.googlecode.flyway.core.dbsupport.SqlStatementBuilder;
 import com.googlecode.flyway.core.util.StringUtils;
@@ -86,6 +87,10 @@ public class SQLServerDbSupport extends DbSupport {
         return StringUtils.replaceAll(identifier, "]", "]]");
     }
 
+    public String getFirstRowQuery(String columns, String table, String orderBy) {
+        return "SELECT TOP 1 " + columns + " FROM " + table + " ORDER BY " + orderBy;
+    }
+
     @Override
     public String doQuote(String identifier) {
         return "[" + escapeIdentifier(identifier) + "]";
@@ -100,4 +105,9 @@ public class SQLServerDbSupport extends DbSupport {
     public boolean catalogIsSchema() {
         return false;
     }
+
+    @Override
+    protected LockStrategy createAdvisoryLockStrategy() {
+        return new SQLServerAdvisoryLockStrategy(jdbcTemplate);
+    }
 }
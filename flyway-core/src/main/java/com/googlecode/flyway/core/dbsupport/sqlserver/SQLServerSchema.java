@@ -19,11 +19,12 @@ import com.googlecode.flyway.core.dbsupport.DbSupport;
 import com.googlecode.flyway.core.dbsupport.JdbcTemplate;
 import com.googlecode.flyway.core.dbsupport.Schema;
 import com.googlecode.flyway.core.dbsupport.Table;
+import com.googlecode.flyway.core.util.jdbc.RowCallbackHandler;
 
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 /**
  * SQLServer implementation of Schema.
@@ -101,19 +102,18 @@ public class SQLServerSchema extends Schema {
      * @throws SQLException when the clean statements could not be generated.
      */
     private List<String> cleanForeignKeys() throws SQLException {
-        @SuppressWarnings({"unchecked"})
-        List<Map<String, String>> constraintNames =
-                jdbcTemplate.queryForList(
-                        "SELECT table_name, constraint_name FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS" +
-                                " WHERE constraint_type = 'FOREIGN KEY' and table_schema=?",
-                        name);
-
-        List<String> statements = new ArrayList<String>();
-        for (Map<String, String> row : constraintNames) {
-            String tableName = row.get("table_name");
-            String constraintName = row.get("constraint_name");
-            statements.add("ALTER TABLE " + dbSupport.quote(name, tableName) + " DROP CONSTRAINT " + dbSupport.quote(constraintName));
-        }
+        final List<String> statements = new ArrayList<String>();
+        jdbcTemplate.query(
+                "SELECT table_name, constraint_name FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS" +
+                        " WHERE constraint_type = 'FOREIGN KEY' and table_schema=?",
+                new RowCallbackHandler() {
+                    public void processRow(ResultSet rs) throws SQLException {
+                        String tableName = rs.getString("table_name");
+                        String constraintName = rs.getString("constraint_name");
+                        statements.add("ALTER TABLE " + dbSupport.quote(name, tableName) + " DROP CONSTRAINT " + dbSupport.quote(constraintName));
+                    }
+                },
+                name);
         return statements;
     }
 
@@ -124,18 +124,17 @@ public class SQLServerSchema extends Schema {
      * @throws SQLException when the clean statements could not be generated.
      */
     private List<String> cleanRoutines() throws SQLException {
-        @SuppressWarnings({"unchecked"})
-        List<Map<String, String>> routineNames =
-                jdbcTemplate.queryForList("SELECT routine_name, routine_type FROM INFORMATION_SCHEMA.ROUTINES" +
-                        " WHERE routine_schema=?",
-                        name);
-
-        List<String> statements = new ArrayList<String>();
-        for (Map<String, String> row : routineNames) {
-            String routineName = row.get("routine_name");
-            String routineType = row.get("routine_type");
-            statements.add("DROP " + routineType + " " + dbSupport.quote(name, routineName));
-        }
+        final List<String> statements = new ArrayList<String>();
+        jdbcTemplate.query("SELECT routine_name, routine_type FROM INFORMATION_SCHEMA.ROUTINES" +
+                " WHERE routine_schema=?",
+                new RowCallbackHandler() {
+                    public void processRow(ResultSet rs) throws SQLException {
+                        String routineName = rs.getString("routine_name");
+                        String routineType = rs.getString("routine_type");
+                        statements.add("DROP " + routineType + " " + dbSupport.quote(name, routineName));
+                    }
+                },
+                name);
         return statements;
     }
 
@@ -45,6 +45,12 @@ public class MigrationInfoImpl implements MigrationInfo {
      */
     private final MigrationInfoContext context;
 
+    /**
+     * The state of the migration, calculated on first use. The resolved and applied migrations and the context don't
+     * change once this info has been created, so neither does the state.
+     */
+    private MigrationState state;
+
     /**
      * Creates a new MigrationInfoImpl.
      *
@@ -102,6 +108,18 @@ public class MigrationInfoImpl implements MigrationInfo {
     }
 
     public MigrationState getState() {
+        if (state == null) {
+            state = calculateState();
+        }
+        return state;
+    }
+
+    /**
+     * Calculates the state of the migration from the resolved and applied migrations and the context.
+     *
+     * @return The state.
+     */
+    private MigrationState calculateState() {
         if (appliedMigration == null) {
             if (resolvedMigration.getVersion().compareTo(context.init) < 0) {
                 return MigrationState.PREINIT;
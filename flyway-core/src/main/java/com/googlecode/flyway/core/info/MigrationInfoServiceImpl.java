@@ -27,11 +27,7 @@ import com.googlecode.flyway.core.resolver.ResolvedMigration;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.TreeMap;
 
 /**
  * Default implementation of MigrationInfoService.
@@ -65,6 +61,41 @@ public class MigrationInfoServiceImpl implements MigrationInfoService {
      */
     private List<MigrationInfoImpl> migrationInfos;
 
+    /**
+     * The infos of all migrations, in version order. Calculated at the last refresh.
+     */
+    private MigrationInfoImpl[] allMigrations;
+
+    /**
+     * The infos of the pending migrations, in version order. Calculated at the last refresh.
+     */
+    private MigrationInfoImpl[] pendingMigrations;
+
+    /**
+     * The infos of the applied migrations, in version order. Calculated at the last refresh.
+     */
+    private MigrationInfo[] appliedMigrations;
+
+    /**
+     * The infos of the resolved migrations, in version order. Calculated at the last refresh.
+     */
+    private MigrationInfo[] resolvedMigrations;
+
+    /**
+     * The infos of the failed migrations, in version order. Calculated at the last refresh.
+     */
+    private MigrationInfo[] failedMigrations;
+
+    /**
+     * The infos of the future migrations, in version order. Calculated at the last refresh.
+     */
+    private MigrationInfo[] futureMigrations;
+
+    /**
+     * The infos of the out of order migrations, in version order. Calculated at the last refresh.
+     */
+    private MigrationInfo[] outOfOrderMigrations;
+
     /**
      * Creates a new MigrationInfoServiceImpl.
      *
@@ -88,14 +119,17 @@ public class MigrationInfoServiceImpl implements MigrationInfoService {
         List<AppliedMigration> appliedMigrations = metaDataTable.allAppliedMigrations();
 
         migrationInfos = mergeAvailableAndAppliedMigrations(availableMigrations, appliedMigrations);
+        indexByState(migrationInfos);
     }
 
     /**
      * Merges the available and the applied migrations to produce one fully aggregated and consolidated list.
+     * Both lists are normally already sorted by version (the resolvers sort their migrations and the metadata table
+     * returns them by version rank), so they are merged in a single pass. Unsorted lists are sorted first.
      *
      * @param resolvedMigrations The available migrations.
      * @param appliedMigrations  The applied migrations.
-     * @return The complete list of migrations.
+     * @return The complete list of migrations, sorted by version.
      */
     /* private -> testing */
     List<MigrationInfoImpl> mergeAvailableAndAppliedMigrations(List<ResolvedMigration> resolvedMigrations, List<AppliedMigration> appliedMigrations) {
@@ -103,78 +137,157 @@ public class MigrationInfoServiceImpl implements MigrationInfoService {
         context.outOfOrder = outOfOrder;
         context.target = target;
 
-        Map<MigrationVersion, ResolvedMigration> resolvedMigrationsMap = new TreeMap<MigrationVersion, ResolvedMigration>();
-        for (ResolvedMigration resolvedMigration : resolvedMigrations) {
-            MigrationVersion version = resolvedMigration.getVersion();
-            if (version.compareTo(context.lastResolved) > 0) {
-                context.lastResolved = version;
+        for (AppliedMigration appliedMigration : appliedMigrations) {
+            if (appliedMigration.getType() == MigrationType.INIT) {
+                context.init = appliedMigration.getVersion();
             }
-            resolvedMigrationsMap.put(version, resolvedMigration);
         }
 
-        Map<MigrationVersion, AppliedMigration> appliedMigrationsMap = new TreeMap<MigrationVersion, AppliedMigration>();
-        for (AppliedMigration appliedMigration : appliedMigrations) {
-            MigrationVersion version = appliedMigration.getVersion();
-            if (version.compareTo(context.lastApplied) > 0) {
-                context.lastApplied = version;
+        List<ResolvedMigration> sortedResolvedMigrations = sortByVersion(resolvedMigrations);
+        List<AppliedMigration> sortedAppliedMigrations = sortByVersion(appliedMigrations);
+        if (!sortedResolvedMigrations.isEmpty()) {
+            context.lastResolved = sortedResolvedMigrations.get(sortedResolvedMigrations.size() - 1).getVersion();
+        }
+        if (!sortedAppliedMigrations.isEmpty()) {
+            context.lastApplied = sortedAppliedMigrations.get(sortedAppliedMigrations.size() - 1).getVersion();
+        }
+
+        List<MigrationInfoImpl> migrationInfos =
+                new ArrayList<MigrationInfoImpl>(Math.max(sortedResolvedMigrations.size(), sortedAppliedMigrations.size()));
+        int resolvedIndex = 0;
+        int appliedIndex = 0;
+        while ((resolvedIndex < sortedResolvedMigrations.size()) || (appliedIndex < sortedAppliedMigrations.size())) {
+            ResolvedMigration resolvedMigration = null;
+            if (resolvedIndex < sortedResolvedMigrations.size()) {
+                resolvedMigration = sortedResolvedMigrations.get(resolvedIndex);
             }
-            if (appliedMigration.getType() == MigrationType.INIT) {
-                context.init = version;
+            AppliedMigration appliedMigration = null;
+            if (appliedIndex < sortedAppliedMigrations.size()) {
+                appliedMigration = sortedAppliedMigrations.get(appliedIndex);
+            }
+
+            int compared;
+            if (resolvedMigration == null) {
+                compared = 1;
+            } else if (appliedMigration == null) {
+                compared = -1;
+            } else {
+                compared = resolvedMigration.getVersion().compareTo(appliedMigration.getVersion());
             }
-            appliedMigrationsMap.put(version, appliedMigration);
-        }
 
-        Set<MigrationVersion> allVersions = new HashSet<MigrationVersion>();
-        allVersions.addAll(resolvedMigrationsMap.keySet());
-        allVersions.addAll(appliedMigrationsMap.keySet());
+            if (compared <= 0) {
+                resolvedIndex = skipSameVersion(sortedResolvedMigrations, resolvedIndex);
+                resolvedMigration = sortedResolvedMigrations.get(resolvedIndex++);
+            } else {
+                resolvedMigration = null;
+            }
+            if (compared >= 0) {
+                appliedIndex = skipSameVersion(sortedAppliedMigrations, appliedIndex);
+                appliedMigration = sortedAppliedMigrations.get(appliedIndex++);
+            } else {
+                appliedMigration = null;
+            }
 
-        List<MigrationInfoImpl> migrationInfos = new ArrayList<MigrationInfoImpl>();
-        for (MigrationVersion version : allVersions) {
-            ResolvedMigration resolvedMigration = resolvedMigrationsMap.get(version);
-            AppliedMigration appliedMigration = appliedMigrationsMap.get(version);
             migrationInfos.add(new MigrationInfoImpl(resolvedMigration, appliedMigration, context));
         }
 
-        Collections.sort(migrationInfos);
-
         return migrationInfos;
     }
 
-    public MigrationInfo[] all() {
-        return migrationInfos.toArray(new MigrationInfoImpl[migrationInfos.size()]);
-    }
-
-    public MigrationInfo current() {
-        for (int i = migrationInfos.size() - 1; i >= 0; i--) {
-            MigrationInfo migrationInfo = migrationInfos.get(i);
-            if (migrationInfo.getState().isApplied()) {
-                return migrationInfo;
+    /**
+     * Sorts these migrations by version. Lists that are already sorted are returned as is.
+     *
+     * @param migrations The migrations to sort.
+     * @return The migrations sorted by version.
+     */
+    private static <T extends Comparable<T>> List<T> sortByVersion(List<T> migrations) {
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i - 1).compareTo(migrations.get(i)) > 0) {
+                List<T> sortedMigrations = new ArrayList<T>(migrations);
+                Collections.sort(sortedMigrations);
+                return sortedMigrations;
             }
         }
+        return migrations;
+    }
 
-        return null;
+    /**
+     * Skips the migrations at this position that are followed by another migration with the same version. When
+     * several migrations share a version, only the last one is used.
+     *
+     * @param migrations The migrations, sorted by version.
+     * @param index      The current position.
+     * @return The position of the last migration with the same version as the migration at the current position.
+     */
+    private static <T extends Comparable<T>> int skipSameVersion(List<T> migrations, int index) {
+        while ((index + 1 < migrations.size()) && (migrations.get(index).compareTo(migrations.get(index + 1)) == 0)) {
+            index++;
+        }
+        return index;
     }
 
-    public MigrationInfoImpl[] pending() {
-        List<MigrationInfoImpl> pendingMigrations = new ArrayList<MigrationInfoImpl>();
+    /**
+     * Groups these migration infos by state, so the queries for the migrations in a given state don't have to go
+     * through all migrations again. The state of each migration is only calculated once.
+     *
+     * @param migrationInfos The migration infos, sorted by version.
+     */
+    private void indexByState(List<MigrationInfoImpl> migrationInfos) {
+        List<MigrationInfoImpl> pending = new ArrayList<MigrationInfoImpl>();
+        List<MigrationInfo> applied = new ArrayList<MigrationInfo>();
+        List<MigrationInfo> resolved = new ArrayList<MigrationInfo>();
+        List<MigrationInfo> failed = new ArrayList<MigrationInfo>();
+        List<MigrationInfo> future = new ArrayList<MigrationInfo>();
+        List<MigrationInfo> outOfOrder = new ArrayList<MigrationInfo>();
+
         for (MigrationInfoImpl migrationInfo : migrationInfos) {
-            if (MigrationState.PENDING == migrationInfo.getState()) {
-                pendingMigrations.add(migrationInfo);
+            MigrationState state = migrationInfo.getState();
+            if (state == MigrationState.PENDING) {
+                pending.add(migrationInfo);
+            }
+            if (state.isApplied()) {
+                applied.add(migrationInfo);
+            }
+            if (state.isResolved()) {
+                resolved.add(migrationInfo);
+            }
+            if (state.isFailed()) {
+                failed.add(migrationInfo);
+            }
+            if ((state == MigrationState.FUTURE_SUCCESS) || (state == MigrationState.FUTURE_FAILED)) {
+                future.add(migrationInfo);
+            }
+            if (state == MigrationState.OUT_OF_ORDER) {
+                outOfOrder.add(migrationInfo);
             }
         }
 
-        return pendingMigrations.toArray(new MigrationInfoImpl[pendingMigrations.size()]);
+        allMigrations = migrationInfos.toArray(new MigrationInfoImpl[migrationInfos.size()]);
+        pendingMigrations = pending.toArray(new MigrationInfoImpl[pending.size()]);
+        appliedMigrations = applied.toArray(new MigrationInfo[applied.size()]);
+        resolvedMigrations = resolved.toArray(new MigrationInfo[resolved.size()]);
+        failedMigrations = failed.toArray(new MigrationInfo[failed.size()]);
+        futureMigrations = future.toArray(new MigrationInfo[future.size()]);
+        outOfOrderMigrations = outOfOrder.toArray(new MigrationInfo[outOfOrder.size()]);
     }
 
-    public MigrationInfo[] applied() {
-        List<MigrationInfo> appliedMigrations = new ArrayList<MigrationInfo>();
-        for (MigrationInfo migrationInfo : migrationInfos) {
-            if (migrationInfo.getState().isApplied()) {
-                appliedMigrations.add(migrationInfo);
-            }
+    public MigrationInfo[] all() {
+        return allMigrations.clone();
+    }
+
+    public MigrationInfo current() {
+        if (appliedMigrations.length == 0) {
+            return null;
         }
+        return appliedMigrations[appliedMigrations.length - 1];
+    }
+
+    public MigrationInfoImpl[] pending() {
+        return pendingMigrations.clone();
+    }
 
-        return appliedMigrations.toArray(new MigrationInfo[appliedMigrations.size()]);
+    public MigrationInfo[] applied() {
+        return appliedMigrations.clone();
     }
 
     /**
@@ -183,14 +296,7 @@ public class MigrationInfoServiceImpl implements MigrationInfoService {
      * @return The resolved migrations. An empty array if none.
      */
     public MigrationInfo[] resolved() {
-        List<MigrationInfo> resolvedMigrations = new ArrayList<MigrationInfo>();
-        for (MigrationInfo migrationInfo : migrationInfos) {
-            if (migrationInfo.getState().isResolved()) {
-                resolvedMigrations.add(migrationInfo);
-            }
-        }
-
-        return resolvedMigrations.toArray(new MigrationInfo[resolvedMigrations.size()]);
+        return resolvedMigrations.clone();
     }
 
     /**
@@ -199,14 +305,7 @@ public class MigrationInfoServiceImpl implements MigrationInfoService {
      * @return The failed migrations. An empty array if none.
      */
     public MigrationInfo[] failed() {
-        List<MigrationInfo> failedMigrations = new ArrayList<MigrationInfo>();
-        for (MigrationInfo migrationInfo : migrationInfos) {
-            if (migrationInfo.getState().isFailed()) {
-                failedMigrations.add(migrationInfo);
-            }
-        }
-
-        return failedMigrations.toArray(new MigrationInfo[failedMigrations.size()]);
+        return failedMigrations.clone();
     }
 
     /**
@@ -215,15 +314,7 @@ public class MigrationInfoServiceImpl implements MigrationInfoService {
      * @return The future migrations. An empty array if none.
      */
     public MigrationInfo[] future() {
-        List<MigrationInfo> futureMigrations = new ArrayList<MigrationInfo>();
-        for (MigrationInfo migrationInfo : migrationInfos) {
-            if ((migrationInfo.getState() == MigrationState.FUTURE_SUCCESS)
-                    || (migrationInfo.getState() == MigrationState.FUTURE_FAILED)) {
-                futureMigrations.add(migrationInfo);
-            }
-        }
-
-        return futureMigrations.toArray(new MigrationInfo[futureMigrations.size()]);
+        return futureMigrations.clone();
     }
 
     /**
@@ -232,14 +323,7 @@ public class MigrationInfoServiceImpl implements MigrationInfoService {
      * @return The out of order migrations. An empty array if none.
      */
     public MigrationInfo[] outOfOrder() {
-        List<MigrationInfo> outOfOrderMigrations = new ArrayList<MigrationInfo>();
-        for (MigrationInfo migrationInfo : migrationInfos) {
-            if (migrationInfo.getState() == MigrationState.OUT_OF_ORDER) {
-                outOfOrderMigrations.add(migrationInfo);
-            }
-        }
-
-        return outOfOrderMigrations.toArray(new MigrationInfo[outOfOrderMigrations.size()]);
+        return outOfOrderMigrations.clone();
     }
 
     /**
@@ -25,10 +25,24 @@ import java.util.List;
  */
 public interface MetaDataTable {
     /**
-     * Acquires an exclusive read-write lock on the metadata table. This lock will be released automatically on commit.
+     * Acquires an exclusive lock on the metadata table, serializing concurrent migrations. Depending on the database,
+     * this is either a native advisory lock, which doesn't block readers, or a read-write lock on the table itself.
+     * {@link #unlock()} must be called once the transaction in which the lock was acquired has ended.
      */
     void lock();
 
+    /**
+     * Releases the lock acquired by {@link #lock()}. Must be called once the transaction in which the lock was acquired
+     * has been committed or rolled back. Locks that are released automatically at the end of the transaction are left
+     * alone.
+     */
+    void unlock();
+
+    /**
+     * @return The total time spent waiting for the lock on the metadata table so far (in ms).
+     */
+    long getLockWaitTime();
+
     /**
      * Adds this migration as executed to the metadata table.
      *
@@ -49,6 +63,14 @@ public interface MetaDataTable {
      */
     List<AppliedMigration> allAppliedMigrations();
 
+    /**
+     * Retrieves the installed rank of the migration that was applied last. This is a cheap way to detect whether
+     * migrations have been applied by someone else since the table was last read.
+     *
+     * @return The highest installed rank. {@code 0} if no migration has been applied so far.
+     */
+    int getLatestInstalledRank();
+
     /**
      * @return The current version of the schema. {@code MigrationVersion.EMPTY} for an empty schema.
      */
@@ -94,4 +116,66 @@ public interface MetaDataTable {
      * @return {@code true} if it does, {@code false} if it doesn't.
      */
     boolean hasSchemasMarker();
+
+    /**
+     * Retrieves the fingerprint stored at the end of the last migration run, provided the metadata table has not
+     * changed since. Once the metadata and fingerprint tables are known to exist, this is a single query, no matter how
+     * many migrations have been applied.
+     *
+     * @return The fingerprint. {@code null} if none was stored or if migrations have been applied since.
+     */
+    String getFingerprint();
+
+    /**
+     * Stores this fingerprint for the current state of the metadata table, replacing the previous one. Nothing is
+     * stored while the metadata table is still empty.
+     *
+     * @param fingerprint The fingerprint of the resolved migrations and of the settings they were applied with.
+     */
+    void updateFingerprint(String fingerprint);
+
+    /**
+     * Creates the table holding the fingerprint and the leadership claims, if it doesn't exist yet. Creating a table
+     * implicitly commits the current transaction on some databases, releasing the lock on the metadata table. This must
+     * therefore be done in a transaction of its own, before claiming the leadership. The metadata table must have been
+     * locked first.
+     */
+    void ensureFingerprintTable();
+
+    /**
+     * Claims the leadership for migrating to the state described by this fingerprint. Only one instance can hold the
+     * claim at a time, whatever its fingerprint. It is discarded as soon as the leadership is released. A claim older
+     * than the lease time is considered abandoned by an instance that died and is replaced. The claim is timestamped
+     * with the clock of this machine, so the clocks of all instances must be in sync. The fingerprint table must have
+     * been created first and the metadata table must have been locked.
+     *
+     * @param fingerprint The fingerprint of the resolved migrations and of the settings they will be applied with.
+     * @param leaseTime   The time after which a claim is considered abandoned (in ms).
+     * @return {@code true} if the leadership was claimed, {@code false} if another instance already holds it.
+     */
+    boolean claimLeadership(String fingerprint, long leaseTime);
+
+    /**
+     * Checks whether an instance currently holds the leadership for migrating to the state described by this
+     * fingerprint. Claims older than the lease time are ignored. Once the fingerprint table is known to exist, this is a
+     * single query. It does not require a lock.
+     *
+     * @param fingerprint The fingerprint of the resolved migrations and of the settings they will be applied with.
+     * @param leaseTime   The time after which a claim is considered abandoned (in ms).
+     * @return {@code true} if it does, {@code false} if not.
+     */
+    boolean isLeadershipClaimed(String fingerprint, long leaseTime);
+
+    /**
+     * Releases the leadership claimed for this fingerprint, if it is still held.
+     *
+     * @param fingerprint The fingerprint of the resolved migrations and of the settings they will be applied with.
+     */
+    void releaseLeadership(String fingerprint);
+
+    /**
+     * Discards all information about the metadata table cached so far. It will be read again from the database on
+     * next access. This is required after the table has been modified by other means than this class. (ex.: clean)
+     */
+    void clearCache();
 }
@@ -20,11 +20,13 @@ import com.googlecode.flyway.core.api.MigrationType;
 import com.googlecode.flyway.core.api.MigrationVersion;
 import com.googlecode.flyway.core.dbsupport.DbSupport;
 import com.googlecode.flyway.core.dbsupport.JdbcTemplate;
+import com.googlecode.flyway.core.dbsupport.LockStrategy;
 import com.googlecode.flyway.core.dbsupport.Schema;
 import com.googlecode.flyway.core.dbsupport.SqlScript;
 import com.googlecode.flyway.core.dbsupport.Table;
 import com.googlecode.flyway.core.resolver.MigrationResolver;
 import com.googlecode.flyway.core.util.ClassPathResource;
+import com.googlecode.flyway.core.util.Pair;
 import com.googlecode.flyway.core.util.PlaceholderReplacer;
 import com.googlecode.flyway.core.util.StopWatch;
 import com.googlecode.flyway.core.util.StringUtils;
@@ -47,6 +49,12 @@ import java.util.Map;
 public class MetaDataTableImpl implements MetaDataTable {
     private static final Log LOG = LogFactory.getLog(MetaDataTableImpl.class);
 
+    /**
+     * The installed rank under which the leadership claim is stored in the fingerprint table. It never matches the rank
+     * of an applied migration.
+     */
+    private static final int LEADERSHIP_RANK = -1;
+
     /**
      * Flag indicating whether the upgrade has already been executed.
      */
@@ -62,16 +70,55 @@ public class MetaDataTableImpl implements MetaDataTable {
      */
     private final Table table;
 
+    /**
+     * The table holding the fingerprint of the last migration run, next to the metadata table.
+     */
+    private final Table fingerprintTable;
+
     /**
      * The migration resolver.
      */
     private final MigrationResolver migrationResolver;
 
+    /**
+     * The strategy used to lock the metadata table.
+     */
+    private final LockStrategy lockStrategy;
+
+    /**
+     * The total time spent waiting for the lock on the metadata table so far (in ms).
+     */
+    private long lockWaitTime;
+
     /**
      * JdbcTemplate with ddl manipulation access to the database.
      */
     private final JdbcTemplate jdbcTemplate;
 
+    /**
+     * Flag indicating whether the table is known to exist. Only a positive answer is cached, as the table may be
+     * created concurrently by another process at any time.
+     */
+    private boolean exists;
+
+    /**
+     * Flag indicating whether the fingerprint table is known to exist. Only a positive answer is cached, for the same
+     * reason as for the metadata table.
+     */
+    private boolean fingerprintTableExists;
+
+    /**
+     * The applied migrations (ordered by version rank) as read at the last access to the metadata table.
+     * {@code null} if they must be (re-)read.
+     */
+    private List<AppliedMigration> cachedAppliedMigrations;
+
+    /**
+     * The highest installed rank amongst the cached applied migrations. Compared against the one in the database to
+     * detect changes made by other processes.
+     */
+    private int cachedLatestInstalledRank;
+
     /**
      * Creates a new instance of the metadata table support.
      *
@@ -83,14 +130,16 @@ public class MetaDataTableImpl implements MetaDataTable {
         this.jdbcTemplate = dbSupport.getJdbcTemplate();
         this.dbSupport = dbSupport;
         this.table = table;
+        this.fingerprintTable = table.getSchema().getTable(table.getName() + "_fp");
         this.migrationResolver = migrationResolver;
+        this.lockStrategy = dbSupport.createLockStrategy();
     }
 
     /**
      * Creates the metatable if it doesn't exist, upgrades it if it does.
      */
     private void createIfNotExists() {
-        if (table.existsNoQuotes() || table.exists()) {
+        if (exists()) {
             if (!upgraded) {
                 new MetaDataTableTo20FormatUpgrader(dbSupport, table, migrationResolver).upgrade();
                 new MetaDataTableTo202FormatUpgrader(dbSupport, table).upgrade();
@@ -101,23 +150,138 @@ public class MetaDataTableImpl implements MetaDataTable {
 
         LOG.info("Creating Metadata table: " + table);
 
-        final String source =
-                new ClassPathResource(dbSupport.getScriptLocation() + "createMetaDataTable.sql").loadAsString("UTF-8");
+        executeScript("createMetaDataTable.sql", table);
+        exists = true;
+
+        LOG.debug("Metadata table " + table + " created.");
+    }
+
+    /**
+     * Executes this database-specific script against this table.
+     *
+     * @param scriptName  The name of the script in the script location of the database.
+     * @param targetTable The table to substitute for the schema and table placeholders of the script.
+     */
+    private void executeScript(String scriptName, Table targetTable) {
+        String source =
+                new ClassPathResource(dbSupport.getScriptLocation() + scriptName).loadAsString("UTF-8");
 
         Map<String, String> placeholders = new HashMap<String, String>();
-        placeholders.put("schema", table.getSchema().getName());
-        placeholders.put("table", table.getName());
-        final String sourceNoPlaceholders = new PlaceholderReplacer(placeholders, "${", "}").replacePlaceholders(source);
+        placeholders.put("schema", targetTable.getSchema().getName());
+        placeholders.put("table", targetTable.getName());
+        String sourceNoPlaceholders = new PlaceholderReplacer(placeholders, "${", "}").replacePlaceholders(source);
 
         SqlScript sqlScript = new SqlScript(sourceNoPlaceholders, dbSupport);
         sqlScript.execute(jdbcTemplate);
+    }
 
-        LOG.debug("Metadata table " + table + " created.");
+    /**
+     * Checks whether the metadata table exists. Once the table has been found, the database is not queried again.
+     *
+     * @return {@code true} if it does, {@code false} if not.
+     */
+    private boolean exists() {
+        if (!exists) {
+            exists = table.existsNoQuotes() || table.exists();
+        }
+        return exists;
+    }
+
+    /**
+     * Checks whether the fingerprint table exists. Once the table has been found, the database is not queried again.
+     *
+     * @return {@code true} if it does, {@code false} if not.
+     */
+    private boolean fingerprintTableExists() {
+        if (!fingerprintTableExists) {
+            fingerprintTableExists = fingerprintTable.exists();
+        }
+        return fingerprintTableExists;
+    }
+
+    /**
+     * Retrieves the applied migrations, reusing the ones read at the previous access if the highest installed rank
+     * in the database shows that no migrations have been added since.
+     *
+     * @return The applied migrations (ordered by version rank). An empty list if the metadata table doesn't exist yet.
+     */
+    private List<AppliedMigration> appliedMigrations() {
+        if (!exists()) {
+            return new ArrayList<AppliedMigration>();
+        }
+
+        createIfNotExists();
+
+        try {
+            if ((cachedAppliedMigrations != null) && (calculateInstalledRank() - 1 == cachedLatestInstalledRank)) {
+                return cachedAppliedMigrations;
+            }
+        } catch (SQLException e) {
+            throw new FlywayException("Error determining the latest installed rank from metadata table " + table, e);
+        }
+
+        List<AppliedMigration> appliedMigrations = readAppliedMigrations();
+
+        int latestInstalledRank = 0;
+        for (AppliedMigration appliedMigration : appliedMigrations) {
+            latestInstalledRank = Math.max(latestInstalledRank, appliedMigration.getInstalledRank());
+        }
+
+        cachedAppliedMigrations = appliedMigrations;
+        cachedLatestInstalledRank = latestInstalledRank;
+        return cachedAppliedMigrations;
+    }
+
+    /**
+     * Checks whether any of the applied migrations is of this type.
+     *
+     * @param type The type to look for.
+     * @return {@code true} if at least one is, {@code false} if not.
+     */
+    private boolean hasAppliedMigrationOfType(MigrationType type) {
+        for (AppliedMigration appliedMigration : appliedMigrations()) {
+            if (appliedMigration.getType() == type) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void clearCache() {
+        exists = false;
+        fingerprintTableExists = false;
+        cachedAppliedMigrations = null;
     }
 
     public void lock() {
         createIfNotExists();
-        table.lock();
+
+        LOG.debug("Locking metadata table " + table + "...");
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+        try {
+            lockStrategy.lock(table);
+        } catch (SQLException e) {
+            throw new FlywayException("Unable to lock metadata table " + table, e);
+        }
+        stopWatch.stop();
+
+        lockWaitTime += stopWatch.getTotalTimeMillis();
+        LOG.debug("Lock acquired for metadata table " + table
+                + " (waited " + TimeFormat.format(stopWatch.getTotalTimeMillis()) + ")");
+    }
+
+    public void unlock() {
+        try {
+            lockStrategy.unlock(table);
+        } catch (SQLException e) {
+            // The lock is released at the latest when the connection is closed
+            LOG.warn("Unable to unlock metadata table " + table + ": " + e.getMessage());
+        }
+    }
+
+    public long getLockWaitTime() {
+        return lockWaitTime;
     }
 
     public void addAppliedMigration(AppliedMigration appliedMigration) {
@@ -125,11 +289,13 @@ public class MetaDataTableImpl implements MetaDataTable {
 
         MigrationVersion version = appliedMigration.getVersion();
         try {
-            int versionRank = calculateVersionRank(version);
-
-            jdbcTemplate.update("UPDATE " + table
-                    + " SET " + dbSupport.quote("version_rank") + " = " + dbSupport.quote("version_rank")
-                    + " + 1 WHERE " + dbSupport.quote("version_rank") + " >= ?", versionRank);
+            Integer versionRank = calculateTailVersionRank(version);
+            if (versionRank == null) {
+                versionRank = calculateVersionRank(version);
+                jdbcTemplate.update("UPDATE " + table
+                        + " SET " + dbSupport.quote("version_rank") + " = " + dbSupport.quote("version_rank")
+                        + " + 1 WHERE " + dbSupport.quote("version_rank") + " >= ?", versionRank);
+            }
             jdbcTemplate.update("INSERT INTO " + table
                     + " (" + dbSupport.quote("version_rank")
                     + "," + dbSupport.quote("installed_rank")
@@ -152,6 +318,7 @@ public class MetaDataTableImpl implements MetaDataTable {
                     appliedMigration.getChecksum(),
                     appliedMigration.getExecutionTime(),
                     appliedMigration.isSuccess());
+            cachedAppliedMigrations = null;
             LOG.debug("MetaData table " + table + " successfully updated to reflect changes");
         } catch (SQLException e) {
             throw new FlywayException("Unable to insert row for version '" + version + "' in metadata table " + table, e);
@@ -170,7 +337,38 @@ public class MetaDataTableImpl implements MetaDataTable {
     }
 
     /**
-     * Calculate the rank for this new version about to be inserted.
+     * Calculates the rank for this new version about to be inserted, provided it is higher than all versions already
+     * present. This is the common case and only requires a lookup of the row with the highest version rank.
+     *
+     * @param version The version to calculated for.
+     * @return The rank, directly following the current highest one. {@code null} if this version must be inserted
+     *         before existing versions.
+     */
+    private Integer calculateTailVersionRank(MigrationVersion version) throws SQLException {
+        String query = dbSupport.getFirstRowQuery(
+                dbSupport.quote("version_rank") + "," + dbSupport.quote("version"),
+                table.toString(),
+                dbSupport.quote("version_rank") + " DESC");
+        List<Pair<Integer, String>> maxVersions = jdbcTemplate.query(query, new RowMapper<Pair<Integer, String>>() {
+            public Pair<Integer, String> mapRow(ResultSet rs) throws SQLException {
+                return Pair.of(rs.getInt(1), rs.getString(2));
+            }
+        });
+        if (maxVersions.isEmpty()) {
+            return 1;
+        }
+
+        Pair<Integer, String> maxVersion = maxVersions.get(0);
+        if (version.compareTo(MigrationVersion.fromVersion(maxVersion.getRight())) < 0) {
+            return null;
+        }
+
+        return maxVersion.getLeft() + 1;
+    }
+
+    /**
+     * Calculate the rank for this new version about to be inserted. All existing versions with the same or a higher
+     * rank must be shifted up by one.
      *
      * @param version The version to calculated for.
      * @return The rank.
@@ -180,7 +378,7 @@ public class MetaDataTableImpl implements MetaDataTable {
 
         List<MigrationVersion> migrationVersions = new ArrayList<MigrationVersion>();
         for (String versionStr : versions) {
-            migrationVersions.add(new MigrationVersion(versionStr));
+            migrationVersions.add(MigrationVersion.fromVersion(versionStr));
         }
 
         Collections.sort(migrationVersions);
@@ -195,12 +393,15 @@ public class MetaDataTableImpl implements MetaDataTable {
     }
 
     public List<AppliedMigration> allAppliedMigrations() {
-        if (!table.existsNoQuotes() && !table.exists()) {
-            return new ArrayList<AppliedMigration>();
-        }
-
-        createIfNotExists();
+        return new ArrayList<AppliedMigration>(appliedMigrations());
+    }
 
+    /**
+     * Reads all migrations applied on the schema from the metadata table.
+     *
+     * @return The list of all migrations applied on the schema (ordered by version rank).
+     */
+    private List<AppliedMigration> readAppliedMigrations() {
         String query = "SELECT " + dbSupport.quote("version_rank")
                 + "," + dbSupport.quote("installed_rank")
                 + "," + dbSupport.quote("version")
@@ -221,7 +422,7 @@ public class MetaDataTableImpl implements MetaDataTable {
                     return new AppliedMigration(
                             rs.getInt("version_rank"),
                             rs.getInt("installed_rank"),
-                            new MigrationVersion(rs.getString("version")),
+                            MigrationVersion.fromVersion(rs.getString("version")),
                             rs.getString("description"),
                             MigrationType.valueOf(rs.getString("type")),
                             rs.getString("script"),
@@ -253,30 +454,46 @@ public class MetaDataTableImpl implements MetaDataTable {
         return number.intValue();
     }
 
-    public MigrationVersion getCurrentSchemaVersion() {
-        if (!table.existsNoQuotes() && !table.exists()) {
-            return MigrationVersion.EMPTY;
+    public int getLatestInstalledRank() {
+        if (!exists()) {
+            return 0;
         }
 
+        createIfNotExists();
+
         try {
-            if (jdbcTemplate.queryForInt("SELECT COUNT(*) FROM " + table) == 0) {
-                return MigrationVersion.EMPTY;
-            }
+            return calculateInstalledRank() - 1;
         } catch (SQLException e) {
-            throw new FlywayException("Error checking if the metadata table " + table + " has at least one row", e);
+            throw new FlywayException("Error determining the latest installed rank from metadata table " + table, e);
+        }
+    }
+
+    public MigrationVersion getCurrentSchemaVersion() {
+        if (!exists()) {
+            return MigrationVersion.EMPTY;
         }
 
         createIfNotExists();
 
-        // Determine the version associated with the highest version_rank
-        String query = "SELECT t1." + dbSupport.quote("version") + " FROM " + table + " t1" +
-                " LEFT OUTER JOIN " + table + " t2 ON" +
-                " (t1." + dbSupport.quote("version") + " = t2." + dbSupport.quote("version")
-                + " AND t1." + dbSupport.quote("version_rank") + " < t2." + dbSupport.quote("version_rank") + ")" +
-                " WHERE t2." + dbSupport.quote("version") + " IS NULL";
+        if (cachedAppliedMigrations != null) {
+            List<AppliedMigration> appliedMigrations = appliedMigrations();
+            if (appliedMigrations.isEmpty()) {
+                return MigrationVersion.EMPTY;
+            }
+
+            // The version associated with the highest version_rank
+            return appliedMigrations.get(appliedMigrations.size() - 1).getVersion();
+        }
+
+        // No snapshot loaded yet: only look up the version associated with the highest version_rank
+        String query = dbSupport.getFirstRowQuery(
+                dbSupport.quote("version"), table.toString(), dbSupport.quote("version_rank") + " DESC");
         try {
             String version = jdbcTemplate.queryForString(query);
-            return new MigrationVersion(version);
+            if (version == null) {
+                return MigrationVersion.EMPTY;
+            }
+            return MigrationVersion.fromVersion(version);
         } catch (SQLException e) {
             throw new FlywayException("Error determining current schema version from metadata table " + table, e);
         }
@@ -288,7 +505,7 @@ public class MetaDataTableImpl implements MetaDataTable {
     }
 
     public void repair() {
-        if (!table.existsNoQuotes() && !table.exists()) {
+        if (!exists()) {
             LOG.info("Repair of metadata table " + table + " not necessary. No failed migration detected.");
             return;
         }
@@ -312,6 +529,11 @@ public class MetaDataTableImpl implements MetaDataTable {
         try {
             jdbcTemplate.execute("DELETE FROM " + table
                     + " WHERE " + dbSupport.quote("success") + " = " + dbSupport.getBooleanFalse());
+            cachedAppliedMigrations = null;
+            if (fingerprintTableExists()) {
+                jdbcTemplate.execute("DELETE FROM " + fingerprintTable
+                        + " WHERE " + dbSupport.quote("installed_rank") + " <> " + LEADERSHIP_RANK);
+            }
         } catch (SQLException e) {
             throw new FlywayException("Unable to repair metadata table " + table, e);
         }
@@ -323,59 +545,169 @@ public class MetaDataTableImpl implements MetaDataTable {
         LOG.info("Manual cleanup of the remaining effects the failed migration may still be required.");
     }
 
-    public void addSchemasMarker(final Schema[] schemas) {
-        createIfNotExists();
+    public String getFingerprint() {
+        // The fingerprint table is only ever created next to an up-to-date metadata table, so there is nothing to
+        // create or upgrade here.
+        if (!exists()) {
+            return null;
+        }
 
-        addAppliedMigration(new AppliedMigration(new MigrationVersion("0"), "<< Flyway Schema Creation >>",
-                MigrationType.SCHEMA, StringUtils.arrayToCommaDelimitedString(schemas), null, 0, true));
-    }
+        if (!fingerprintTableExists()) {
+            return null;
+        }
 
-    public boolean hasSchemasMarker() {
-        if (!table.existsNoQuotes() && !table.exists()) {
-            return false;
+        try {
+            return jdbcTemplate.queryForString("SELECT " + dbSupport.quote("fingerprint") + " FROM " + fingerprintTable
+                    + " WHERE " + dbSupport.quote("installed_rank") + " = (SELECT MAX(" + dbSupport.quote("installed_rank")
+                    + ") FROM " + table + ")");
+        } catch (SQLException e) {
+            throw new FlywayException("Unable to read the fingerprint of metadata table " + table, e);
         }
+    }
 
+    public void updateFingerprint(String fingerprint) {
         createIfNotExists();
 
         try {
-            int count = jdbcTemplate.queryForInt(
-                    "SELECT COUNT(*) FROM " + table + " WHERE " + dbSupport.quote("type") + "='SCHEMA'");
-            return count > 0;
+            int latestInstalledRank = calculateInstalledRank() - 1;
+            if (latestInstalledRank == 0) {
+                return;
+            }
+
+            if (fingerprintTableExists()) {
+                jdbcTemplate.execute("DELETE FROM " + fingerprintTable
+                        + " WHERE " + dbSupport.quote("installed_rank") + " <> " + LEADERSHIP_RANK);
+            } else {
+                createFingerprintTable();
+            }
+            jdbcTemplate.update("INSERT INTO " + fingerprintTable
+                    + " (" + dbSupport.quote("fingerprint") + "," + dbSupport.quote("installed_rank") + ")"
+                    + " VALUES (?, ?)", fingerprint, latestInstalledRank);
+            LOG.debug("Fingerprint of metadata table " + table + " updated to " + fingerprint);
         } catch (SQLException e) {
-            throw new FlywayException("Unable to check whether the metadata table " + table + " has a schema marker migration", e);
+            throw new FlywayException("Unable to store the fingerprint of metadata table " + table, e);
         }
     }
 
-    public boolean hasInitMarker() {
-        if (!table.existsNoQuotes() && !table.exists()) {
-            return false;
-        }
+    /**
+     * Creates the table holding the fingerprint, using the createFingerprintTable.sql script of the database.
+     */
+    private void createFingerprintTable() {
+        executeScript("createFingerprintTable.sql", fingerprintTable);
+        fingerprintTableExists = true;
+        LOG.debug("Fingerprint table " + fingerprintTable + " created.");
+    }
 
-        createIfNotExists();
+    public void ensureFingerprintTable() {
+        if (!fingerprintTableExists()) {
+            createFingerprintTable();
+        }
+    }
 
+    public boolean claimLeadership(String fingerprint, long leaseTime) {
         try {
-            int count = jdbcTemplate.queryForInt(
-                    "SELECT COUNT(*) FROM " + table + " WHERE " + dbSupport.quote("type") + "='INIT'");
-            return count > 0;
+            long now = System.currentTimeMillis();
+            List<Map<String, String>> claims = jdbcTemplate.queryForList("SELECT "
+                    + dbSupport.quote("fingerprint") + "," + dbSupport.quote("claimed_at")
+                    + " FROM " + fingerprintTable
+                    + " WHERE " + dbSupport.quote("installed_rank") + " = " + LEADERSHIP_RANK);
+            for (Map<String, String> claim : claims) {
+                // A live claim is never taken over, even if it is for another fingerprint
+                if (isLive(claim.get("claimed_at"), now, leaseTime)) {
+                    LOG.debug("Leadership for metadata table " + table + " already claimed (fingerprint "
+                            + claim.get("fingerprint") + ")");
+                    return false;
+                }
+            }
+
+            if (!claims.isEmpty()) {
+                LOG.info("Replacing the abandoned leadership claim for metadata table " + table);
+                jdbcTemplate.execute("DELETE FROM " + fingerprintTable
+                        + " WHERE " + dbSupport.quote("installed_rank") + " = " + LEADERSHIP_RANK);
+            }
+
+            jdbcTemplate.update("INSERT INTO " + fingerprintTable
+                    + " (" + dbSupport.quote("fingerprint") + "," + dbSupport.quote("installed_rank")
+                    + "," + dbSupport.quote("claimed_at") + ")"
+                    + " VALUES (?, ?, ?)", fingerprint, LEADERSHIP_RANK, now);
+            LOG.debug("Leadership claimed for metadata table " + table + " (fingerprint " + fingerprint + ")");
+            return true;
         } catch (SQLException e) {
-            throw new FlywayException("Unable to check whether the metadata table " + table + " has an init marker migration", e);
+            throw new FlywayException("Unable to claim the leadership for metadata table " + table, e);
         }
     }
 
-    public boolean hasAppliedMigrations() {
-        if (!table.existsNoQuotes() && !table.exists()) {
+    public boolean isLeadershipClaimed(String fingerprint, long leaseTime) {
+        if (!fingerprintTableExists()) {
             return false;
         }
 
-        createIfNotExists();
+        try {
+            List<String> claimTimes = jdbcTemplate.queryForStringList("SELECT " + dbSupport.quote("claimed_at")
+                    + " FROM " + fingerprintTable
+                    + " WHERE " + dbSupport.quote("installed_rank") + " = " + LEADERSHIP_RANK
+                    + " AND " + dbSupport.quote("fingerprint") + " = ?", fingerprint);
+            long now = System.currentTimeMillis();
+            for (String claimTime : claimTimes) {
+                if (isLive(claimTime, now, leaseTime)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (SQLException e) {
+            throw new FlywayException("Unable to check the leadership for metadata table " + table, e);
+        }
+    }
+
+    /**
+     * Checks whether a leadership claim made at this time is still within its lease.
+     *
+     * @param claimTime The time the claim was made at, as stored in the fingerprint table (in ms since the epoch).
+     * @param now       The current time (in ms since the epoch).
+     * @param leaseTime The time after which a claim is considered abandoned (in ms).
+     * @return {@code true} if it is, {@code false} if it has been abandoned.
+     */
+    private boolean isLive(String claimTime, long now, long leaseTime) {
+        return (claimTime != null) && (now - Long.parseLong(claimTime) < leaseTime);
+    }
+
+    public void releaseLeadership(String fingerprint) {
+        if (!fingerprintTableExists()) {
+            return;
+        }
 
         try {
-            int count = jdbcTemplate.queryForInt(
-                    "SELECT COUNT(*) FROM " + table + " WHERE " + dbSupport.quote("type") + " NOT IN ('SCHEMA', 'INIT')");
-            return count > 0;
+            jdbcTemplate.update("DELETE FROM " + fingerprintTable
+                    + " WHERE " + dbSupport.quote("installed_rank") + " = " + LEADERSHIP_RANK
+                    + " AND " + dbSupport.quote("fingerprint") + " = ?", fingerprint);
+            LOG.debug("Leadership released for metadata table " + table + " (fingerprint " + fingerprint + ")");
         } catch (SQLException e) {
-            throw new FlywayException("Unable to check whether the metadata table " + table + " has applied migrations", e);
+            throw new FlywayException("Unable to release the leadership for metadata table " + table, e);
+        }
+    }
+
+    public void addSchemasMarker(final Schema[] schemas) {
+        createIfNotExists();
+
+        addAppliedMigration(new AppliedMigration(MigrationVersion.fromVersion("0"), "<< Flyway Schema Creation >>",
+                MigrationType.SCHEMA, StringUtils.arrayToCommaDelimitedString(schemas), null, 0, true));
+    }
+
+    public boolean hasSchemasMarker() {
+        return hasAppliedMigrationOfType(MigrationType.SCHEMA);
+    }
+
+    public boolean hasInitMarker() {
+        return hasAppliedMigrationOfType(MigrationType.INIT);
+    }
+
+    public boolean hasAppliedMigrations() {
+        for (AppliedMigration appliedMigration : appliedMigrations()) {
+            if ((appliedMigration.getType() != MigrationType.SCHEMA) && (appliedMigration.getType() != MigrationType.INIT)) {
+                return true;
+            }
         }
+        return false;
     }
 
     @Override
@@ -121,13 +121,14 @@ public class MetaDataTableTo20FormatUpgrader {
             }
         }
 
+        List<Object[]> batchParams = new ArrayList<Object[]>(correctedChecksums.size());
         for (MigrationVersion version : correctedChecksums.keySet()) {
-            jdbcTemplate.execute("UPDATE " + table
-                    + " SET " + dbSupport.quote("checksum") + " = ?"
-                    + " WHERE " + dbSupport.quote("version") + " = ?",
-                    correctedChecksums.get(version), version.toString());
-
+            batchParams.add(new Object[]{correctedChecksums.get(version), version.toString()});
         }
+
+        jdbcTemplate.batchUpdate("UPDATE " + table
+                + " SET " + dbSupport.quote("checksum") + " = ?"
+                + " WHERE " + dbSupport.quote("version") + " = ?", batchParams);
     }
 
     /**
@@ -157,18 +158,21 @@ public class MetaDataTableTo20FormatUpgrader {
 
         List<MigrationVersion> migrationVersions = new ArrayList<MigrationVersion>(versions.size());
         for (String version : versions) {
-            migrationVersions.add(new MigrationVersion(version));
+            migrationVersions.add(MigrationVersion.fromVersion(version));
         }
 
         Collections.sort(migrationVersions);
 
+        List<Object[]> batchParams = new ArrayList<Object[]>(migrationVersions.size());
         for (int i = 0; i < migrationVersions.size(); i++) {
             int rank = i + 1;
             String version = migrationVersions.get(i).toString();
-            jdbcTemplate.execute("UPDATE " + table
-                    + " SET " + dbSupport.quote("version_rank") + " = ?, " + dbSupport.quote("installed_rank")
-                    + " = ? WHERE " + dbSupport.quote("version") + " = ?", rank, rank, version);
+            batchParams.add(new Object[]{rank, rank, version});
         }
+
+        jdbcTemplate.batchUpdate("UPDATE " + table
+                + " SET " + dbSupport.quote("version_rank") + " = ?, " + dbSupport.quote("installed_rank")
+                + " = ? WHERE " + dbSupport.quote("version") + " = ?", batchParams);
     }
 
     /**
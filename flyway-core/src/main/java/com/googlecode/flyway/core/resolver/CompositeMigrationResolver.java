@@ -24,6 +24,9 @@ import com.googlecode.flyway.core.util.FeatureDetector;
 import com.googlecode.flyway.core.util.Location;
 import com.googlecode.flyway.core.util.Locations;
 import com.googlecode.flyway.core.util.PlaceholderReplacer;
+import com.googlecode.flyway.core.util.logging.Log;
+import com.googlecode.flyway.core.util.logging.LogFactory;
+import com.googlecode.flyway.core.util.scanner.classpath.ClassPathScanner;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -32,12 +35,19 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Facility for retrieving and sorting the available migrations from the classpath through the various migration
  * resolvers.
  */
 public class CompositeMigrationResolver implements MigrationResolver {
+    private static final Log LOG = LogFactory.getLog(CompositeMigrationResolver.class);
+
     /**
      * The locations where the migrations are located.
      */
@@ -73,6 +83,16 @@ public class CompositeMigrationResolver implements MigrationResolver {
      */
     private final String placeholderSuffix;
 
+    /**
+     * Whether to fail when a sql migration contains a placeholder without a value.
+     */
+    private final boolean failOnUnresolvedPlaceholders;
+
+    /**
+     * The maximum number of consecutive data manipulation statements of a sql migration to execute as a single batch.
+     */
+    private final int sqlBatchSize;
+
     /**
      * The available migrations, sorted by version, newest first. An empty list is returned when no migrations can be
      * found.
@@ -82,15 +102,18 @@ public class CompositeMigrationResolver implements MigrationResolver {
     /**
      * Creates a new CompositeMigrationResolver.
      *
-     * @param locations          The locations where migrations are located.
-     * @param encoding           The encoding of Sql migrations.
-     * @param sqlMigrationPrefix The file name prefix for sql migrations.
-     * @param sqlMigrationSuffix The file name suffix for sql migrations.
-     * @param placeholders       A map of &lt;placeholder, replacementValue&gt; to apply to sql migration scripts.
-     * @param placeholderPrefix  The prefix of every placeholder.
-     * @param placeholderSuffix  The suffix of every placeholder.
-     */
-    public CompositeMigrationResolver(Locations locations, String encoding, String sqlMigrationPrefix, String sqlMigrationSuffix, Map<String, String> placeholders, String placeholderPrefix, String placeholderSuffix) {
+     * @param locations                    The locations where migrations are located.
+     * @param encoding                     The encoding of Sql migrations.
+     * @param sqlMigrationPrefix           The file name prefix for sql migrations.
+     * @param sqlMigrationSuffix           The file name suffix for sql migrations.
+     * @param placeholders                 A map of &lt;placeholder, replacementValue&gt; to apply to sql migration scripts.
+     * @param placeholderPrefix            The prefix of every placeholder.
+     * @param placeholderSuffix            The suffix of every placeholder.
+     * @param failOnUnresolvedPlaceholders Whether to fail when a sql migration contains a placeholder without a value.
+     * @param sqlBatchSize                 The maximum number of consecutive data manipulation statements of a sql migration to
+     *                                     execute as a single batch. 0 or 1 to execute every statement on its own.
+     */
+    public CompositeMigrationResolver(Locations locations, String encoding, String sqlMigrationPrefix, String sqlMigrationSuffix, Map<String, String> placeholders, String placeholderPrefix, String placeholderSuffix, boolean failOnUnresolvedPlaceholders, int sqlBatchSize) {
         this.locations = locations;
         this.encoding = encoding;
         this.sqlMigrationPrefix = sqlMigrationPrefix;
@@ -98,6 +121,8 @@ public class CompositeMigrationResolver implements MigrationResolver {
         this.placeholders = placeholders;
         this.placeholderPrefix = placeholderPrefix;
         this.placeholderSuffix = placeholderSuffix;
+        this.failOnUnresolvedPlaceholders = failOnUnresolvedPlaceholders;
+        this.sqlBatchSize = sqlBatchSize;
     }
 
     /**
@@ -123,21 +148,15 @@ public class CompositeMigrationResolver implements MigrationResolver {
      * @throws FlywayException when the available migrations have overlapping versions.
      */
     private List<ResolvedMigration> doFindAvailableMigrations() throws FlywayException {
-        PlaceholderReplacer placeholderReplacer = new PlaceholderReplacer(placeholders, placeholderPrefix, placeholderSuffix);
-
-        Collection<MigrationResolver> migrationResolvers = new ArrayList<MigrationResolver>();
+        PlaceholderReplacer placeholderReplacer = new PlaceholderReplacer(placeholders, placeholderPrefix, placeholderSuffix, failOnUnresolvedPlaceholders);
 
+        List<Collection<MigrationResolver>> migrationResolversPerLocation = new ArrayList<Collection<MigrationResolver>>();
         for (Location location : locations.getLocations()) {
-            migrationResolvers.add(new SqlMigrationResolver(location, placeholderReplacer, encoding, sqlMigrationPrefix, sqlMigrationSuffix));
-            migrationResolvers.add(new JdbcMigrationResolver(location));
-
-            if (FeatureDetector.isSpringJdbcAvailable()) {
-                migrationResolvers.add(new SpringJdbcMigrationResolver(location));
-                migrationResolvers.add(new JavaMigrationResolver(location));
-            }
+            migrationResolversPerLocation.add(createMigrationResolvers(location, placeholderReplacer));
         }
 
-        List<ResolvedMigration> migrations = new ArrayList<ResolvedMigration>(collectMigrations(migrationResolvers));
+        List<ResolvedMigration> migrations =
+                new ArrayList<ResolvedMigration>(collectMigrationsPerLocation(migrationResolversPerLocation));
         Collections.sort(migrations);
 
         checkForIncompatibilities(migrations);
@@ -145,6 +164,88 @@ public class CompositeMigrationResolver implements MigrationResolver {
         return migrations;
     }
 
+    /**
+     * Creates the migration resolvers (sql, java, ...) for this location. They all share the same classpath scanner,
+     * so the location is only scanned once.
+     *
+     * @param location            The location to resolve the migrations in.
+     * @param placeholderReplacer The placeholder replacer to apply to sql migration scripts.
+     * @return The migration resolvers.
+     */
+    private Collection<MigrationResolver> createMigrationResolvers(Location location, PlaceholderReplacer placeholderReplacer) {
+        ClassPathScanner classPathScanner = new ClassPathScanner();
+
+        Collection<MigrationResolver> migrationResolvers = new ArrayList<MigrationResolver>();
+        migrationResolvers.add(new SqlMigrationResolver(location, classPathScanner, placeholderReplacer, encoding, sqlMigrationPrefix, sqlMigrationSuffix, sqlBatchSize));
+        migrationResolvers.add(new JdbcMigrationResolver(location, classPathScanner));
+
+        if (FeatureDetector.isSpringJdbcAvailable()) {
+            migrationResolvers.add(new SpringJdbcMigrationResolver(location, classPathScanner));
+            migrationResolvers.add(new JavaMigrationResolver(location, classPathScanner));
+        }
+        return migrationResolvers;
+    }
+
+    /**
+     * Collects all the migrations for all migration resolvers of all locations. The locations are resolved
+     * concurrently, while the resolvers of a single location run one after the other on the same thread, as they
+     * share a classpath scanner.
+     *
+     * @param migrationResolversPerLocation The migration resolvers to check, grouped by location.
+     * @return All migrations.
+     */
+    /* private -> for testing */
+    static Collection<ResolvedMigration> collectMigrationsPerLocation(List<Collection<MigrationResolver>> migrationResolversPerLocation) {
+        if (migrationResolversPerLocation.size() <= 1) {
+            Set<ResolvedMigration> migrations = new HashSet<ResolvedMigration>();
+            for (Collection<MigrationResolver> migrationResolvers : migrationResolversPerLocation) {
+                migrations.addAll(collectMigrations(migrationResolvers));
+            }
+            return migrations;
+        }
+
+        int threads = Math.min(migrationResolversPerLocation.size(), Runtime.getRuntime().availableProcessors());
+        LOG.debug("Resolving migrations in " + migrationResolversPerLocation.size() + " locations using " + threads + " threads ...");
+
+        // The classpath scanners look up resources using the context classloader of the current thread.
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Collection<ResolvedMigration>>> futures = new ArrayList<Future<Collection<ResolvedMigration>>>();
+            for (final Collection<MigrationResolver> migrationResolvers : migrationResolversPerLocation) {
+                futures.add(executor.submit(new Callable<Collection<ResolvedMigration>>() {
+                    public Collection<ResolvedMigration> call() {
+                        Thread.currentThread().setContextClassLoader(classLoader);
+                        return collectMigrations(migrationResolvers);
+                    }
+                }));
+            }
+
+            Set<ResolvedMigration> migrations = new HashSet<ResolvedMigration>();
+            for (Future<Collection<ResolvedMigration>> future : futures) {
+                try {
+                    migrations.addAll(future.get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw new FlywayException("Unable to resolve migrations", cause);
+                }
+            }
+            return migrations;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlywayException("Interrupted while resolving migrations", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     /**
      * Collects all the migrations for all migration resolvers.
      *
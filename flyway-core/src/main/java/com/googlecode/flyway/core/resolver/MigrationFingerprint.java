@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2010-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.resolver;
+
+import com.googlecode.flyway.core.api.FlywayException;
+import com.googlecode.flyway.core.api.MigrationVersion;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * Calculates the fingerprint of a set of resolved migrations: a SHA-1 hash over the version, checksum and type of each
+ * migration, together with the settings that decide which of them are applied. Two runs with the same fingerprint
+ * would apply and validate exactly the same migrations.
+ */
+public class MigrationFingerprint {
+    /**
+     * Prevents instantiation.
+     */
+    private MigrationFingerprint() {
+        //Do nothing.
+    }
+
+    /**
+     * Calculates the fingerprint of these migrations.
+     *
+     * @param resolvedMigrations          The resolved migrations, sorted by version.
+     * @param target                      The target version of the migration.
+     * @param outOfOrder                  Whether migrations are allowed to be run "out of order".
+     * @param ignoreFailedFutureMigration Whether failed future migrations are ignored.
+     * @return The fingerprint, as 40 hexadecimal characters.
+     */
+    public static String calculate(List<ResolvedMigration> resolvedMigrations, MigrationVersion target,
+                                   boolean outOfOrder, boolean ignoreFailedFutureMigration) {
+        StringBuilder content = new StringBuilder();
+        content.append(target).append('|').append(outOfOrder).append('|').append(ignoreFailedFutureMigration).append('\n');
+        for (ResolvedMigration resolvedMigration : resolvedMigrations) {
+            content.append(resolvedMigration.getVersion())
+                    .append('|').append(resolvedMigration.getChecksum())
+                    .append('|').append(resolvedMigration.getType())
+                    .append('\n');
+        }
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(content.toString().getBytes("UTF-8"));
+
+            StringBuilder fingerprint = new StringBuilder();
+            for (byte b : digest) {
+                fingerprint.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return fingerprint.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new FlywayException("Unable to calculate migration fingerprint", e);
+        } catch (UnsupportedEncodingException e) {
+            throw new FlywayException("Unable to calculate migration fingerprint", e);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (C) 2010-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.resolver;
+
+import com.googlecode.flyway.core.api.FlywayException;
+import com.googlecode.flyway.core.api.MigrationVersion;
+import com.googlecode.flyway.core.resolver.sql.SqlMigrationResolver;
+import com.googlecode.flyway.core.util.FileCopyUtils;
+import com.googlecode.flyway.core.util.Location;
+import com.googlecode.flyway.core.util.Locations;
+import com.googlecode.flyway.core.util.Pair;
+import com.googlecode.flyway.core.util.logging.Log;
+import com.googlecode.flyway.core.util.logging.LogFactory;
+import com.googlecode.flyway.core.util.scanner.classpath.ClassPathIndex;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Generates the migration index ({@code META-INF/flyway/index}) of a classes directory at build time, so the
+ * migrations can be found at runtime without scanning the classpath. See {@link ClassPathIndex} for the format.
+ */
+public class MigrationIndexGenerator {
+    private static final Log LOG = LogFactory.getLog(MigrationIndexGenerator.class);
+
+    /**
+     * The locations on the classpath to index.
+     */
+    private final Locations locations;
+
+    /**
+     * The file name prefix for sql migrations.
+     */
+    private final String sqlMigrationPrefix;
+
+    /**
+     * The file name suffix for sql migrations.
+     */
+    private final String sqlMigrationSuffix;
+
+    /**
+     * Creates a new MigrationIndexGenerator.
+     *
+     * @param locations          The locations on the classpath to index. Filesystem locations are ignored.
+     * @param sqlMigrationPrefix The file name prefix for sql migrations.
+     * @param sqlMigrationSuffix The file name suffix for sql migrations.
+     */
+    public MigrationIndexGenerator(Locations locations, String sqlMigrationPrefix, String sqlMigrationSuffix) {
+        this.locations = locations;
+        this.sqlMigrationPrefix = sqlMigrationPrefix;
+        this.sqlMigrationSuffix = sqlMigrationSuffix;
+    }
+
+    /**
+     * Generates the migration index of this classes directory.
+     *
+     * @param classesDir The classes directory, which will be packaged as the root of a jar.
+     * @return The number of indexed resources.
+     * @throws FlywayException when the index could not be generated.
+     */
+    public int generate(File classesDir) throws FlywayException {
+        File indexFile = new File(classesDir, ClassPathIndex.INDEX_RESOURCE);
+        try {
+            StringBuilder index = new StringBuilder("# Flyway migration index. Generated at build time, do not edit.\n");
+            int count = 0;
+            for (Location location : locations.getLocations()) {
+                if (!location.isClassPath()) {
+                    LOG.debug("Skipping non-classpath location: " + location);
+                    continue;
+                }
+
+                Map<String, File> files = new TreeMap<String, File>();
+                String path = location.getPath();
+                findFiles(new File(classesDir, path), path, files);
+
+                index.append("location\t").append(path).append("\n");
+                for (Map.Entry<String, File> entry : files.entrySet()) {
+                    index.append("resource\t").append(entry.getKey());
+                    appendSqlMigrationInfo(index, entry.getValue());
+                    index.append("\n");
+                    count++;
+                }
+            }
+
+            File indexDir = indexFile.getParentFile();
+            if (!indexDir.isDirectory() && !indexDir.mkdirs()) {
+                throw new IOException("Unable to create directory " + indexDir);
+            }
+            Writer writer = new OutputStreamWriter(new FileOutputStream(indexFile), "UTF-8");
+            try {
+                writer.write(index.toString());
+            } finally {
+                writer.close();
+            }
+
+            LOG.info("Indexed " + count + " resources in " + indexFile);
+            return count;
+        } catch (IOException e) {
+            throw new FlywayException("Unable to generate migration index " + indexFile, e);
+        }
+    }
+
+    /**
+     * Finds all files in this directory and below.
+     *
+     * @param dir   The directory to search.
+     * @param path  The path of the directory on the classpath.
+     * @param files The files found so far, by resource name on the classpath.
+     */
+    private void findFiles(File dir, String path, Map<String, File> files) {
+        File[] children = dir.listFiles();
+        if (children == null) {
+            return;
+        }
+
+        for (File child : children) {
+            String resourceName = (path.length() == 0) ? child.getName() : path + "/" + child.getName();
+            if (child.isDirectory()) {
+                findFiles(child, resourceName, files);
+            } else if (!resourceName.equals(ClassPathIndex.INDEX_RESOURCE)) {
+                files.put(resourceName, child);
+            }
+        }
+    }
+
+    /**
+     * Appends the checksum, version and description of this file to this index entry, if it is a sql migration.
+     *
+     * @param index The index.
+     * @param file  The file.
+     * @throws IOException when the file could not be read.
+     */
+    private void appendSqlMigrationInfo(StringBuilder index, File file) throws IOException {
+        String filename = file.getName();
+        if (!filename.startsWith(sqlMigrationPrefix) || !filename.endsWith(sqlMigrationSuffix)
+                || (filename.length() <= (sqlMigrationPrefix + sqlMigrationSuffix).length())) {
+            return;
+        }
+
+        Pair<MigrationVersion, String> info =
+                MigrationInfoHelper.extractVersionAndDescription(filename, sqlMigrationPrefix, sqlMigrationSuffix);
+        int checksum = SqlMigrationResolver.calculateChecksum(FileCopyUtils.copyToByteArray(new FileInputStream(file)));
+
+        index.append("\t").append(checksum)
+                .append("\t").append(info.getLeft())
+                .append("\t").append(info.getRight());
+    }
+}
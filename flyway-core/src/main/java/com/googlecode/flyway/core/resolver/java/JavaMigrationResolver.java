@@ -44,13 +44,30 @@ public class JavaMigrationResolver implements MigrationResolver {
      */
     private final Location location;
 
+    /**
+     * The scanner to use to find the classes at the location.
+     */
+    private final ClassPathScanner classPathScanner;
+
     /**
      * Creates a new instance.
      *
      * @param location The base package on the classpath where to migrations are located.
      */
     public JavaMigrationResolver(Location location) {
+        this(location, new ClassPathScanner());
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param location         The base package on the classpath where to migrations are located.
+     * @param classPathScanner The scanner to use to find the classes at the location. It can be shared with other
+     *                         resolvers for the same location, so the location is only scanned once.
+     */
+    public JavaMigrationResolver(Location location, ClassPathScanner classPathScanner) {
         this.location = location;
+        this.classPathScanner = classPathScanner;
     }
 
     public List<ResolvedMigration> resolveMigrations() {
@@ -61,12 +78,10 @@ public class JavaMigrationResolver implements MigrationResolver {
         }
 
         try {
-            Class<?>[] classes = new ClassPathScanner().scanForClasses(location.getPath(), JavaMigration.class);
-            for (Class<?> clazz : classes) {
-                JavaMigration javaMigration = (JavaMigration) ClassUtils.instantiate(clazz.getName());
-
+            List<JavaMigration> javaMigrations = classPathScanner.scanForInstances(location.getPath(), JavaMigration.class);
+            for (JavaMigration javaMigration : javaMigrations) {
                 ResolvedMigration migrationInfo = extractMigrationInfo(javaMigration);
-                migrationInfo.setPhysicalLocation(ClassUtils.getLocationOnDisk(clazz));
+                migrationInfo.setPhysicalLocation(ClassUtils.getLocationOnDisk(javaMigration.getClass()));
                 migrationInfo.setExecutor(new JavaMigrationExecutor(javaMigration));
 
                 migrations.add(migrationInfo);
@@ -96,7 +111,7 @@ public class JavaMigrationResolver implements MigrationResolver {
         String description;
         if (javaMigration instanceof JavaMigrationInfoProvider) {
             JavaMigrationInfoProvider infoProvider = (JavaMigrationInfoProvider) javaMigration;
-            version = new MigrationVersion(infoProvider.getVersion().toString());
+            version = MigrationVersion.fromVersion(infoProvider.getVersion().toString());
             description = infoProvider.getDescription();
             if (!StringUtils.hasText(description)) {
                 throw new FlywayException("Missing description for migration " + version);
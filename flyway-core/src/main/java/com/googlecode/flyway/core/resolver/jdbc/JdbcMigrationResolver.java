@@ -44,13 +44,30 @@ public class JdbcMigrationResolver implements MigrationResolver {
      */
     private final Location location;
 
+    /**
+     * The scanner to use to find the classes at the location.
+     */
+    private final ClassPathScanner classPathScanner;
+
     /**
      * Creates a new instance.
      *
      * @param location The base package on the classpath where to migrations are located.
      */
     public JdbcMigrationResolver(Location location) {
+        this(location, new ClassPathScanner());
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param location         The base package on the classpath where to migrations are located.
+     * @param classPathScanner The scanner to use to find the classes at the location. It can be shared with other
+     *                         resolvers for the same location, so the location is only scanned once.
+     */
+    public JdbcMigrationResolver(Location location, ClassPathScanner classPathScanner) {
         this.location = location;
+        this.classPathScanner = classPathScanner;
     }
 
     public List<ResolvedMigration> resolveMigrations() {
@@ -61,12 +78,10 @@ public class JdbcMigrationResolver implements MigrationResolver {
         }
 
         try {
-            Class<?>[] classes = new ClassPathScanner().scanForClasses(location.getPath(), JdbcMigration.class);
-            for (Class<?> clazz : classes) {
-                JdbcMigration jdbcMigration = (JdbcMigration) ClassUtils.instantiate(clazz.getName());
-
+            List<JdbcMigration> jdbcMigrations = classPathScanner.scanForInstances(location.getPath(), JdbcMigration.class);
+            for (JdbcMigration jdbcMigration : jdbcMigrations) {
                 ResolvedMigration migrationInfo = extractMigrationInfo(jdbcMigration);
-                migrationInfo.setPhysicalLocation(ClassUtils.getLocationOnDisk(clazz));
+                migrationInfo.setPhysicalLocation(ClassUtils.getLocationOnDisk(jdbcMigration.getClass()));
                 migrationInfo.setExecutor(new JdbcMigrationExecutor(jdbcMigration));
 
                 migrations.add(migrationInfo);
@@ -44,13 +44,30 @@ public class SpringJdbcMigrationResolver implements MigrationResolver {
      */
     private final Location location;
 
+    /**
+     * The scanner to use to find the classes at the location.
+     */
+    private final ClassPathScanner classPathScanner;
+
     /**
      * Creates a new instance.
      *
      * @param location The base package on the classpath where to migrations are located.
      */
     public SpringJdbcMigrationResolver(Location location) {
+        this(location, new ClassPathScanner());
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param location         The base package on the classpath where to migrations are located.
+     * @param classPathScanner The scanner to use to find the classes at the location. It can be shared with other
+     *                         resolvers for the same location, so the location is only scanned once.
+     */
+    public SpringJdbcMigrationResolver(Location location, ClassPathScanner classPathScanner) {
         this.location = location;
+        this.classPathScanner = classPathScanner;
     }
 
     public List<ResolvedMigration> resolveMigrations() {
@@ -61,12 +78,10 @@ public class SpringJdbcMigrationResolver implements MigrationResolver {
         }
 
         try {
-            Class<?>[] classes = new ClassPathScanner().scanForClasses(location.getPath(), SpringJdbcMigration.class);
-            for (Class<?> clazz : classes) {
-                SpringJdbcMigration springJdbcMigration = (SpringJdbcMigration) ClassUtils.instantiate(clazz.getName());
-
+            List<SpringJdbcMigration> springJdbcMigrations = classPathScanner.scanForInstances(location.getPath(), SpringJdbcMigration.class);
+            for (SpringJdbcMigration springJdbcMigration : springJdbcMigrations) {
                 ResolvedMigration migrationInfo = extractMigrationInfo(springJdbcMigration);
-                migrationInfo.setPhysicalLocation(ClassUtils.getLocationOnDisk(clazz));
+                migrationInfo.setPhysicalLocation(ClassUtils.getLocationOnDisk(springJdbcMigration.getClass()));
                 migrationInfo.setExecutor(new SpringJdbcMigrationExecutor(springJdbcMigration));
 
                 migrations.add(migrationInfo);
@@ -15,17 +15,29 @@
  */
 package com.googlecode.flyway.core.resolver.sql;
 
+import com.googlecode.flyway.core.api.FlywayException;
 import com.googlecode.flyway.core.dbsupport.DbSupport;
 import com.googlecode.flyway.core.dbsupport.SqlScript;
+import com.googlecode.flyway.core.dbsupport.SqlStatement;
 import com.googlecode.flyway.core.resolver.MigrationExecutor;
 import com.googlecode.flyway.core.dbsupport.JdbcTemplate;
+import com.googlecode.flyway.core.util.FileCopyUtils;
 import com.googlecode.flyway.core.util.PlaceholderReplacer;
 import com.googlecode.flyway.core.util.Resource;
+import com.googlecode.flyway.core.util.logging.Log;
+import com.googlecode.flyway.core.util.logging.LogFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.util.List;
 
 /**
  * Database migration based on a sql file.
  */
 public class SqlMigrationExecutor implements MigrationExecutor {
+    private static final Log LOG = LogFactory.getLog(SqlMigrationExecutor.class);
+
     /**
      * The placeholder replacer to apply to sql migration scripts.
      */
@@ -38,28 +50,93 @@ public class SqlMigrationExecutor implements MigrationExecutor {
      */
     private final Resource sqlScriptResource;
 
+    /**
+     * The checksum of the sql script, used to look it up in the {@link SqlScriptCache}.
+     */
+    private final int checksum;
+
     /**
      * The encoding of the sql script.
      */
     private final String encoding;
 
+    /**
+     * The maximum number of consecutive data manipulation statements to execute as a single batch.
+     */
+    private final int batchSize;
+
     /**
      * Creates a new sql script migration based on this sql script.
      *
      * @param sqlScriptResource   The resource containing the sql script.
+     * @param checksum            The checksum of the sql script.
      * @param placeholderReplacer The placeholder replacer to apply to sql migration scripts.
      * @param encoding            The encoding of this Sql migration.
+     * @param batchSize           The maximum number of consecutive data manipulation statements to execute as a single
+     *                            batch. 0 or 1 to execute every statement on its own.
      */
-    public SqlMigrationExecutor(Resource sqlScriptResource, PlaceholderReplacer placeholderReplacer, String encoding) {
+    public SqlMigrationExecutor(Resource sqlScriptResource, int checksum, PlaceholderReplacer placeholderReplacer, String encoding, int batchSize) {
         this.sqlScriptResource = sqlScriptResource;
+        this.checksum = checksum;
         this.encoding = encoding;
         this.placeholderReplacer = placeholderReplacer;
+        this.batchSize = batchSize;
     }
 
     public void execute(JdbcTemplate jdbcTemplate, DbSupport dbSupport) {
-        String sqlScriptSource = sqlScriptResource.loadAsString(encoding);
-        String sqlScriptSourceNoPlaceholders = placeholderReplacer.replacePlaceholders(sqlScriptSource);
-        SqlScript sqlScript = new SqlScript(sqlScriptSourceNoPlaceholders, dbSupport);
-        sqlScript.execute(jdbcTemplate);
+        List<SqlStatement> sqlStatements = loadSqlStatements(dbSupport);
+        if (sqlStatements != null) {
+            SqlScript sqlScript = new SqlScript(sqlStatements, dbSupport);
+            sqlScript.setBatchSize(batchSize);
+            sqlScript.execute(jdbcTemplate);
+            return;
+        }
+
+        Reader sqlScriptReader = sqlScriptResource.loadAsReader(encoding);
+        try {
+            SqlScript sqlScript = new SqlScript(sqlScriptReader, placeholderReplacer, dbSupport);
+            sqlScript.setBatchSize(batchSize);
+            sqlScript.execute(jdbcTemplate);
+        } finally {
+            try {
+                sqlScriptReader.close();
+            } catch (IOException e) {
+                LOG.warn("Unable to close sql script " + sqlScriptResource.getLocation() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Loads the parsed statements of the sql script from the {@link SqlScriptCache}, parsing and caching them if only
+     * the raw contents of the script are cached.
+     *
+     * @param dbSupport The database-specific support.
+     * @return The parsed statements, or {@code null} if the script is not cached and must be streamed instead.
+     */
+    private List<SqlStatement> loadSqlStatements(DbSupport dbSupport) {
+        SqlScriptCache sqlScriptCache = SqlScriptCache.getInstance();
+        String location = sqlScriptResource.getLocation();
+        String dbType = dbSupport.getClass().getName();
+
+        List<SqlStatement> sqlStatements =
+                sqlScriptCache.getStatements(location, checksum, encoding, placeholderReplacer, dbType);
+        if (sqlStatements != null) {
+            return sqlStatements;
+        }
+
+        byte[] bytes = sqlScriptCache.getBytes(location, checksum);
+        if (bytes == null) {
+            return null;
+        }
+
+        String sqlScriptSource;
+        try {
+            sqlScriptSource = FileCopyUtils.stripBom(new String(bytes, encoding));
+        } catch (UnsupportedEncodingException e) {
+            throw new FlywayException("Unable to load sql script " + location + " (encoding: " + encoding + ")", e);
+        }
+        sqlStatements = new SqlScript(sqlScriptSource, placeholderReplacer, dbSupport).getSqlStatements();
+        sqlScriptCache.putStatements(location, checksum, encoding, placeholderReplacer, dbType, sqlStatements);
+        return sqlStatements;
     }
 }
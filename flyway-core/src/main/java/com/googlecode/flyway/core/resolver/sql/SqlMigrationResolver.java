@@ -64,6 +64,16 @@ public class SqlMigrationResolver implements MigrationResolver {
      */
     private final String sqlMigrationSuffix;
 
+    /**
+     * The maximum number of consecutive data manipulation statements of a sql migration to execute as a single batch.
+     */
+    private final int sqlBatchSize;
+
+    /**
+     * The scanner to use to find the resources at the location, if it is on the classpath.
+     */
+    private final ClassPathScanner classPathScanner;
+
     /**
      * Creates a new instance.
      *
@@ -72,13 +82,35 @@ public class SqlMigrationResolver implements MigrationResolver {
      * @param encoding            The encoding of Sql migrations.
      * @param sqlMigrationPrefix  The prefix for sql migrations
      * @param sqlMigrationSuffix  The suffix for sql migrations
+     * @param sqlBatchSize        The maximum number of consecutive data manipulation statements of a sql migration to
+     *                            execute as a single batch. 0 or 1 to execute every statement on its own.
      */
-    public SqlMigrationResolver(Location location, PlaceholderReplacer placeholderReplacer, String encoding, String sqlMigrationPrefix, String sqlMigrationSuffix) {
+    public SqlMigrationResolver(Location location, PlaceholderReplacer placeholderReplacer, String encoding, String sqlMigrationPrefix, String sqlMigrationSuffix, int sqlBatchSize) {
+        this(location, new ClassPathScanner(), placeholderReplacer, encoding, sqlMigrationPrefix, sqlMigrationSuffix, sqlBatchSize);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param location            The location on the classpath where to migrations are located.
+     * @param classPathScanner    The scanner to use to find the resources at the location, if it is on the classpath.
+     *                            It can be shared with other resolvers for the same location, so the location is only
+     *                            scanned once.
+     * @param placeholderReplacer The placeholder replacer to apply to sql migration scripts.
+     * @param encoding            The encoding of Sql migrations.
+     * @param sqlMigrationPrefix  The prefix for sql migrations
+     * @param sqlMigrationSuffix  The suffix for sql migrations
+     * @param sqlBatchSize        The maximum number of consecutive data manipulation statements of a sql migration to
+     *                            execute as a single batch. 0 or 1 to execute every statement on its own.
+     */
+    public SqlMigrationResolver(Location location, ClassPathScanner classPathScanner, PlaceholderReplacer placeholderReplacer, String encoding, String sqlMigrationPrefix, String sqlMigrationSuffix, int sqlBatchSize) {
         this.location = location;
+        this.classPathScanner = classPathScanner;
         this.placeholderReplacer = placeholderReplacer;
         this.encoding = encoding;
         this.sqlMigrationPrefix = sqlMigrationPrefix;
         this.sqlMigrationSuffix = sqlMigrationSuffix;
+        this.sqlBatchSize = sqlBatchSize;
     }
 
     public List<ResolvedMigration> resolveMigrations() {
@@ -88,7 +120,7 @@ public class SqlMigrationResolver implements MigrationResolver {
         try {
             if (location.isClassPath()) {
                 resources =
-                        new ClassPathScanner().scanForResources(location.getPath(), sqlMigrationPrefix, sqlMigrationSuffix);
+                        classPathScanner.scanForResources(location.getPath(), sqlMigrationPrefix, sqlMigrationSuffix);
             } else if (location.isFileSystem()) {
                 resources =
                         new FileSystemScanner().scanForResources(location.getPath(), sqlMigrationPrefix, sqlMigrationSuffix);
@@ -97,7 +129,8 @@ public class SqlMigrationResolver implements MigrationResolver {
             for (Resource resource : resources) {
                 ResolvedMigration resolvedMigration = extractMigrationInfo(resource);
                 resolvedMigration.setPhysicalLocation(resource.getLocationOnDisk());
-                resolvedMigration.setExecutor(new SqlMigrationExecutor(resource, placeholderReplacer, encoding));
+                resolvedMigration.setExecutor(new SqlMigrationExecutor(resource, resolvedMigration.getChecksum(),
+                        placeholderReplacer, encoding, sqlBatchSize));
 
                 migrations.add(resolvedMigration);
             }
@@ -125,7 +158,20 @@ public class SqlMigrationResolver implements MigrationResolver {
 
         migration.setScript(extractScriptName(resource));
 
-        migration.setChecksum(calculateChecksum(resource.loadAsBytes()));
+        // The checksum is known from the migration index generated at build time, if any. No need to read the script.
+        Integer checksum = location.isClassPath() ? classPathScanner.findIndexedChecksum(resource.getLocation()) : null;
+        if (checksum == null) {
+            byte[] bytes = resource.loadAsBytes();
+            checksum = calculateChecksum(bytes);
+
+            // Spare the executor from loading the script again.
+            SqlScriptCache sqlScriptCache = SqlScriptCache.getInstance();
+            if (sqlScriptCache.isCacheable(bytes.length)) {
+                sqlScriptCache.putBytes(resource.getLocation(), checksum, bytes);
+            }
+        }
+        migration.setChecksum(checksum);
+
         migration.setType(MigrationType.SQL);
         return migration;
     }
@@ -171,7 +217,7 @@ public class SqlMigrationResolver implements MigrationResolver {
      * @param bytes The bytes to calculate the checksum for.
      * @return The crc-32 checksum of the bytes.
      */
-    private static int calculateChecksum(byte[] bytes) {
+    public static int calculateChecksum(byte[] bytes) {
         final CRC32 crc32 = new CRC32();
         crc32.update(bytes);
         return (int) crc32.getValue();
@@ -0,0 +1,320 @@
+/**
+ * Copyright (C) 2010-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.resolver.sql;
+
+import com.googlecode.flyway.core.dbsupport.SqlStatement;
+import com.googlecode.flyway.core.util.PlaceholderReplacer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Bounded cache of the contents of sql migrations, shared by resolution and execution. Resolution stores the raw bytes
+ * of each script it checksums, so execution doesn't have to load them again. Execution stores the parsed statements,
+ * so executing the same script again (against another schema or after a clean) doesn't have to parse it again.
+ *
+ * <p>Entries are keyed by the location and the checksum of the script, so a script that changed on disk is never
+ * served from the cache. Parsed statements are additionally keyed by everything that influences the parsing: the
+ * encoding, the placeholders and the database type.</p>
+ *
+ * <p>The cache is bounded by the approximate number of bytes it holds. The least recently used entries are evicted
+ * first and scripts that are too large to be cached are simply streamed as before. A maximum of 0 disables the cache
+ * entirely.</p>
+ */
+public class SqlScriptCache {
+    /**
+     * The default maximum number of bytes held by the process-wide cache.
+     */
+    public static final int DEFAULT_MAX_WEIGHT = 16 * 1024 * 1024;
+
+    /**
+     * The approximate number of bytes used by a statement in addition to its sql.
+     */
+    private static final int STATEMENT_OVERHEAD = 64;
+
+    /**
+     * The process-wide instance.
+     */
+    private static final SqlScriptCache INSTANCE = new SqlScriptCache(DEFAULT_MAX_WEIGHT);
+
+    /**
+     * The maximum number of bytes held by this cache. 0 if it is disabled.
+     */
+    private long maxWeight;
+
+    /**
+     * The cached entries and their weight, least recently used first.
+     */
+    private final LinkedHashMap<List<Object>, Entry> entries = new LinkedHashMap<List<Object>, Entry>(16, 0.75f, true);
+
+    /**
+     * The total weight of the cached entries.
+     */
+    private long weight;
+
+    /**
+     * The number of times an entry was found in this cache.
+     */
+    private int hits;
+
+    /**
+     * The number of times an entry was not found in this cache.
+     */
+    private int misses;
+
+    /**
+     * Creates a new, empty cache.
+     *
+     * @param maxWeight The maximum number of bytes held by this cache. 0 to disable it.
+     */
+    /* private -> for testing */
+    SqlScriptCache(long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * @return The process-wide cache.
+     */
+    public static SqlScriptCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Sets the maximum number of bytes held by this cache, evicting the least recently used entries as needed to stay
+     * within it.
+     *
+     * @param maxWeight The maximum number of bytes held by this cache. 0 to disable it and release all its entries.
+     */
+    public synchronized void setMaxWeight(long maxWeight) {
+        this.maxWeight = maxWeight;
+        evict();
+    }
+
+    /**
+     * Checks whether a script of this size is small enough to be cached. Larger scripts would evict too much of the
+     * cache for too little benefit.
+     *
+     * @param size The size of the script in bytes.
+     * @return {@code true} if it is, {@code false} if not or if the cache is disabled.
+     */
+    public synchronized boolean isCacheable(long size) {
+        return (maxWeight > 0) && (size <= maxWeight / 8);
+    }
+
+    /**
+     * Stores the raw contents of this script.
+     *
+     * @param location The location of the script.
+     * @param checksum The checksum of the contents.
+     * @param bytes    The contents of the script.
+     */
+    public synchronized void putBytes(String location, int checksum, byte[] bytes) {
+        put(bytesKey(location, checksum), new Entry(bytes, bytes.length));
+    }
+
+    /**
+     * Retrieves the raw contents of this script.
+     *
+     * @param location The location of the script.
+     * @param checksum The checksum of the contents.
+     * @return The contents of the script, or {@code null} if they are not cached.
+     */
+    public synchronized byte[] getBytes(String location, int checksum) {
+        return (byte[]) get(bytesKey(location, checksum));
+    }
+
+    /**
+     * Stores the parsed statements of this script. The raw contents of the script are evicted, as they are no longer
+     * needed to execute it.
+     *
+     * @param location            The location of the script.
+     * @param checksum            The checksum of the contents.
+     * @param encoding            The encoding used to read the script.
+     * @param placeholderReplacer The placeholder replacer applied to the script.
+     * @param dbType              The type of database the script was parsed for.
+     * @param sqlStatements       The parsed statements.
+     */
+    public synchronized void putStatements(String location, int checksum, String encoding,
+                                           PlaceholderReplacer placeholderReplacer, String dbType,
+                                           List<SqlStatement> sqlStatements) {
+        remove(bytesKey(location, checksum));
+
+        long statementsWeight = 0;
+        for (SqlStatement sqlStatement : sqlStatements) {
+            statementsWeight += STATEMENT_OVERHEAD + 2 * sqlStatement.getSql().length();
+        }
+        put(statementsKey(location, checksum, encoding, placeholderReplacer, dbType),
+                new Entry(Collections.unmodifiableList(sqlStatements), statementsWeight));
+    }
+
+    /**
+     * Retrieves the parsed statements of this script.
+     *
+     * @param location            The location of the script.
+     * @param checksum            The checksum of the contents.
+     * @param encoding            The encoding used to read the script.
+     * @param placeholderReplacer The placeholder replacer applied to the script.
+     * @param dbType              The type of database the script was parsed for.
+     * @return The parsed statements, or {@code null} if they are not cached.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized List<SqlStatement> getStatements(String location, int checksum, String encoding,
+                                                         PlaceholderReplacer placeholderReplacer, String dbType) {
+        return (List<SqlStatement>) get(statementsKey(location, checksum, encoding, placeholderReplacer, dbType));
+    }
+
+    /**
+     * Removes all entries from this cache.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * @return The total weight of the cached entries.
+     */
+    /* private -> for testing */
+    synchronized long getWeight() {
+        return weight;
+    }
+
+    /**
+     * @return The number of times an entry was found in this cache.
+     */
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    /**
+     * @return The number of times an entry was not found in this cache.
+     */
+    public synchronized int getMisses() {
+        return misses;
+    }
+
+    /**
+     * Retrieves the value of this entry.
+     *
+     * @param key The key of the entry.
+     * @return The value, or {@code null} if it is not cached.
+     */
+    private Object get(List<Object> key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    /**
+     * Stores this entry, evicting the least recently used entries as needed to stay within the maximum weight.
+     * Entries that are too heavy are not stored.
+     *
+     * @param key   The key of the entry.
+     * @param entry The entry.
+     */
+    private void put(List<Object> key, Entry entry) {
+        remove(key);
+        if (!isCacheable(entry.weight)) {
+            return;
+        }
+
+        entries.put(key, entry);
+        weight += entry.weight;
+        evict();
+    }
+
+    /**
+     * Evicts the least recently used entries until the total weight is within the maximum weight.
+     */
+    private void evict() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (weight > maxWeight) {
+            weight -= iterator.next().weight;
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Removes this entry, if it is cached.
+     *
+     * @param key The key of the entry.
+     */
+    private void remove(List<Object> key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            weight -= entry.weight;
+        }
+    }
+
+    /**
+     * Creates the key for the raw contents of this script.
+     *
+     * @param location The location of the script.
+     * @param checksum The checksum of the contents.
+     * @return The key.
+     */
+    private static List<Object> bytesKey(String location, int checksum) {
+        return Arrays.<Object>asList(location, checksum);
+    }
+
+    /**
+     * Creates the key for the parsed statements of this script.
+     *
+     * @param location            The location of the script.
+     * @param checksum            The checksum of the contents.
+     * @param encoding            The encoding used to read the script.
+     * @param placeholderReplacer The placeholder replacer applied to the script.
+     * @param dbType              The type of database the script was parsed for.
+     * @return The key.
+     */
+    private static List<Object> statementsKey(String location, int checksum, String encoding,
+                                              PlaceholderReplacer placeholderReplacer, String dbType) {
+        return Arrays.<Object>asList(location, checksum, encoding, placeholderReplacer, dbType);
+    }
+
+    /**
+     * A cached value with its weight.
+     */
+    private static class Entry {
+        /**
+         * The cached value.
+         */
+        private final Object value;
+
+        /**
+         * The approximate number of bytes used by the value.
+         */
+        private final long weight;
+
+        /**
+         * Creates a new entry.
+         *
+         * @param value  The cached value.
+         * @param weight The approximate number of bytes used by the value.
+         */
+        Entry(Object value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
@@ -88,6 +88,18 @@ public class ClassPathResource implements Comparable<ClassPathResource>, Resourc
         }
     }
 
+    public Reader loadAsReader(String encoding) {
+        InputStream inputStream = getClassLoader().getResourceAsStream(location);
+        if (inputStream == null) {
+            throw new FlywayException("Unable to obtain inputstream for resource: " + location);
+        }
+        try {
+            return FileCopyUtils.skipBom(new InputStreamReader(inputStream, Charset.forName(encoding)));
+        } catch (IOException e) {
+            throw new FlywayException("Unable to load resource: " + location + " (encoding: " + encoding + ")", e);
+        }
+    }
+
     public byte[] loadAsBytes() {
         try {
             InputStream inputStream = getClassLoader().getResourceAsStream(location);
@@ -19,6 +19,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.PushbackReader;
 import java.io.Reader;
 import java.io.StringWriter;
 import java.io.Writer;
@@ -45,9 +46,16 @@ public class FileCopyUtils {
     public static String copyToString(Reader in) throws IOException {
         StringWriter out = new StringWriter();
         copy(in, out);
-        String str = out.toString();
+        return stripBom(out.toString());
+    }
 
-        //Strip UTF-8 BOM if necessary
+    /**
+     * Strips the UTF-8 BOM from the start of the given String, if it has one.
+     *
+     * @param str the String to strip the BOM from
+     * @return the String without BOM
+     */
+    public static String stripBom(String str) {
         if (str.startsWith("\ufeff")) {
             return str.substring(1);
         }
@@ -55,6 +63,23 @@ public class FileCopyUtils {
         return str;
     }
 
+    /**
+     * Wraps the given Reader so that a leading UTF-8 BOM is skipped, the same way {@link #copyToString(Reader)} strips
+     * it.
+     *
+     * @param in the reader to wrap
+     * @return the reader, positioned after the BOM if there was one
+     * @throws IOException in case of I/O errors
+     */
+    public static Reader skipBom(Reader in) throws IOException {
+        PushbackReader reader = new PushbackReader(in);
+        int first = reader.read();
+        if ((first != -1) && (first != '\ufeff')) {
+            reader.unread(first);
+        }
+        return reader;
+    }
+
     /**
      * Copy the contents of the given InputStream into a new byte array.
      * Closes the stream when done.
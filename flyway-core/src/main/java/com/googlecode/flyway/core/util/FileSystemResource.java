@@ -80,6 +80,20 @@ public class FileSystemResource implements Resource, Comparable<FileSystemResour
         }
     }
 
+    /**
+     * Opens this resource for reading its contents as a stream of characters.
+     *
+     * @param encoding The encoding to use.
+     * @return The reader for the contents of the resource.
+     */
+    public Reader loadAsReader(String encoding) {
+        try {
+            return FileCopyUtils.skipBom(new InputStreamReader(new FileInputStream(location), Charset.forName(encoding)));
+        } catch (IOException e) {
+            throw new FlywayException("Unable to load filesystem resource: " + location.getPath() + " (encoding: " + encoding + ")", e);
+        }
+    }
+
     /**
      * Loads this resource as a byte array.
      *
@@ -15,6 +15,8 @@
  */
 package com.googlecode.flyway.core.util;
 
+import com.googlecode.flyway.core.api.FlywayException;
+
 import java.util.HashMap;
 import java.util.Map;
 
@@ -28,7 +30,8 @@ public class PlaceholderReplacer {
     public static final PlaceholderReplacer NO_PLACEHOLDERS = new PlaceholderReplacer(new HashMap<String, String>(), "", "");
 
     /**
-     * A map of <placeholder, replacementValue> to apply to sql migration scripts.
+     * A map of <placeholder, replacementValue> to apply to sql migration scripts. This is a copy of the map passed
+     * in, so that equals and hashCode remain stable when this replacer is used as a cache key.
      */
     private final Map<String, String> placeholders;
 
@@ -43,31 +46,131 @@ public class PlaceholderReplacer {
     private final String placeholderSuffix;
 
     /**
-     * Creates a new PlaceholderReplacer.
+     * Whether to fail when a placeholder without a value is encountered, instead of leaving it untouched.
+     */
+    private final boolean failOnUnresolvedPlaceholders;
+
+    /**
+     * Creates a new PlaceholderReplacer that leaves placeholders without a value untouched.
      *
      * @param placeholders      A map of <placeholder, replacementValue> to apply to sql migration scripts.
      * @param placeholderPrefix The prefix of every placeholder. Usually ${
      * @param placeholderSuffix The suffix of every placeholder. Usually }
      */
     public PlaceholderReplacer(Map<String, String> placeholders, String placeholderPrefix, String placeholderSuffix) {
-        this.placeholders = placeholders;
+        this(placeholders, placeholderPrefix, placeholderSuffix, false);
+    }
+
+    /**
+     * Creates a new PlaceholderReplacer.
+     *
+     * @param placeholders                 A map of <placeholder, replacementValue> to apply to sql migration scripts.
+     * @param placeholderPrefix            The prefix of every placeholder. Usually ${
+     * @param placeholderSuffix            The suffix of every placeholder. Usually }
+     * @param failOnUnresolvedPlaceholders Whether to fail when a placeholder without a value is encountered, instead of
+     *                                     leaving it untouched.
+     */
+    public PlaceholderReplacer(Map<String, String> placeholders, String placeholderPrefix, String placeholderSuffix,
+                               boolean failOnUnresolvedPlaceholders) {
+        this.placeholders = new HashMap<String, String>(placeholders);
         this.placeholderPrefix = placeholderPrefix;
         this.placeholderSuffix = placeholderSuffix;
+        this.failOnUnresolvedPlaceholders = failOnUnresolvedPlaceholders;
+    }
+
+    /**
+     * Replaces the placeholders in this input string with their corresponding values. The input is scanned only once,
+     * regardless of the number of placeholders, and replacement values are never scanned for placeholders themselves.
+     *
+     * @param input The input to process.
+     *
+     * @return The input string with all placeholders replaced.
+     * @throws FlywayException when a placeholder without a value is encountered and failOnUnresolvedPlaceholders is
+     *                         enabled.
+     */
+    public String replacePlaceholders(String input) throws FlywayException {
+        if (placeholders.isEmpty() && !failOnUnresolvedPlaceholders) {
+            return input;
+        }
+        if (!StringUtils.hasLength(placeholderPrefix) || !StringUtils.hasLength(placeholderSuffix)) {
+            // Without both delimiters, placeholders can't be recognized in a single scan.
+            return replaceEachPlaceholder(input);
+        }
+
+        int prefixPos = input.indexOf(placeholderPrefix);
+        if (prefixPos < 0) {
+            return input;
+        }
+
+        StringBuilder result = new StringBuilder(input.length());
+        int copiedUpTo = 0;
+        while (prefixPos >= 0) {
+            int keyStart = prefixPos + placeholderPrefix.length();
+            int suffixPos = input.indexOf(placeholderSuffix, keyStart);
+            if (suffixPos < 0) {
+                break;
+            }
+
+            String key = input.substring(keyStart, suffixPos);
+            String value = placeholders.get(key);
+            if (value == null) {
+                if (failOnUnresolvedPlaceholders && !key.contains(placeholderPrefix)) {
+                    throw new FlywayException("No value provided for placeholder: "
+                            + input.substring(prefixPos, suffixPos + placeholderSuffix.length()));
+                }
+                // Not a known placeholder. Continue right after the prefix, as a known one may still be nested inside.
+                prefixPos = input.indexOf(placeholderPrefix, keyStart);
+                continue;
+            }
+
+            result.append(input, copiedUpTo, prefixPos).append(value);
+            copiedUpTo = suffixPos + placeholderSuffix.length();
+            prefixPos = input.indexOf(placeholderPrefix, copiedUpTo);
+        }
+
+        if (copiedUpTo == 0) {
+            return input;
+        }
+        result.append(input, copiedUpTo, input.length());
+        return result.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        PlaceholderReplacer that = (PlaceholderReplacer) o;
+
+        if (failOnUnresolvedPlaceholders != that.failOnUnresolvedPlaceholders) return false;
+        if (!placeholderPrefix.equals(that.placeholderPrefix)) return false;
+        if (!placeholderSuffix.equals(that.placeholderSuffix)) return false;
+        return placeholders.equals(that.placeholders);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = placeholders.hashCode();
+        result = 31 * result + placeholderPrefix.hashCode();
+        result = 31 * result + placeholderSuffix.hashCode();
+        result = 31 * result + (failOnUnresolvedPlaceholders ? 1 : 0);
+        return result;
     }
 
     /**
-     * Replaces the placeholders in this input string with their corresponding values.
+     * Replaces the placeholders in this input string with their corresponding values, by searching the input once per
+     * placeholder.
      *
      * @param input The input to process.
      *
      * @return The input string with all placeholders replaced.
      */
-    public String replacePlaceholders(String input) {
+    private String replaceEachPlaceholder(String input) {
         String noPlaceholders = input;
 
-        for (String placeholder : placeholders.keySet()) {
-            String searchTerm = placeholderPrefix + placeholder + placeholderSuffix;
-            noPlaceholders = StringUtils.replaceAll(noPlaceholders, searchTerm, placeholders.get(placeholder));
+        for (Map.Entry<String, String> placeholder : placeholders.entrySet()) {
+            String searchTerm = placeholderPrefix + placeholder.getKey() + placeholderSuffix;
+            noPlaceholders = StringUtils.replaceAll(noPlaceholders, searchTerm, placeholder.getValue());
         }
 
         return noPlaceholders;
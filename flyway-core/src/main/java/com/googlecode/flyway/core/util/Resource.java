@@ -15,6 +15,8 @@
  */
 package com.googlecode.flyway.core.util;
 
+import java.io.Reader;
+
 /**
  * A loadable resource.
  */
@@ -39,6 +41,15 @@ public interface Resource {
      */
     String loadAsString(String encoding);
 
+    /**
+     * Opens this resource for reading its contents as a stream of characters, without loading it fully in memory.
+     * The caller is responsible for closing the reader.
+     *
+     * @param encoding The encoding to use.
+     * @return The reader for the contents of the resource.
+     */
+    Reader loadAsReader(String encoding);
+
     /**
      * Loads this resource as a byte array.
      *
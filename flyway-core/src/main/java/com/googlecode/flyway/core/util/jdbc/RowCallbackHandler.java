@@ -0,0 +1,31 @@
+/**
+ * Copyright (C) 2010-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.util.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Callback for processing the rows of a ResultSet one at a time, without collecting them first.
+ */
+public interface RowCallbackHandler {
+    /**
+     * Processes the current row in this resultSet. Implementations must not move the cursor.
+     * @param rs The resultset.
+     * @throws SQLException when reading the resultset failed.
+     */
+    void processRow(final ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,214 @@
+/**
+ * Copyright (C) 2010-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.util.scanner.classpath;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The header of a class file: its access flags, its name, the name of its superclass and the names of the interfaces
+ * it directly implements. It is read straight from the bytes of the class file, without loading the class.
+ *
+ * <p>All names are internal names, using slashes as package separators (ex.: java/lang/Object).</p>
+ */
+class ClassFileHeader {
+    /**
+     * The magic number every class file starts with.
+     */
+    private static final int MAGIC = 0xCAFEBABE;
+
+    /**
+     * Access flag of interfaces.
+     */
+    private static final int ACC_INTERFACE = 0x0200;
+
+    /**
+     * Access flag of abstract classes and interfaces.
+     */
+    private static final int ACC_ABSTRACT = 0x0400;
+
+    /**
+     * The access flags of the class.
+     */
+    private final int accessFlags;
+
+    /**
+     * The internal name of the class.
+     */
+    private final String className;
+
+    /**
+     * The internal name of the superclass. {@code null} for java/lang/Object.
+     */
+    private final String superClassName;
+
+    /**
+     * The internal names of the interfaces directly implemented by the class.
+     */
+    private final String[] interfaceNames;
+
+    /**
+     * Creates a new class file header.
+     *
+     * @param accessFlags    The access flags of the class.
+     * @param className      The internal name of the class.
+     * @param superClassName The internal name of the superclass. {@code null} for java/lang/Object.
+     * @param interfaceNames The internal names of the interfaces directly implemented by the class.
+     */
+    ClassFileHeader(int accessFlags, String className, String superClassName, String[] interfaceNames) {
+        this.accessFlags = accessFlags;
+        this.className = className;
+        this.superClassName = superClassName;
+        this.interfaceNames = interfaceNames;
+    }
+
+    /**
+     * @return The internal name of the class.
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * @return The internal name of the superclass. {@code null} for java/lang/Object.
+     */
+    public String getSuperClassName() {
+        return superClassName;
+    }
+
+    /**
+     * @return The internal names of the interfaces directly implemented by the class.
+     */
+    public String[] getInterfaceNames() {
+        return interfaceNames;
+    }
+
+    /**
+     * @return {@code true} if this is a class that can be instantiated, {@code false} if it is abstract or an
+     *         interface.
+     */
+    public boolean isConcrete() {
+        return (accessFlags & (ACC_ABSTRACT | ACC_INTERFACE)) == 0;
+    }
+
+    /**
+     * Reads the header of the class file in this stream. Only the constant pool and the header are read, the fields,
+     * methods and attributes are skipped. The stream is left open.
+     *
+     * @param inputStream The stream of the class file.
+     * @return The header.
+     * @throws IOException when the stream could not be read or doesn't contain a valid class file.
+     */
+    public static ClassFileHeader read(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        in.readUnsignedShort(); // minor version
+        in.readUnsignedShort(); // major version
+
+        int constantPoolCount = in.readUnsignedShort();
+        String[] utf8Constants = new String[constantPoolCount];
+        int[] classConstants = new int[constantPoolCount];
+
+        for (int i = 1; i < constantPoolCount; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1: // Utf8
+                    utf8Constants[i] = in.readUTF();
+                    break;
+                case 7: // Class
+                    classConstants[i] = in.readUnsignedShort();
+                    break;
+                case 8: // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    skipFully(in, 2);
+                    break;
+                case 15: // MethodHandle
+                    skipFully(in, 3);
+                    break;
+                case 3: // Integer
+                case 4: // Float
+                case 9: // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    skipFully(in, 4);
+                    break;
+                case 5: // Long
+                case 6: // Double
+                    skipFully(in, 8);
+                    // 8-byte constants take up two entries in the constant pool
+                    i++;
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag: " + tag);
+            }
+        }
+
+        int accessFlags = in.readUnsignedShort();
+        String className = resolveClassName(in.readUnsignedShort(), utf8Constants, classConstants);
+        String superClassName = resolveClassName(in.readUnsignedShort(), utf8Constants, classConstants);
+
+        int interfacesCount = in.readUnsignedShort();
+        String[] interfaceNames = new String[interfacesCount];
+        for (int i = 0; i < interfacesCount; i++) {
+            interfaceNames[i] = resolveClassName(in.readUnsignedShort(), utf8Constants, classConstants);
+        }
+
+        return new ClassFileHeader(accessFlags, className, superClassName, interfaceNames);
+    }
+
+    /**
+     * Resolves the class name referenced by this constant pool index.
+     *
+     * @param index          The index of the Class constant. 0 for none.
+     * @param utf8Constants  The Utf8 constants of the constant pool.
+     * @param classConstants The name indexes of the Class constants of the constant pool.
+     * @return The internal class name. {@code null} for index 0.
+     * @throws IOException when the index doesn't reference a valid Class constant.
+     */
+    private static String resolveClassName(int index, String[] utf8Constants, int[] classConstants) throws IOException {
+        if (index == 0) {
+            return null;
+        }
+
+        if (index >= classConstants.length || utf8Constants[classConstants[index]] == null) {
+            throw new IOException("Invalid class reference in constant pool: " + index);
+        }
+        return utf8Constants[classConstants[index]];
+    }
+
+    /**
+     * Skips exactly this number of bytes.
+     *
+     * @param in    The stream to skip the bytes of.
+     * @param bytes The number of bytes to skip.
+     * @throws IOException when the end of the stream was reached.
+     */
+    private static void skipFully(DataInputStream in, int bytes) throws IOException {
+        if (in.skipBytes(bytes) != bytes) {
+            throw new IOException("Unexpected end of class file");
+        }
+    }
+}
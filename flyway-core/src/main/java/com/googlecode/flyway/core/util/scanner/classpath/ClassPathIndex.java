@@ -0,0 +1,294 @@
+/**
+ * Copyright (C) 2010-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.util.scanner.classpath;
+
+import com.googlecode.flyway.core.util.logging.Log;
+import com.googlecode.flyway.core.util.logging.LogFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+
+/**
+ * Index of the resources below the migration locations of the classpath roots (jars) containing a
+ * {@code META-INF/flyway/index} file. These files are generated at build time by
+ * {@link com.googlecode.flyway.core.resolver.MigrationIndexGenerator}, so that the resources can be found at runtime
+ * without scanning the jars.
+ *
+ * <p>The index file is a UTF-8 text file with one tab-separated entry per line:</p>
+ * <pre>
+ * location	db/migration
+ * resource	db/migration/V1__First.sql	-1502234113	1	First
+ * resource	db/migration/V2__Second.class
+ * </pre>
+ * <p>Sql migrations are listed with their checksum, version and description. Other resources only with their name.
+ * Empty lines and lines starting with # are ignored.</p>
+ *
+ * <p>Index files in directories (as opposed to jars) are ignored, as the contents of a directory may have changed
+ * since the index was generated. Classpath roots without an index are scanned as usual.</p>
+ */
+public class ClassPathIndex {
+    private static final Log LOG = LogFactory.getLog(ClassPathIndex.class);
+
+    /**
+     * The name of the index file within a classpath root.
+     */
+    public static final String INDEX_RESOURCE = "META-INF/flyway/index";
+
+    /**
+     * The loaded indexes, by classloader.
+     */
+    private static final Map<ClassLoader, ClassPathIndex> INSTANCES = new WeakHashMap<ClassLoader, ClassPathIndex>();
+
+    /**
+     * The indexed classpath roots, by url (ending with a slash).
+     */
+    private final Map<String, IndexedRoot> indexedRoots;
+
+    /**
+     * Creates a new ClassPathIndex.
+     *
+     * @param indexedRoots The indexed classpath roots, by url (ending with a slash).
+     */
+    private ClassPathIndex(Map<String, IndexedRoot> indexedRoots) {
+        this.indexedRoots = indexedRoots;
+    }
+
+    /**
+     * Retrieves the index of the classpath of this classloader, loading it the first time.
+     *
+     * @param classLoader The classloader.
+     * @return The index. Empty if there are no index files on this classpath.
+     */
+    public static ClassPathIndex getInstance(ClassLoader classLoader) {
+        synchronized (INSTANCES) {
+            ClassPathIndex classPathIndex = INSTANCES.get(classLoader);
+            if (classPathIndex == null) {
+                classPathIndex = load(classLoader);
+                INSTANCES.put(classLoader, classPathIndex);
+            }
+            return classPathIndex;
+        }
+    }
+
+    /**
+     * Loads all the index files on the classpath of this classloader.
+     *
+     * @param classLoader The classloader.
+     * @return The index.
+     */
+    private static ClassPathIndex load(ClassLoader classLoader) {
+        Map<String, IndexedRoot> indexedRoots = new HashMap<String, IndexedRoot>();
+
+        Enumeration<URL> indexUrls;
+        try {
+            indexUrls = classLoader.getResources(INDEX_RESOURCE);
+        } catch (IOException e) {
+            LOG.warn("Unable to look up migration indexes, scanning instead: " + e.getMessage());
+            return new ClassPathIndex(indexedRoots);
+        }
+
+        while (indexUrls.hasMoreElements()) {
+            URL indexUrl = indexUrls.nextElement();
+            if ("file".equals(indexUrl.getProtocol())) {
+                LOG.debug("Ignoring migration index in directory, as it may be out of date: " + indexUrl);
+                continue;
+            }
+
+            String root = getRoot(indexUrl, INDEX_RESOURCE);
+            try {
+                indexedRoots.put(root, read(indexUrl));
+                LOG.debug("Loaded migration index: " + indexUrl);
+            } catch (Exception e) {
+                LOG.warn("Unable to read migration index " + indexUrl + ", scanning instead: " + e.getMessage());
+            }
+        }
+
+        return new ClassPathIndex(indexedRoots);
+    }
+
+    /**
+     * Reads this index file.
+     *
+     * @param indexUrl The url of the index file.
+     * @return The indexed root.
+     * @throws IOException when the index file could not be read.
+     */
+    /* private -> for testing */
+    static IndexedRoot read(URL indexUrl) throws IOException {
+        IndexedRoot indexedRoot = new IndexedRoot();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(indexUrl.openStream(), "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if ((line.length() == 0) || line.startsWith("#")) {
+                    continue;
+                }
+
+                String[] fields = line.split("\t");
+                if ("location".equals(fields[0]) && (fields.length == 2)) {
+                    indexedRoot.locations.add(fields[1]);
+                } else if ("resource".equals(fields[0]) && (fields.length == 2)) {
+                    indexedRoot.checksums.put(fields[1], null);
+                } else if ("resource".equals(fields[0]) && (fields.length >= 3)) {
+                    indexedRoot.checksums.put(fields[1], Integer.valueOf(fields[2]));
+                } else {
+                    throw new IOException("Invalid entry: " + line);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        return indexedRoot;
+    }
+
+    /**
+     * Finds the names of the resources below this location of the classpath root of this url.
+     *
+     * @param location    The location on the classpath.
+     * @param locationUrl The url of the location within a classpath root.
+     * @return The resource names, or {@code null} if this location of this classpath root isn't indexed and must be
+     *         scanned.
+     */
+    public Set<String> findResourceNames(String location, URL locationUrl) {
+        IndexedRoot indexedRoot = getIndexedRoot(locationUrl, location);
+        if ((indexedRoot == null) || !indexedRoot.covers(location)) {
+            return null;
+        }
+
+        Set<String> resourceNames = new TreeSet<String>();
+        for (String resourceName : indexedRoot.checksums.tailMap(location).keySet()) {
+            if (!resourceName.startsWith(location)) {
+                break;
+            }
+            resourceNames.add(resourceName);
+        }
+        return resourceNames;
+    }
+
+    /**
+     * Finds the checksum of this resource, as it was computed when the index was generated.
+     *
+     * @param resourceName The name of the resource on the classpath.
+     * @param resourceUrl  The url of the resource within a classpath root.
+     * @return The checksum, or {@code null} if this resource isn't indexed with a checksum.
+     */
+    public Integer findChecksum(String resourceName, URL resourceUrl) {
+        IndexedRoot indexedRoot = getIndexedRoot(resourceUrl, resourceName);
+        if (indexedRoot == null) {
+            return null;
+        }
+        return indexedRoot.checksums.get(resourceName);
+    }
+
+    /**
+     * Retrieves the indexed classpath root of this url.
+     *
+     * @param url  The url of a location or resource within a classpath root.
+     * @param name The name of the location or resource on the classpath.
+     * @return The indexed root, or {@code null} if the classpath root of this url isn't indexed.
+     */
+    private IndexedRoot getIndexedRoot(URL url, String name) {
+        if (indexedRoots.isEmpty()) {
+            return null;
+        }
+
+        String root = getRoot(url, name);
+        if (root == null) {
+            return null;
+        }
+        return indexedRoots.get(root);
+    }
+
+    /**
+     * Determines the url of the classpath root containing this location or resource.
+     *
+     * @param url  The url of the location or resource.
+     * @param name The name of the location or resource on the classpath.
+     * @return The url of the classpath root, ending with a slash. {@code null} if it could not be determined.
+     */
+    /* private -> for testing */
+    static String getRoot(URL url, String name) {
+        String externalForm = stripTrailingSlash(url.toExternalForm());
+        String path = stripTrailingSlash(name);
+        if (path.length() == 0) {
+            return externalForm + "/";
+        }
+
+        if (!externalForm.endsWith("/" + path)) {
+            return null;
+        }
+        return externalForm.substring(0, externalForm.length() - path.length());
+    }
+
+    /**
+     * Strips the trailing slash off this string, if it has one.
+     *
+     * @param str The string.
+     * @return The string without trailing slash.
+     */
+    private static String stripTrailingSlash(String str) {
+        if (str.endsWith("/")) {
+            return str.substring(0, str.length() - 1);
+        }
+        return str;
+    }
+
+    /**
+     * The index of a single classpath root.
+     */
+    /* private -> for testing */
+    static class IndexedRoot {
+        /**
+         * The locations whose resources are all listed in this index.
+         */
+        private final Set<String> locations = new HashSet<String>();
+
+        /**
+         * The checksums of the indexed resources, by resource name. The checksum is {@code null} for resources other
+         * than sql migrations.
+         */
+        private final SortedMap<String, Integer> checksums = new TreeMap<String, Integer>();
+
+        /**
+         * Checks whether all resources below this location are listed in this index.
+         *
+         * @param location The location on the classpath.
+         * @return {@code true} if they are, {@code false} if not.
+         */
+        boolean covers(String location) {
+            for (String indexedLocation : locations) {
+                if ((indexedLocation.length() == 0) || location.equals(indexedLocation)
+                        || location.startsWith(indexedLocation + "/")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
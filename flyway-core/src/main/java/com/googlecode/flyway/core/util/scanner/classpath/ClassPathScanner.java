@@ -28,20 +28,40 @@ import com.googlecode.flyway.core.util.scanner.classpath.jboss.JBossVFSv3ClassPa
 import com.googlecode.flyway.core.util.scanner.classpath.osgi.EquinoxCommonResourceUrlResolver;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Modifier;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
 /**
- * ClassPath scanner.
+ * ClassPath scanner. Each location is only scanned once per scanner instance, so a single scanner can be shared by
+ * everything looking for resources or classes at the same location. Use a new instance to pick up changes.
  */
 public class ClassPathScanner {
     private static final Log LOG = LogFactory.getLog(ClassPathScanner.class);
 
+    /**
+     * The names of all resources found at each location scanned so far.
+     */
+    private final Map<String, Set<String>> resourceNamesCache = new HashMap<String, Set<String>>();
+
+    /**
+     * The class file headers read so far, by resource name. {@code null} for class files that could not be read.
+     */
+    private final Map<String, ClassFileHeader> classFileHeaderCache = new HashMap<String, ClassFileHeader>();
+
+    /**
+     * The instances created so far while checking that the classes found can be instantiated.
+     */
+    private final Map<Class<?>, Object> instanceCache = new HashMap<Class<?>, Object>();
+
     /**
      * Scans the classpath for resources under the specified location, starting with the specified prefix and ending with
      * the specified suffix.
@@ -77,35 +97,138 @@ public class ClassPathScanner {
      * @throws Exception when the location could not be scanned.
      */
     public Class<?>[] scanForClasses(String location, Class<?> implementedInterface) throws Exception {
+        List<?> instances = scanForInstances(location, implementedInterface);
+
+        Class<?>[] classes = new Class<?>[instances.size()];
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = instances.get(i).getClass();
+        }
+        return classes;
+    }
+
+    /**
+     * Scans the classpath for concrete classes under the specified package implementing this interface and returns an
+     * instance of each. Class files are first checked at bytecode level, so only the classes that can implement this
+     * interface are loaded. The instances are the ones created while checking that the classes can be instantiated.
+     *
+     * @param location             The location (package) in the classpath to start scanning.
+     *                             Subpackages are also scanned.
+     * @param implementedInterface The interface the matching classes should implement.
+     * @return One instance of each non-abstract class that was found.
+     * @throws Exception when the location could not be scanned.
+     */
+    public <T> List<T> scanForInstances(String location, Class<T> implementedInterface) throws Exception {
         LOG.debug("Scanning for classes at '" + location + "' (Implementing: '" + implementedInterface.getName() + "')");
 
-        List<Class<?>> classes = new ArrayList<Class<?>>();
+        String interfaceName = implementedInterface.getName().replace(".", "/");
 
-        Set<String> resourceNames = findResourceNames(location, "", ".class");
-        for (String resourceName : resourceNames) {
+        List<T> instances = new ArrayList<T>();
+
+        for (String resourceName : findResourceNames(location, "", ".class")) {
             String className = toClassName(resourceName);
-            Class<?> clazz = getClassLoader().loadClass(className);
 
+            ClassFileHeader header = findClassFileHeader(resourceName);
+            if (header != null) {
+                if (!header.isConcrete()) {
+                    LOG.debug("Skipping abstract class: " + className);
+                    continue;
+                }
+                if (!mayImplement(header.getClassName(), interfaceName, new HashSet<String>())) {
+                    continue;
+                }
+            }
+
+            Class<?> clazz = getClassLoader().loadClass(className);
             if (Modifier.isAbstract(clazz.getModifiers())) {
                 LOG.debug("Skipping abstract class: " + className);
                 continue;
             }
-
             if (!implementedInterface.isAssignableFrom(clazz)) {
                 continue;
             }
 
-            try {
-                ClassUtils.instantiate(className);
-            } catch (Exception e) {
-                throw new FlywayException("Unable to instantiate class: " + className);
+            Object instance = instanceCache.get(clazz);
+            if (instance == null) {
+                try {
+                    instance = ClassUtils.instantiate(className);
+                } catch (Exception e) {
+                    throw new FlywayException("Unable to instantiate class: " + className);
+                }
+                instanceCache.put(clazz, instance);
             }
 
-            classes.add(clazz);
+            instances.add(implementedInterface.cast(instance));
             LOG.debug("Found class: " + className);
         }
 
-        return classes.toArray(new Class<?>[classes.size()]);
+        return instances;
+    }
+
+    /**
+     * Checks at bytecode level whether this class may implement or extend this type. Class files that cannot be read
+     * are assumed to match, so the class is loaded and checked instead.
+     *
+     * @param className The internal name of the class to check.
+     * @param typeName  The internal name of the interface or class to look for.
+     * @param visited   The internal names of the classes and interfaces already checked.
+     * @return {@code true} if the class may implement this type, {@code false} if it definitely does not.
+     */
+    private boolean mayImplement(String className, String typeName, Set<String> visited) {
+        if ((className == null) || !visited.add(className)) {
+            return false;
+        }
+
+        if (className.equals(typeName)) {
+            return true;
+        }
+
+        if (className.startsWith("java/") && !typeName.startsWith("java/")) {
+            // JDK classes don't implement anything outside of the JDK
+            return false;
+        }
+
+        ClassFileHeader header = findClassFileHeader(className + ".class");
+        if (header == null) {
+            return true;
+        }
+
+        for (String interfaceName : header.getInterfaceNames()) {
+            if (mayImplement(interfaceName, typeName, visited)) {
+                return true;
+            }
+        }
+        return mayImplement(header.getSuperClassName(), typeName, visited);
+    }
+
+    /**
+     * Finds the header of the class file with this resource name on the classpath.
+     *
+     * @param resourceName The resource name of the class file.
+     * @return The header or {@code null} if the class file could not be read.
+     */
+    private ClassFileHeader findClassFileHeader(String resourceName) {
+        if (classFileHeaderCache.containsKey(resourceName)) {
+            return classFileHeaderCache.get(resourceName);
+        }
+
+        ClassFileHeader header = null;
+        InputStream inputStream = getClassLoader().getResourceAsStream(resourceName);
+        if (inputStream != null) {
+            try {
+                header = ClassFileHeader.read(inputStream);
+            } catch (IOException e) {
+                LOG.debug("Unable to read class file header of " + resourceName + ": " + e.getMessage());
+            } finally {
+                try {
+                    inputStream.close();
+                } catch (IOException e) {
+                    //Ignore
+                }
+            }
+        }
+
+        classFileHeaderCache.put(resourceName, header);
+        return header;
     }
 
     /**
@@ -130,6 +253,23 @@ public class ClassPathScanner {
      * @throws IOException when scanning this location failed.
      */
     private Set<String> findResourceNames(String path, String prefix, String suffix) throws IOException {
+        Set<String> resourceNames = resourceNamesCache.get(path);
+        if (resourceNames == null) {
+            resourceNames = findAllResourceNames(path);
+            resourceNamesCache.put(path, resourceNames);
+        }
+
+        return filterResourceNames(resourceNames, prefix, suffix);
+    }
+
+    /**
+     * Finds all resources names present at this location and below on the classpath.
+     *
+     * @param path The path on the classpath to scan.
+     * @return The resource names.
+     * @throws IOException when scanning this location failed.
+     */
+    private Set<String> findAllResourceNames(String path) throws IOException {
         Set<String> resourceNames = new TreeSet<String>();
 
         Enumeration<URL> locationsUrls = getClassLoader().getResources(path);
@@ -138,6 +278,14 @@ public class ClassPathScanner {
         }
         while (locationsUrls.hasMoreElements()) {
             URL locationUrl = locationsUrls.nextElement();
+
+            Set<String> indexedResourceNames = getClassPathIndex().findResourceNames(path, locationUrl);
+            if (indexedResourceNames != null) {
+                LOG.debug("Using migration index for URL: " + locationUrl.toExternalForm());
+                resourceNames.addAll(indexedResourceNames);
+                continue;
+            }
+
             LOG.debug("Scanning URL: " + locationUrl.toExternalForm());
 
             UrlResolver urlResolver = createUrlResolver(locationUrl.getProtocol());
@@ -154,7 +302,28 @@ public class ClassPathScanner {
             }
         }
 
-        return filterResourceNames(resourceNames, prefix, suffix);
+        return resourceNames;
+    }
+
+    /**
+     * Finds the checksum of this resource in the migration index generated at build time.
+     *
+     * @param resourceName The name of the resource on the classpath.
+     * @return The checksum, or {@code null} if the resource isn't indexed with a checksum and must be read instead.
+     */
+    public Integer findIndexedChecksum(String resourceName) {
+        URL resourceUrl = getClassLoader().getResource(resourceName);
+        if (resourceUrl == null) {
+            return null;
+        }
+        return getClassPathIndex().findChecksum(resourceName, resourceUrl);
+    }
+
+    /**
+     * @return The migration index of the classpath to scan.
+     */
+    private ClassPathIndex getClassPathIndex() {
+        return ClassPathIndex.getInstance(getClassLoader());
     }
 
     /**
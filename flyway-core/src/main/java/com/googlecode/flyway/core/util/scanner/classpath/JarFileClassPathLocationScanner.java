@@ -17,6 +17,7 @@ package com.googlecode.flyway.core.util.scanner.classpath;
 
 import com.googlecode.flyway.core.util.scanner.classpath.ClassPathLocationScanner;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.JarURLConnection;
 import java.net.URISyntaxException;
@@ -29,10 +30,16 @@ import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
 /**
- * ClassPathLocationScanner for jar files.
+ * ClassPathLocationScanner for jar files. Jar files directly on disk are looked up in the process-wide
+ * {@link JarFileIndex}, all others are read every time.
  */
 public class JarFileClassPathLocationScanner implements ClassPathLocationScanner {
     public Set<String> findResourceNames(String location, URL locationUrl) throws IOException {
+        File jarFileOnDisk = getJarFileOnDisk(locationUrl);
+        if (jarFileOnDisk != null) {
+            return JarFileIndex.getInstance().findResourceNames(jarFileOnDisk, location);
+        }
+
         JarFile jarFile = getJarFromUrl(locationUrl);
 
         try {
@@ -42,6 +49,36 @@ public class JarFileClassPathLocationScanner implements ClassPathLocationScanner
         }
     }
 
+    /**
+     * Retrieves the jar file on disk represented by this URL, in the format "jar:file:path!/entry".
+     *
+     * @param locationUrl The URL of the jar.
+     * @return The jar file, or {@code null} if the URL doesn't point directly to a jar file on disk (jar nested in
+     *         another jar, other protocol, ...).
+     */
+    /* private -> for testing */
+    static File getJarFileOnDisk(URL locationUrl) {
+        String urlFile = locationUrl.getFile();
+
+        int separatorIndex = urlFile.indexOf("!/");
+        if ((separatorIndex == -1) || (urlFile.indexOf("!/", separatorIndex + 2) != -1)) {
+            return null;
+        }
+
+        String jarFileUrl = urlFile.substring(0, separatorIndex);
+        if (!jarFileUrl.startsWith("file:")) {
+            return null;
+        }
+
+        File file;
+        try {
+            file = new File(new URL(jarFileUrl).toURI().getSchemeSpecificPart());
+        } catch (Exception e) {
+            return null;
+        }
+        return file.isFile() ? file : null;
+    }
+
     /**
      * Retrieves the Jar file represented by this URL.
      *
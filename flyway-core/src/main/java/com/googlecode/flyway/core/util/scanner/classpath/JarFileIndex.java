@@ -0,0 +1,170 @@
+/**
+ * Copyright (C) 2010-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.util.scanner.classpath;
+
+import com.googlecode.flyway.core.util.logging.Log;
+import com.googlecode.flyway.core.util.logging.LogFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Process-wide index of the entry names of jar files. Each jar file is only read once, no matter how many locations,
+ * resolvers and commands scan it. An indexed jar file is read again as soon as its modification time or size on disk
+ * changes.
+ *
+ * <p>The entry names of each jar file are kept sorted, so all entries starting with a given prefix are found with a
+ * binary search and form a single contiguous range.</p>
+ */
+public class JarFileIndex {
+    private static final Log LOG = LogFactory.getLog(JarFileIndex.class);
+
+    /**
+     * The process-wide instance.
+     */
+    private static final JarFileIndex INSTANCE = new JarFileIndex();
+
+    /**
+     * The indexed jar files, by absolute path.
+     */
+    private final Map<String, IndexedJarFile> indexedJarFiles = new HashMap<String, IndexedJarFile>();
+
+    /**
+     * @return The process-wide index.
+     */
+    public static JarFileIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Finds the names of all entries of this jar file starting with this location.
+     *
+     * @param file     The jar file on disk.
+     * @param location The location to look under.
+     * @return The entry names.
+     * @throws IOException when the jar file could not be read.
+     */
+    public Set<String> findResourceNames(File file, String location) throws IOException {
+        String[] entryNames = getIndexedJarFile(file).entryNames;
+
+        Set<String> resourceNames = new TreeSet<String>();
+        int index = Arrays.binarySearch(entryNames, location);
+        if (index < 0) {
+            index = -(index + 1);
+        }
+        while ((index < entryNames.length) && entryNames[index].startsWith(location)) {
+            resourceNames.add(entryNames[index]);
+            index++;
+        }
+        return resourceNames;
+    }
+
+    /**
+     * Removes all jar files from this index.
+     */
+    public synchronized void clear() {
+        indexedJarFiles.clear();
+    }
+
+    /**
+     * Retrieves the index of this jar file, reading the jar file if it wasn't indexed yet or changed since.
+     *
+     * @param file The jar file on disk.
+     * @return The index of the jar file.
+     * @throws IOException when the jar file could not be read.
+     */
+    private synchronized IndexedJarFile getIndexedJarFile(File file) throws IOException {
+        String path = file.getAbsolutePath();
+        long lastModified = file.lastModified();
+        long length = file.length();
+
+        IndexedJarFile indexedJarFile = indexedJarFiles.get(path);
+        if ((indexedJarFile == null) || (indexedJarFile.lastModified != lastModified) || (indexedJarFile.length != length)) {
+            LOG.debug("Indexing jar file: " + path);
+            indexedJarFile = new IndexedJarFile(lastModified, length, readEntryNames(file));
+            indexedJarFiles.put(path, indexedJarFile);
+        }
+        return indexedJarFile;
+    }
+
+    /**
+     * Reads the names of all entries of this jar file.
+     *
+     * @param file The jar file on disk.
+     * @return The entry names, sorted.
+     * @throws IOException when the jar file could not be read.
+     */
+    private static String[] readEntryNames(File file) throws IOException {
+        List<String> entryNames = new ArrayList<String>();
+
+        JarFile jarFile = new JarFile(file);
+        try {
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                entryNames.add(entries.nextElement().getName());
+            }
+        } finally {
+            jarFile.close();
+        }
+
+        String[] sortedEntryNames = entryNames.toArray(new String[entryNames.size()]);
+        Arrays.sort(sortedEntryNames);
+        return sortedEntryNames;
+    }
+
+    /**
+     * The entry names of a jar file, along with the state of the file on disk when it was read.
+     */
+    private static class IndexedJarFile {
+        /**
+         * The modification time of the jar file when it was read.
+         */
+        private final long lastModified;
+
+        /**
+         * The size of the jar file when it was read.
+         */
+        private final long length;
+
+        /**
+         * The names of all entries of the jar file, sorted.
+         */
+        private final String[] entryNames;
+
+        /**
+         * Creates a new IndexedJarFile.
+         *
+         * @param lastModified The modification time of the jar file when it was read.
+         * @param length       The size of the jar file when it was read.
+         * @param entryNames   The names of all entries of the jar file, sorted.
+         */
+        IndexedJarFile(long lastModified, long length, String[] entryNames) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.entryNames = entryNames;
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.googlecode.flyway.core.util.scanner.filesystem;
 
+import com.googlecode.flyway.core.api.FlywayException;
 import com.googlecode.flyway.core.util.FileSystemResource;
 import com.googlecode.flyway.core.util.Resource;
 import com.googlecode.flyway.core.util.logging.Log;
@@ -22,15 +23,62 @@ import com.googlecode.flyway.core.util.logging.LogFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
- * FileSystem scanner.
+ * FileSystem scanner. The prefix and suffix filter is applied while walking the directory tree, so only the files that
+ * match are checked for readability and collected. The directory tree is walked sequentially, unless the scanned
+ * directory has so many subdirectories that walking them concurrently pays off for the cost of starting threads.
  */
 public class FileSystemScanner {
     private static final Log LOG = LogFactory.getLog(FileSystemScanner.class);
 
+    /**
+     * The default minimum number of subdirectories the scanned directory must have for them to be walked concurrently.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 16;
+
+    /**
+     * The maximum number of subdirectories to walk concurrently.
+     */
+    private final int parallelism;
+
+    /**
+     * The minimum number of subdirectories the scanned directory must have for them to be walked concurrently.
+     */
+    private final int parallelThreshold;
+
+    /**
+     * Creates a new scanner walking the directory tree sequentially, unless the scanned directory has at least
+     * {@link #DEFAULT_PARALLEL_THRESHOLD} subdirectories. These are then walked concurrently, up to one per available
+     * processor.
+     */
+    public FileSystemScanner() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Creates a new scanner.
+     *
+     * @param parallelism       The maximum number of subdirectories to walk concurrently. 1 to always walk the directory
+     *                          tree sequentially.
+     * @param parallelThreshold The minimum number of subdirectories the scanned directory must have for them to be
+     *                          walked concurrently.
+     */
+    public FileSystemScanner(int parallelism, int parallelThreshold) {
+        this.parallelism = parallelism;
+        this.parallelThreshold = parallelThreshold;
+    }
+
     /**
      * Scans the FileSystem for resources under the specified location, starting with the specified prefix and ending with
      * the specified suffix.
@@ -56,28 +104,25 @@ public class FileSystemScanner {
     }
 
     /**
-     * Finds all the resource names contained in this file system folder.
+     * Finds the resources names present at this location and below on the file system starting with this prefix and
+     * ending with this suffix.
      *
-     * @param scanRootLocation The root location of the scan on disk.
-     * @param folder           The folder to look for resources under on disk.
-     * @return The resource names;
-     * @throws IOException when the folder could not be read.
+     * @param path   The path on the file system to scan.
+     * @param prefix The filename prefix to match.
+     * @param suffix The filename suffix to match.
+     * @return The resource names.
+     * @throws java.io.IOException when scanning this location failed.
      */
-    /*private -> for testing*/
-    @SuppressWarnings("ConstantConditions")
-    Set<String> findResourceNamesFromFileSystem(String scanRootLocation, File folder) throws IOException {
-        LOG.debug("Scanning for resources in path: " + folder.getPath() + " (" + scanRootLocation + ")");
-
+    /* private -> for testing */
+    Set<String> findResourceNames(String path, String prefix, String suffix) throws IOException {
         Set<String> resourceNames = new TreeSet<String>();
 
-        File[] files = folder.listFiles();
-        for (File file : files) {
-            if (file.canRead()) {
-                if (file.isDirectory()) {
-                    resourceNames.addAll(findResourceNamesFromFileSystem(scanRootLocation, file));
-                } else {
-                    resourceNames.add(file.getPath());
-                }
+        List<File> folders = scanFolder(new File(path), prefix, suffix, resourceNames);
+        if (isWalkedInParallel(folders.size())) {
+            resourceNames.addAll(walkInParallel(folders, prefix, suffix));
+        } else {
+            for (File folder : folders) {
+                walk(folder, prefix, suffix, resourceNames);
             }
         }
 
@@ -85,39 +130,129 @@ public class FileSystemScanner {
     }
 
     /**
-     * Finds the resources names present at this location and below on the classpath starting with this prefix and
-     * ending with this suffix.
+     * Checks whether the subdirectories of the scanned directory are walked concurrently.
      *
-     * @param path   The path on the classpath to scan.
-     * @param prefix The filename prefix to match.
-     * @param suffix The filename suffix to match.
-     * @return The resource names.
-     * @throws java.io.IOException when scanning this location failed.
+     * @param folderCount The number of subdirectories of the scanned directory.
+     * @return {@code true} if they are, {@code false} if they are walked sequentially.
      */
-    private Set<String> findResourceNames(String path, String prefix, String suffix) throws IOException {
-        Set<String> resourceNames = findResourceNamesFromFileSystem(path, new File(path));
-        return filterResourceNames(resourceNames, prefix, suffix);
+    /* private -> for testing */
+    boolean isWalkedInParallel(int folderCount) {
+        return (parallelism > 1) && (folderCount > 1) && (folderCount >= parallelThreshold);
     }
 
     /**
-     * Filters this list of resource names to only include the ones whose filename matches this prefix and this suffix.
+     * Walks these folders concurrently, each on its own thread.
      *
-     * @param resourceNames The names to filter.
-     * @param prefix        The prefix to match.
-     * @param suffix        The suffix to match.
-     * @return The filtered names set.
+     * @param folders The folders to walk.
+     * @param prefix  The filename prefix to match.
+     * @param suffix  The filename suffix to match.
+     * @return The names of the matching resources in these folders and below.
      */
-    private Set<String> filterResourceNames(Set<String> resourceNames, String prefix, String suffix) {
-        Set<String> filteredResourceNames = new TreeSet<String>();
-        for (String resourceName : resourceNames) {
-            String fileName = resourceName.substring(resourceName.lastIndexOf(File.separator) + 1);
-            if (fileName.startsWith(prefix) && fileName.endsWith(suffix)
-                    && (fileName.length() > (prefix + suffix).length())) {
-                filteredResourceNames.add(resourceName);
+    private Set<String> walkInParallel(List<File> folders, final String prefix, final String suffix) {
+        int threads = Math.min(parallelism, folders.size());
+        LOG.debug("Walking " + folders.size() + " folders using " + threads + " threads ...");
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Set<String>>> futures = new ArrayList<Future<Set<String>>>();
+            for (final File folder : folders) {
+                futures.add(executor.submit(new Callable<Set<String>>() {
+                    public Set<String> call() {
+                        Set<String> resourceNames = new TreeSet<String>();
+                        walk(folder, prefix, suffix, resourceNames);
+                        return resourceNames;
+                    }
+                }));
+            }
+
+            Set<String> resourceNames = new TreeSet<String>();
+            for (Future<Set<String>> future : futures) {
+                try {
+                    resourceNames.addAll(future.get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw new FlywayException("Unable to scan filesystem", cause);
+                }
+            }
+            return resourceNames;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlywayException("Interrupted while scanning filesystem", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Walks this folder and all its subfolders, collecting the names of the matching resources.
+     *
+     * @param folder        The folder to walk.
+     * @param prefix        The filename prefix to match.
+     * @param suffix        The filename suffix to match.
+     * @param resourceNames The set to add the names of the matching resources to.
+     */
+    private void walk(File folder, String prefix, String suffix, Set<String> resourceNames) {
+        LinkedList<File> pendingFolders = new LinkedList<File>();
+        pendingFolders.add(folder);
+        while (!pendingFolders.isEmpty()) {
+            pendingFolders.addAll(scanFolder(pendingFolders.removeFirst(), prefix, suffix, resourceNames));
+        }
+    }
+
+    /**
+     * Scans the direct content of this folder. The matching resources are collected and the readable subfolders are
+     * returned, so they can be walked next.
+     *
+     * @param folder        The folder to scan.
+     * @param prefix        The filename prefix to match.
+     * @param suffix        The filename suffix to match.
+     * @param resourceNames The set to add the names of the matching resources to.
+     * @return The readable subfolders of this folder.
+     */
+    private List<File> scanFolder(File folder, String prefix, String suffix, Set<String> resourceNames) {
+        LOG.debug("Scanning for resources in path: " + folder.getPath());
+
+        List<File> subFolders = new ArrayList<File>();
+
+        File[] files = folder.listFiles();
+        if (files == null) {
+            LOG.debug("Unable to list the content of path: " + folder.getPath());
+            return subFolders;
+        }
+
+        for (File file : files) {
+            if (file.isDirectory()) {
+                if (file.canRead()) {
+                    subFolders.add(file);
+                }
+            } else if (matches(file.getName(), prefix, suffix)) {
+                if (file.canRead()) {
+                    resourceNames.add(file.getPath());
+                }
             } else {
-                LOG.debug("Filtering out resource: " + resourceName + " (filename: " + fileName + ")");
+                LOG.debug("Filtering out resource: " + file.getPath() + " (filename: " + file.getName() + ")");
             }
         }
-        return filteredResourceNames;
+
+        return subFolders;
+    }
+
+    /**
+     * Checks whether this filename starts with this prefix and ends with this suffix.
+     *
+     * @param fileName The filename to check.
+     * @param prefix   The prefix to match.
+     * @param suffix   The suffix to match.
+     * @return {@code true} if it matches, {@code false} if not.
+     */
+    private boolean matches(String fileName, String prefix, String suffix) {
+        return fileName.startsWith(prefix) && fileName.endsWith(suffix)
+                && (fileName.length() > (prefix.length() + suffix.length()));
     }
 }
@@ -15,6 +15,7 @@
  */
 package com.googlecode.flyway.core;
 
+import com.googlecode.flyway.core.api.FlywayException;
 import com.googlecode.flyway.core.dbsupport.DbSupport;
 import com.googlecode.flyway.core.dbsupport.Schema;
 import com.googlecode.flyway.core.util.jdbc.DriverDataSource;
@@ -26,7 +27,9 @@ import java.sql.Connection;
 import java.util.Properties;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Test for the main Flyway class.
@@ -90,6 +93,119 @@ public class FlywaySmallTest {
         assertEquals(true, flyway.isOutOfOrder());
     }
 
+    @Test
+    public void configureCleanParallelism() {
+        Properties properties = new Properties();
+        properties.setProperty("flyway.cleanParallelism", "4");
+
+        Flyway flyway = new Flyway();
+        flyway.configure(properties);
+
+        assertEquals(4, flyway.getCleanParallelism());
+    }
+
+    @Test
+    public void configureServerSideClean() {
+        Flyway flyway = new Flyway();
+        assertFalse(flyway.isServerSideClean());
+
+        Properties properties = new Properties();
+        properties.setProperty("flyway.serverSideClean", "true");
+        flyway.configure(properties);
+
+        assertTrue(flyway.isServerSideClean());
+    }
+
+    @Test
+    public void configureAdvisoryLocks() {
+        Flyway flyway = new Flyway();
+        assertFalse(flyway.isAdvisoryLocks());
+
+        Properties properties = new Properties();
+        properties.setProperty("flyway.advisoryLocks", "true");
+        flyway.configure(properties);
+
+        assertTrue(flyway.isAdvisoryLocks());
+    }
+
+    @Test
+    public void configureSqlBatchSize() {
+        Properties properties = new Properties();
+        properties.setProperty("flyway.sqlBatchSize", "50");
+
+        Flyway flyway = new Flyway();
+        flyway.configure(properties);
+
+        assertEquals(50, flyway.getSqlBatchSize());
+    }
+
+    @Test
+    public void configureMetaDataBatchSize() {
+        Properties properties = new Properties();
+        properties.setProperty("flyway.metaDataBatchSize", "500");
+
+        Flyway flyway = new Flyway();
+        flyway.configure(properties);
+
+        assertEquals(500, flyway.getMetaDataBatchSize());
+    }
+
+    @Test
+    public void configureSqlScriptCacheSize() {
+        Properties properties = new Properties();
+        properties.setProperty("flyway.sqlScriptCacheSize", "0");
+
+        Flyway flyway = new Flyway();
+        flyway.configure(properties);
+
+        assertEquals(0, flyway.getSqlScriptCacheSize());
+    }
+
+    @Test(expected = FlywayException.class)
+    public void invalidMetaDataBatchSize() {
+        new Flyway().setMetaDataBatchSize(0);
+    }
+
+    @Test
+    public void configureUseFingerprint() {
+        Properties properties = new Properties();
+        properties.setProperty("flyway.useFingerprint", "true");
+
+        Flyway flyway = new Flyway();
+        flyway.configure(properties);
+
+        assertTrue(flyway.isUseFingerprint());
+    }
+
+    @Test
+    public void configureCoordinatedMigrate() {
+        Properties properties = new Properties();
+        properties.setProperty("flyway.coordinatedMigrate", "true");
+        properties.setProperty("flyway.leaderTimeout", "30");
+
+        Flyway flyway = new Flyway();
+        flyway.configure(properties);
+
+        assertTrue(flyway.isCoordinatedMigrate());
+        assertEquals(30, flyway.getLeaderTimeout());
+    }
+
+    @Test(expected = FlywayException.class)
+    public void negativeLeaderTimeout() {
+        new Flyway().setLeaderTimeout(-1);
+    }
+
+    @Test
+    public void configureFailOnUnresolvedPlaceholders() {
+        Properties properties = new Properties();
+        properties.setProperty("flyway.failOnUnresolvedPlaceholders", "true");
+
+        Flyway flyway = new Flyway();
+        flyway.configure(properties);
+
+        assertTrue(flyway.isFailOnUnresolvedPlaceholders());
+    }
+
     @Test
     public void configureValidationMode() {
         Properties properties = new Properties();
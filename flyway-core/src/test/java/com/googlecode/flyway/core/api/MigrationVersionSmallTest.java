@@ -17,6 +17,9 @@ package com.googlecode.flyway.core.api;
 
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -89,6 +92,37 @@ public class MigrationVersionSmallTest {
         assertTrue(v1.equals(v2));
     }
 
+    @Test
+    public void hashCodeConsistentWithEquals() {
+        final MigrationVersion v1 = new MigrationVersion("1");
+        final MigrationVersion v100 = new MigrationVersion("01.0.00");
+        assertEquals(v1, v100);
+        assertEquals(v1.hashCode(), v100.hashCode());
+        assertFalse(v1.equals(new MigrationVersion("1.0.1")));
+    }
+
+    @Test
+    public void fromVersion() {
+        assertSame(MigrationVersion.fromVersion("1.2"), MigrationVersion.fromVersion("1.2"));
+        assertEquals(new MigrationVersion("1_2"), MigrationVersion.fromVersion("1_2"));
+        assertEquals("1.2", MigrationVersion.fromVersion("1_2").toString());
+    }
+
+    @Test
+    public void latestElement() {
+        assertTrue(new MigrationVersion(Long.toString(Long.MAX_VALUE)).compareTo(MigrationVersion.LATEST) < 0);
+    }
+
+    @Test(expected = FlywayException.class)
+    public void tooLarge() {
+        new MigrationVersion("1.92233720368547758070");
+    }
+
+    @Test(expected = FlywayException.class)
+    public void emptyElement() {
+        new MigrationVersion("1..2");
+    }
+
     @Test(expected = FlywayException.class)
     public void letters() {
         new MigrationVersion("abc1.0");
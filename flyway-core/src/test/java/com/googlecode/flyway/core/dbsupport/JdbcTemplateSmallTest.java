@@ -0,0 +1,212 @@
+/**
+ * Copyright (C) 2010-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.dbsupport;
+
+import com.googlecode.flyway.core.util.jdbc.RowCallbackHandler;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Small Test for JdbcTemplate.
+ */
+public class JdbcTemplateSmallTest {
+    @Test
+    public void statementCache() throws Exception {
+        Connection connection = mockConnection();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(connection);
+
+        jdbcTemplate.queryForInt("SELECT 1");
+        jdbcTemplate.queryForInt("SELECT 1");
+        jdbcTemplate.update("UPDATE t SET c=?", 1);
+        jdbcTemplate.update("UPDATE t SET c=?", 2);
+
+        assertEquals(2, jdbcTemplate.getStatementCacheHits());
+        assertEquals(2, jdbcTemplate.getStatementCacheMisses());
+        verify(connection, times(1)).prepareStatement("SELECT 1");
+        verify(connection, times(1)).prepareStatement("UPDATE t SET c=?");
+    }
+
+    @Test
+    public void statementCacheEviction() throws Exception {
+        Connection connection = mockConnection();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(connection);
+
+        for (int i = 0; i <= JdbcTemplate.STATEMENT_CACHE_SIZE; i++) {
+            jdbcTemplate.update("UPDATE t" + i + " SET c=1");
+        }
+        jdbcTemplate.update("UPDATE t0 SET c=1");
+
+        assertEquals(0, jdbcTemplate.getStatementCacheHits());
+        verify(connection, times(2)).prepareStatement("UPDATE t0 SET c=1");
+    }
+
+    @Test
+    public void statementCacheFailure() throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.executeUpdate()).thenThrow(new SQLException("Failure"));
+        when(connection.prepareStatement("UPDATE t SET c=1")).thenReturn(statement);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(connection);
+
+        try {
+            jdbcTemplate.update("UPDATE t SET c=1");
+            fail();
+        } catch (SQLException e) {
+            verify(statement).close();
+        }
+    }
+
+    @Test
+    public void close() throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement("UPDATE t SET c=1")).thenReturn(statement);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(connection);
+
+        jdbcTemplate.update("UPDATE t SET c=1");
+        verify(statement, never()).close();
+
+        jdbcTemplate.close();
+        verify(statement).close();
+        verify(connection, never()).close();
+    }
+
+    @Test
+    public void queryStreaming() throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(connection.prepareStatement("SELECT name FROM t WHERE c=?")).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, true, false);
+        when(resultSet.getString(1)).thenReturn("a", "b");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(connection);
+        jdbcTemplate.setFetchSize(50);
+
+        final List<String> names = new ArrayList<String>();
+        jdbcTemplate.query("SELECT name FROM t WHERE c=?", new RowCallbackHandler() {
+            public void processRow(ResultSet rs) throws SQLException {
+                names.add(rs.getString(1));
+            }
+        }, "x");
+
+        assertEquals("[a, b]", names.toString());
+        verify(statement).setString(1, "x");
+        verify(statement).setFetchSize(50);
+        verify(statement).close();
+    }
+
+    @Test
+    public void batchUpdateChunking() throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement("UPDATE t SET c=? WHERE id=?")).thenReturn(statement);
+        when(statement.executeBatch()).thenReturn(new int[]{1, 1}, new int[]{1, 0}, new int[]{Statement.SUCCESS_NO_INFO});
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(connection);
+        jdbcTemplate.setBatchSize(2);
+
+        List<Object[]> batchParams = new ArrayList<Object[]>();
+        for (int i = 0; i < 5; i++) {
+            batchParams.add(new Object[]{"x", i});
+        }
+        int[] updateCounts = jdbcTemplate.batchUpdate("UPDATE t SET c=? WHERE id=?", batchParams);
+
+        assertArrayEquals(new int[]{1, 1, 1, 0, Statement.SUCCESS_NO_INFO}, updateCounts);
+        verify(connection, times(1)).prepareStatement("UPDATE t SET c=? WHERE id=?");
+        verify(statement, times(5)).addBatch();
+        verify(statement, times(3)).executeBatch();
+        verify(statement).close();
+    }
+
+    @Test
+    public void batchUpdateExactBatchSize() throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement("UPDATE t SET c=1 WHERE id=?")).thenReturn(statement);
+        when(statement.executeBatch()).thenReturn(new int[]{1, 1});
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(connection);
+        jdbcTemplate.setBatchSize(2);
+
+        List<Object[]> batchParams = new ArrayList<Object[]>();
+        for (int i = 0; i < 4; i++) {
+            batchParams.add(new Object[]{i});
+        }
+        int[] updateCounts = jdbcTemplate.batchUpdate("UPDATE t SET c=1 WHERE id=?", batchParams);
+
+        assertArrayEquals(new int[]{1, 1, 1, 1}, updateCounts);
+        verify(statement, times(2)).executeBatch();
+    }
+
+    @Test
+    public void batchUpdateEmpty() throws Exception {
+        Connection connection = mock(Connection.class);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(connection);
+
+        assertEquals(0, jdbcTemplate.batchUpdate("UPDATE t SET c=1", new ArrayList<Object[]>()).length);
+        verify(connection, never()).prepareStatement(anyString());
+    }
+
+    @Test
+    public void batchUpdateExecuteFailed() throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement("UPDATE t SET c=1 WHERE id=?")).thenReturn(statement);
+        when(statement.executeBatch()).thenReturn(new int[]{1, Statement.EXECUTE_FAILED});
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(connection);
+
+        List<Object[]> batchParams = new ArrayList<Object[]>();
+        batchParams.add(new Object[]{1});
+        batchParams.add(new Object[]{2});
+        try {
+            jdbcTemplate.batchUpdate("UPDATE t SET c=1 WHERE id=?", batchParams);
+            fail();
+        } catch (SQLException e) {
+            verify(statement).close();
+        }
+    }
+
+    /**
+     * Creates a mock connection whose statements all return a single row result set.
+     *
+     * @return The mock connection.
+     */
+    private Connection mockConnection() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenAnswer(new org.mockito.stubbing.Answer<PreparedStatement>() {
+            public PreparedStatement answer(org.mockito.invocation.InvocationOnMock invocation) throws Throwable {
+                ResultSet resultSet = mock(ResultSet.class);
+                when(resultSet.next()).thenReturn(true);
+                PreparedStatement statement = mock(PreparedStatement.class);
+                when(statement.executeQuery()).thenReturn(resultSet);
+                return statement;
+            }
+        });
+        return connection;
+    }
+}
@@ -15,17 +15,33 @@
  */
 package com.googlecode.flyway.core.dbsupport;
 
+import com.googlecode.flyway.core.api.FlywayException;
 import com.googlecode.flyway.core.dbsupport.mysql.MySQLDbSupport;
 import com.googlecode.flyway.core.util.PlaceholderReplacer;
 import org.junit.Test;
+import org.mockito.InOrder;
 
+import java.io.StringReader;
+import java.sql.BatchUpdateException;
+import java.sql.DatabaseMetaData;
+import java.sql.Statement;
+import java.util.Arrays;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
 
 /**
  * Test for SqlScript.
@@ -269,4 +285,112 @@ public class SqlScriptSmallTest {
         assertEquals(1, sqlStatement.getLineNumber());
         assertEquals(source, sqlStatement.getSql());
     }
+
+    @Test
+    public void executeStreamed() throws Exception {
+        String source = "CREATE TABLE ${table} (\n" +
+                "  name VARCHAR(25)\n" +
+                ");\n" +
+                "\n" +
+                "-- comment;\n" +
+                "INSERT INTO ${table} VALUES ('${value}');";
+
+        Map<String, String> placeholders = new HashMap<String, String>();
+        placeholders.put("table", "test_user");
+        placeholders.put("value", "multi\nline");
+        PlaceholderReplacer placeholderReplacer = new PlaceholderReplacer(placeholders, "${", "}");
+
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        new SqlScript(new StringReader(source), placeholderReplacer, new MySQLDbSupport(null)).execute(jdbcTemplate);
+
+        List<SqlStatement> expected =
+                new SqlScript(placeholderReplacer.replacePlaceholders(source), new MySQLDbSupport(null)).getSqlStatements();
+        assertEquals(2, expected.size());
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).executeStatement(expected.get(0).getSql());
+        inOrder.verify(jdbcTemplate).executeStatement(expected.get(1).getSql());
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    public void executeStreamedUnresolvedPlaceholder() throws Exception {
+        String source = "CREATE TABLE t (c INT);\n" +
+                "INSERT INTO t VALUES (${value});";
+
+        PlaceholderReplacer placeholderReplacer =
+                new PlaceholderReplacer(new HashMap<String, String>(), "${", "}", true);
+        try {
+            new SqlScript(new StringReader(source), placeholderReplacer, new MySQLDbSupport(null))
+                    .execute(mock(JdbcTemplate.class));
+            fail();
+        } catch (FlywayException e) {
+            assertEquals("Unable to replace placeholders at line 2: No value provided for placeholder: ${value}",
+                    e.getMessage());
+        }
+    }
+
+    @Test
+    public void isBatchable() {
+        assertTrue(SqlScript.isBatchable(new SqlStatement(1, "INSERT INTO t VALUES (1)")));
+        assertTrue(SqlScript.isBatchable(new SqlStatement(1, "  update t SET c = 1")));
+        assertTrue(SqlScript.isBatchable(new SqlStatement(1, "Delete\nFROM t")));
+        assertTrue(SqlScript.isBatchable(new SqlStatement(1, "MERGE INTO t USING s ON (t.id = s.id)")));
+        assertFalse(SqlScript.isBatchable(new SqlStatement(1, "CREATE TABLE t (c INT)")));
+        assertFalse(SqlScript.isBatchable(new SqlStatement(1, "INSERTED_VIEW")));
+        assertFalse(SqlScript.isBatchable(new SqlStatement(1, "SELECT * FROM t")));
+    }
+
+    @Test
+    public void executeBatched() throws Exception {
+        String source = "CREATE TABLE t (c INT);\n" +
+                "INSERT INTO t VALUES (1);\n" +
+                "INSERT INTO t VALUES (2);\n" +
+                "INSERT INTO t VALUES (3);\n" +
+                "UPDATE t SET c = 4;\n" +
+                "DROP TABLE t;";
+
+        JdbcTemplate jdbcTemplate = batchingJdbcTemplate();
+        SqlScript script = new SqlScript(source, new MySQLDbSupport(null));
+        script.setBatchSize(2);
+        script.execute(jdbcTemplate);
+
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).getMetaData();
+        inOrder.verify(jdbcTemplate).executeStatement("CREATE TABLE t (c INT)");
+        inOrder.verify(jdbcTemplate).executeBatch(Arrays.asList("INSERT INTO t VALUES (1)", "INSERT INTO t VALUES (2)"));
+        inOrder.verify(jdbcTemplate).executeBatch(Arrays.asList("INSERT INTO t VALUES (3)", "UPDATE t SET c = 4"));
+        inOrder.verify(jdbcTemplate).executeStatement("DROP TABLE t");
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    public void executeBatchedFailureLineNumber() throws Exception {
+        String source = "INSERT INTO t VALUES (1);\n" +
+                "INSERT INTO t VALUES (2);\n" +
+                "INSERT INTO t VALUES (3);";
+
+        JdbcTemplate jdbcTemplate = batchingJdbcTemplate();
+        doThrow(new BatchUpdateException(new int[]{1, Statement.EXECUTE_FAILED, 1}))
+                .when(jdbcTemplate).executeBatch(anyListOf(String.class));
+
+        SqlScript script = new SqlScript(source, new MySQLDbSupport(null));
+        script.setBatchSize(10);
+        try {
+            script.execute(jdbcTemplate);
+            fail();
+        } catch (FlywayException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Error executing statement at line 2: "));
+        }
+    }
+
+    /**
+     * @return A mock jdbc template for a database supporting batch updates.
+     */
+    private JdbcTemplate batchingJdbcTemplate() throws Exception {
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.supportsBatchUpdates()).thenReturn(true);
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.getMetaData()).thenReturn(metaData);
+        return jdbcTemplate;
+    }
 }
@@ -18,6 +18,8 @@ package com.googlecode.flyway.core.dbsupport;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Test for SqlStatementBuilder.
@@ -25,7 +27,45 @@ import static org.junit.Assert.assertEquals;
 public class SqlStatementBuilderSmallTest {
     @Test
     public void stripDelimiter() {
-        assertEquals("SELECT * FROM t WHERE a = 'Straßenpaß'",
-                SqlStatementBuilder.stripDelimiter("SELECT * FROM t WHERE a = 'Straßenpaß';", new Delimiter(";", false)));
+        SqlStatementBuilder builder = new SqlStatementBuilder();
+        builder.addLine("SELECT * FROM t WHERE a = 'Straßenpaß';");
+        assertTrue(builder.isTerminated());
+        assertEquals("SELECT * FROM t WHERE a = 'Straßenpaß'", builder.getSqlStatement().getSql());
+    }
+
+    @Test
+    public void stripDelimiterCaseInsensitive() {
+        SqlStatementBuilder builder = new SqlStatementBuilder();
+        builder.setDelimiter(new Delimiter("GO", true));
+        builder.addLine("SELECT * FROM t");
+        assertFalse(builder.isTerminated());
+        builder.addLine("Go");
+        assertTrue(builder.isTerminated());
+        assertEquals("SELECT * FROM t\n", builder.getSqlStatement().getSql());
+    }
+
+    @Test
+    public void stripLastDelimiterOnly() {
+        SqlStatementBuilder builder = new SqlStatementBuilder();
+        builder.addLine("INSERT INTO t VALUES ('a;b');");
+        assertTrue(builder.isTerminated());
+        assertEquals("INSERT INTO t VALUES ('a;b')", builder.getSqlStatement().getSql());
+    }
+
+    @Test
+    public void simplifyLine() {
+        assertEquals("", SqlStatementBuilder.simplifyLine(" \t "));
+        assertEquals("SELECT * FROM T;", SqlStatementBuilder.simplifyLine("  select *\t\t from  t; \r"));
+        assertEquals("BEGIN", SqlStatementBuilder.simplifyLine("\u0001begin\u0001"));
+    }
+
+    @Test
+    public void addLine() {
+        SqlStatementBuilder builder = new SqlStatementBuilder();
+        builder.addLine("CREATE TABLE t (");
+        assertFalse(builder.isTerminated());
+        builder.addLine("  name VARCHAR(25)  ) ;  ");
+        assertTrue(builder.isTerminated());
+        assertEquals("CREATE TABLE t (\n  name VARCHAR(25)  ) ", builder.getSqlStatement().getSql());
     }
 }
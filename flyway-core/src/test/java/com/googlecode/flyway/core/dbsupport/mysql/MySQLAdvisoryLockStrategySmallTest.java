@@ -0,0 +1,106 @@
+/**
+ * Copyright (C) 2010-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.dbsupport.mysql;
+
+import com.googlecode.flyway.core.dbsupport.DbSupport;
+import com.googlecode.flyway.core.dbsupport.JdbcTemplate;
+import com.googlecode.flyway.core.dbsupport.Table;
+import com.googlecode.flyway.core.dbsupport.TableLockStrategy;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Small Test for MySQLAdvisoryLockStrategy.
+ */
+public class MySQLAdvisoryLockStrategySmallTest {
+    @Test
+    public void advisoryLocksOptIn() {
+        DbSupport dbSupport = new MySQLDbSupport(mock(Connection.class));
+        assertTrue(dbSupport.createLockStrategy() instanceof TableLockStrategy);
+
+        dbSupport.setAdvisoryLocks(true);
+        assertTrue(dbSupport.createLockStrategy() instanceof MySQLAdvisoryLockStrategy);
+    }
+
+    @Test
+    public void lockRetriesUntilAcquired() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForString(startsWith("SELECT GET_LOCK"), anyString())).thenReturn("0", "0", "1");
+
+        new MySQLAdvisoryLockStrategy(jdbcTemplate).lock(mockTable("`test`.`schema_version`"));
+
+        verify(jdbcTemplate, times(3)).queryForString(startsWith("SELECT GET_LOCK"), anyString());
+    }
+
+    @Test(expected = SQLException.class)
+    public void lockError() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForString(startsWith("SELECT GET_LOCK"), anyString())).thenReturn(null);
+
+        new MySQLAdvisoryLockStrategy(jdbcTemplate).lock(mockTable("`test`.`schema_version`"));
+    }
+
+    @Test
+    public void unlockReleasesSameLock() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForString(startsWith("SELECT GET_LOCK"), anyString())).thenReturn("1");
+        MySQLAdvisoryLockStrategy lockStrategy = new MySQLAdvisoryLockStrategy(jdbcTemplate);
+        Table table = mockTable("`test`.`schema_version`");
+
+        lockStrategy.lock(table);
+        lockStrategy.unlock(table);
+
+        String lockName = "flyway_" + Long.toHexString(
+                ((long) "flyway".hashCode() << 32) | ("`test`.`schema_version`".hashCode() & 0xFFFFFFFFL));
+        verify(jdbcTemplate).queryForString(startsWith("SELECT GET_LOCK"), eq(lockName));
+        verify(jdbcTemplate).queryForString("SELECT RELEASE_LOCK(?)", lockName);
+    }
+
+    @Test
+    public void lockNamePerTable() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        MySQLAdvisoryLockStrategy lockStrategy = new MySQLAdvisoryLockStrategy(jdbcTemplate);
+
+        lockStrategy.unlock(mockTable("`test`.`schema_version`"));
+        lockStrategy.unlock(mockTable("`other`.`schema_version`"));
+
+        ArgumentCaptor<String> lockNames = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(2)).queryForString(eq("SELECT RELEASE_LOCK(?)"), lockNames.capture());
+        assertTrue(lockNames.getAllValues().get(0).startsWith("flyway_"));
+        assertTrue(lockNames.getAllValues().get(0).length() <= 64);
+        assertFalse(lockNames.getAllValues().get(0).equals(lockNames.getAllValues().get(1)));
+    }
+
+    /**
+     * Creates a table mock with this name.
+     *
+     * @param name The fully qualified name of the table.
+     * @return The table mock.
+     */
+    private Table mockTable(String name) {
+        Table table = mock(Table.class);
+        when(table.toString()).thenReturn(name);
+        return table;
+    }
+}
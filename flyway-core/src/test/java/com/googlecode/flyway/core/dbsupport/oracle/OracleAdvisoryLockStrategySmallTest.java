@@ -0,0 +1,84 @@
+/**
+ * Copyright (C) 2010-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.dbsupport.oracle;
+
+import com.googlecode.flyway.core.dbsupport.JdbcTemplate;
+import com.googlecode.flyway.core.dbsupport.Table;
+import org.junit.Test;
+
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Small Test for OracleAdvisoryLockStrategy.
+ */
+public class OracleAdvisoryLockStrategySmallTest {
+    @Test
+    public void fallbackWithoutDbmsLock() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        doThrow(new SQLException("ORA-06550: line 1, column 28: PLS-00201", "65000", 6550))
+                .when(jdbcTemplate).execute(anyString());
+        OracleAdvisoryLockStrategy lockStrategy = new OracleAdvisoryLockStrategy(jdbcTemplate);
+        Table table = mock(Table.class);
+
+        lockStrategy.lock(table);
+        lockStrategy.lock(table);
+
+        // DBMS_LOCK is only tried once
+        verify(jdbcTemplate, times(1)).execute(anyString());
+    }
+
+    @Test
+    public void fallbackWithoutPrivilege() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        doThrow(new SQLException("ORA-01031: insufficient privileges", "42000", 1031))
+                .when(jdbcTemplate).execute(anyString());
+        OracleAdvisoryLockStrategy lockStrategy = new OracleAdvisoryLockStrategy(jdbcTemplate);
+
+        lockStrategy.lock(mock(Table.class));
+        lockStrategy.lock(mock(Table.class));
+
+        verify(jdbcTemplate, times(1)).execute(anyString());
+    }
+
+    @Test
+    public void noFallbackOnOtherErrors() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        doThrow(new SQLException("ORA-04068: existing state of packages has been discarded", "72000", 4068))
+                .when(jdbcTemplate).execute(anyString());
+        OracleAdvisoryLockStrategy lockStrategy = new OracleAdvisoryLockStrategy(jdbcTemplate);
+
+        try {
+            lockStrategy.lock(mock(Table.class));
+            fail();
+        } catch (SQLException e) {
+            assertEquals(4068, e.getErrorCode());
+        }
+
+        // No fallback has been installed, so DBMS_LOCK is tried again
+        try {
+            lockStrategy.lock(mock(Table.class));
+            fail();
+        } catch (SQLException e) {
+            assertEquals(4068, e.getErrorCode());
+        }
+        verify(jdbcTemplate, times(2)).execute(anyString());
+    }
+}
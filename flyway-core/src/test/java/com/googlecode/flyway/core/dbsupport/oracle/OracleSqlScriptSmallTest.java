@@ -91,6 +91,16 @@ public class OracleSqlScriptSmallTest {
         assertTrue(endsWithOpenMultilineStringLiteral("select q'$Hello 'quotes'$"));
     }
 
+    @Test
+    public void endsWithOpenMultilineStringLiteralCommentsAndIdentifiers() {
+        assertFalse(endsWithOpenMultilineStringLiteral("SELECT NQ'[IT'S]' FROM DUAL;"));
+        assertFalse(endsWithOpenMultilineStringLiteral("SELECT 'IT''S' FROM DUAL; -- DON'T"));
+        assertFalse(endsWithOpenMultilineStringLiteral("SELECT /* DON'T */ \"IT'S\" FROM DUAL;"));
+        assertFalse(endsWithOpenMultilineStringLiteral("SELECT SEQ'[' FROM DUAL;"));
+        assertTrue(endsWithOpenMultilineStringLiteral("SELECT 'IT''S"));
+        assertTrue(endsWithOpenMultilineStringLiteral("SELECT Q'[IT'S]"));
+    }
+
     private boolean endsWithOpenMultilineStringLiteral(String line) {
         OracleSqlStatementBuilder statementBuilder = new OracleSqlStatementBuilder();
         return statementBuilder.endsWithOpenMultilineStringLiteral(line);
@@ -20,6 +20,7 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 
@@ -99,16 +100,27 @@ public class PostgreSQLSqlStatementBuilderSmallTest {
     }
 
     @Test
-    public void dollarQuoteRegex() {
-        assertFalse("abc".matches(PostgreSQLSqlStatementBuilder.DOLLAR_QUOTE_REGEX));
-        assertFalse("abc$".matches(PostgreSQLSqlStatementBuilder.DOLLAR_QUOTE_REGEX));
-        assertFalse("$abc".matches(PostgreSQLSqlStatementBuilder.DOLLAR_QUOTE_REGEX));
-        assertTrue("$$".matches(PostgreSQLSqlStatementBuilder.DOLLAR_QUOTE_REGEX));
-        assertTrue("$abc$".matches(PostgreSQLSqlStatementBuilder.DOLLAR_QUOTE_REGEX));
-        assertTrue("$ABC$".matches(PostgreSQLSqlStatementBuilder.DOLLAR_QUOTE_REGEX));
-        assertTrue("$aBcDeF$".matches(PostgreSQLSqlStatementBuilder.DOLLAR_QUOTE_REGEX));
-        assertTrue("$aBc_DeF$".matches(PostgreSQLSqlStatementBuilder.DOLLAR_QUOTE_REGEX));
-        assertTrue("$abcDEF123$".matches(PostgreSQLSqlStatementBuilder.DOLLAR_QUOTE_REGEX));
-        assertTrue("$abcDEF123$xxx".matches(PostgreSQLSqlStatementBuilder.DOLLAR_QUOTE_REGEX));
+    public void extractDollarQuote() {
+        assertNull(PostgreSQLSqlStatementBuilder.extractDollarQuote("abc", 0));
+        assertNull(PostgreSQLSqlStatementBuilder.extractDollarQuote("abc$", 0));
+        assertNull(PostgreSQLSqlStatementBuilder.extractDollarQuote("$abc", 0));
+        assertNull(PostgreSQLSqlStatementBuilder.extractDollarQuote("$ab c$", 0));
+        assertEquals("$$", PostgreSQLSqlStatementBuilder.extractDollarQuote("$$", 0));
+        assertEquals("$abc$", PostgreSQLSqlStatementBuilder.extractDollarQuote("$abc$", 0));
+        assertEquals("$ABC$", PostgreSQLSqlStatementBuilder.extractDollarQuote("$ABC$", 0));
+        assertEquals("$aBcDeF$", PostgreSQLSqlStatementBuilder.extractDollarQuote("$aBcDeF$", 0));
+        assertEquals("$aBc_DeF$", PostgreSQLSqlStatementBuilder.extractDollarQuote("$aBc_DeF$", 0));
+        assertEquals("$abcDEF123$", PostgreSQLSqlStatementBuilder.extractDollarQuote("$abcDEF123$xxx", 0));
+        assertEquals("$BODY$", PostgreSQLSqlStatementBuilder.extractDollarQuote("AS $BODY$", 3));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void endsWithOpenMultilineStringLiteralCommentsAndEscapes() {
+        assertFalse(new PostgreSQLSqlStatementBuilder().endsWithOpenMultilineStringLiteral("SELECT 1; -- DON'T"));
+        assertFalse(new PostgreSQLSqlStatementBuilder().endsWithOpenMultilineStringLiteral("SELECT /* DON'T */ 1;"));
+        assertFalse(new PostgreSQLSqlStatementBuilder().endsWithOpenMultilineStringLiteral("SELECT E'IT\\'S', 'A''B';"));
+        assertFalse(new PostgreSQLSqlStatementBuilder().endsWithOpenMultilineStringLiteral("SELECT A$B$ FROM T;"));
+        assertTrue(new PostgreSQLSqlStatementBuilder().endsWithOpenMultilineStringLiteral("SELECT 'IT\\'S';"));
+        assertTrue(new PostgreSQLSqlStatementBuilder().endsWithOpenMultilineStringLiteral("SELECT $X$ '$$ -- "));
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.googlecode.flyway.core.info;
 
+import com.googlecode.flyway.core.api.MigrationInfo;
 import com.googlecode.flyway.core.api.MigrationState;
 import com.googlecode.flyway.core.api.MigrationType;
 import com.googlecode.flyway.core.api.MigrationVersion;
@@ -138,6 +139,61 @@ public class MigrationInfoServiceImplSmallTest {
         assertEquals(0, migrationInfoService.pending().length);
     }
 
+    @Test
+    public void unsorted() {
+        MigrationInfoServiceImpl migrationInfoService =
+                new MigrationInfoServiceImpl(
+                        createMigrationResolver(createAvailableMigration(3), createAvailableMigration(1), createAvailableMigration(2)),
+                        createMetaDataTable(createAppliedMigration(2), createAppliedMigration(1)),
+                        MigrationVersion.LATEST, false);
+        migrationInfoService.refresh();
+
+        MigrationInfo[] all = migrationInfoService.all();
+        assertEquals(3, all.length);
+        assertEquals("1", all[0].getVersion().toString());
+        assertEquals("2", all[1].getVersion().toString());
+        assertEquals("3", all[2].getVersion().toString());
+        assertEquals("2", migrationInfoService.current().getVersion().toString());
+        assertEquals(1, migrationInfoService.pending().length);
+        assertEquals(3, migrationInfoService.resolved().length);
+    }
+
+    @Test
+    public void failedFutureAndOutOfOrder() {
+        MigrationInfoServiceImpl migrationInfoService =
+                new MigrationInfoServiceImpl(
+                        createMigrationResolver(createAvailableMigration(1), createAvailableMigration(2), createAvailableMigration(3)),
+                        createMetaDataTable(createAppliedMigration(1), new AppliedMigration(3, 2, new MigrationVersion("2"), "abc",
+                                MigrationType.SQL, "x", null, new Date(), "sa", 123, true),
+                                new AppliedMigration(2, 3, new MigrationVersion("3"), "abc",
+                                MigrationType.SQL, "x", null, new Date(), "sa", 123, false),
+                                createAppliedMigration(4)),
+                        MigrationVersion.LATEST, false);
+        migrationInfoService.refresh();
+
+        assertEquals(4, migrationInfoService.all().length);
+        assertEquals(4, migrationInfoService.applied().length);
+        assertEquals("2", migrationInfoService.outOfOrder()[0].getVersion().toString());
+        assertEquals("3", migrationInfoService.failed()[0].getVersion().toString());
+        assertEquals("4", migrationInfoService.future()[0].getVersion().toString());
+        assertEquals(MigrationState.FUTURE_SUCCESS, migrationInfoService.current().getState());
+    }
+
+    @Test
+    public void allReturnsCopy() {
+        MigrationInfoServiceImpl migrationInfoService =
+                new MigrationInfoServiceImpl(
+                        createMigrationResolver(createAvailableMigration(1)),
+                        createMetaDataTable(), MigrationVersion.LATEST, false);
+        migrationInfoService.refresh();
+
+        migrationInfoService.all()[0] = null;
+        migrationInfoService.pending()[0] = null;
+
+        assertEquals("1", migrationInfoService.all()[0].getVersion().toString());
+        assertEquals("1", migrationInfoService.pending()[0].getVersion().toString());
+    }
+
     /**
      * Creates a new available migration with this version.
      *
@@ -0,0 +1,90 @@
+/**
+ * Copyright (C) 2010-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.metadatatable;
+
+import com.googlecode.flyway.core.dbsupport.DbSupport;
+import com.googlecode.flyway.core.dbsupport.JdbcTemplate;
+import com.googlecode.flyway.core.dbsupport.Schema;
+import com.googlecode.flyway.core.dbsupport.Table;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Small Test for MetaDataTableImpl.
+ */
+public class MetaDataTableImplSmallTest {
+    private JdbcTemplate jdbcTemplate;
+    private Table table;
+    private Table fingerprintTable;
+    private MetaDataTableImpl metaDataTable;
+
+    @Before
+    public void setUp() throws Exception {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        DbSupport dbSupport = mock(DbSupport.class);
+        when(dbSupport.getJdbcTemplate()).thenReturn(jdbcTemplate);
+
+        table = mock(Table.class);
+        fingerprintTable = mock(Table.class);
+        Schema schema = mock(Schema.class);
+        when(table.getName()).thenReturn("schema_version");
+        when(table.getSchema()).thenReturn(schema);
+        when(schema.getTable("schema_version_fp")).thenReturn(fingerprintTable);
+        when(table.existsNoQuotes()).thenReturn(true);
+        when(fingerprintTable.exists()).thenReturn(true);
+        when(jdbcTemplate.queryForString(anyString())).thenReturn("abc");
+
+        metaDataTable = new MetaDataTableImpl(dbSupport, table, null);
+    }
+
+    @Test
+    public void getFingerprintProbesTablesOnce() throws Exception {
+        assertEquals("abc", metaDataTable.getFingerprint());
+        assertEquals("abc", metaDataTable.getFingerprint());
+        assertEquals("abc", metaDataTable.getFingerprint());
+
+        verify(table, times(1)).existsNoQuotes();
+        verify(fingerprintTable, times(1)).exists();
+        verify(jdbcTemplate, times(3)).queryForString(anyString());
+    }
+
+    @Test
+    public void getFingerprintProbesAgainAfterClearCache() throws Exception {
+        metaDataTable.getFingerprint();
+        metaDataTable.clearCache();
+        metaDataTable.getFingerprint();
+
+        verify(table, times(2)).existsNoQuotes();
+        verify(fingerprintTable, times(2)).exists();
+    }
+
+    @Test
+    public void getFingerprintWithoutFingerprintTable() throws Exception {
+        when(fingerprintTable.exists()).thenReturn(false);
+
+        assertNull(metaDataTable.getFingerprint());
+        assertNull(metaDataTable.getFingerprint());
+
+        // A missing table may be created by another instance at any time, so it is probed again
+        verify(fingerprintTable, times(2)).exists();
+        verify(jdbcTemplate, never()).queryForString(anyString());
+    }
+}
@@ -16,9 +16,18 @@
 package com.googlecode.flyway.core.migration;
 
 import com.googlecode.flyway.core.Flyway;
+import com.googlecode.flyway.core.command.DbCoordinate;
+import com.googlecode.flyway.core.command.DbMigrate;
+import com.googlecode.flyway.core.dbsupport.DbSupport;
 import com.googlecode.flyway.core.dbsupport.DbSupportFactory;
+import com.googlecode.flyway.core.metadatatable.MetaDataTable;
+import com.googlecode.flyway.core.metadatatable.MetaDataTableImpl;
 import com.googlecode.flyway.core.util.logging.Log;
 import com.googlecode.flyway.core.util.logging.LogFactory;
+import org.apache.log4j.Appender;
+import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.Logger;
+import org.apache.log4j.spi.LoggingEvent;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -30,9 +39,11 @@ import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Test to demonstrate the migration functionality using H2.
@@ -105,6 +116,147 @@ public abstract class ConcurrentMigrationTestCase {
             }
         };
 
+        runConcurrently(runnable);
+
+        assertFalse(failed);
+        assertEquals(6, flyway.history().size());
+        SchemaVersion schemaVersion = flyway.status().getVersion();
+        assertEquals("2.0", schemaVersion.toString());
+        assertEquals(0, flyway.migrate());
+    }
+
+    @Test
+    public void migrateConcurrentlyAdvisoryLocks() throws Exception {
+        Runnable runnable = new Runnable() {
+            public void run() {
+                try {
+                    Flyway newFlyway = createFlyway();
+                    newFlyway.setAdvisoryLocks(true);
+                    newFlyway.migrate();
+                } catch (Exception e) {
+                    LOG.error("Migrate failed", e);
+                    failed = true;
+                }
+            }
+        };
+
+        runConcurrently(runnable);
+
+        assertFalse(failed);
+        assertEquals(6, flyway.history().size());
+        SchemaVersion schemaVersion = flyway.status().getVersion();
+        assertEquals("2.0", schemaVersion.toString());
+        assertEquals(0, flyway.migrate());
+    }
+
+    @Test
+    public void migrateConcurrentlyCoordinated() throws Exception {
+        final AtomicInteger leaders = new AtomicInteger();
+        final AtomicInteger migrationsApplied = new AtomicInteger();
+        Runnable runnable = new Runnable() {
+            public void run() {
+                try {
+                    Flyway newFlyway = createFlyway();
+                    newFlyway.setCoordinatedMigrate(true);
+                    int migrationSuccessCount = newFlyway.migrate();
+                    if (migrationSuccessCount > 0) {
+                        leaders.incrementAndGet();
+                        migrationsApplied.addAndGet(migrationSuccessCount);
+                    }
+                } catch (Exception e) {
+                    LOG.error("Migrate failed", e);
+                    failed = true;
+                }
+            }
+        };
+
+        // Without coordination, every instance would queue for the lock on the metadata table and run DbMigrate,
+        // which logs the current version once per run. With it, followers return as soon as the leader is done.
+        // Stragglers electing themselves after the leader resigned still run DbMigrate, but find nothing to do.
+        final AtomicInteger dbMigrateRuns = new AtomicInteger();
+        final AtomicInteger followers = new AtomicInteger();
+        Appender pathCounter = new AppenderSkeleton() {
+            @Override
+            protected void append(LoggingEvent event) {
+                String message = String.valueOf(event.getMessage());
+                if (message.startsWith("Current version of schema")) {
+                    dbMigrateRuns.incrementAndGet();
+                } else if (message.contains("migrated by another instance")) {
+                    followers.incrementAndGet();
+                }
+            }
+
+            public void close() {
+                // Nothing to release
+            }
+
+            public boolean requiresLayout() {
+                return false;
+            }
+        };
+        Logger dbMigrateLogger = Logger.getLogger(DbMigrate.class);
+        Logger dbCoordinateLogger = Logger.getLogger(DbCoordinate.class);
+        dbMigrateLogger.addAppender(pathCounter);
+        dbCoordinateLogger.addAppender(pathCounter);
+        try {
+            runConcurrently(runnable);
+        } finally {
+            dbMigrateLogger.removeAppender(pathCounter);
+            dbCoordinateLogger.removeAppender(pathCounter);
+        }
+
+        assertFalse(failed);
+        assertTrue(followers.get() > 0);
+        assertTrue(dbMigrateRuns.get() + followers.get() <= NUM_THREADS);
+        assertEquals(1, leaders.get());
+        assertEquals(4, migrationsApplied.get());
+        assertEquals(6, flyway.history().size());
+        SchemaVersion schemaVersion = flyway.status().getVersion();
+        assertEquals("2.0", schemaVersion.toString());
+
+        Flyway coordinatedFlyway = createFlyway();
+        coordinatedFlyway.setCoordinatedMigrate(true);
+        assertEquals(0, coordinatedFlyway.migrate());
+    }
+
+    @Test
+    public void leadershipLease() throws Exception {
+        Connection connection = concurrentMigrationDataSource.getConnection();
+        try {
+            DbSupport dbSupport = DbSupportFactory.createDbSupport(connection);
+            MetaDataTable metaDataTable = new MetaDataTableImpl(dbSupport,
+                    dbSupport.getSchema("concurrent_test").getTable("schema_version"), null);
+
+            metaDataTable.ensureFingerprintTable();
+            assertTrue(metaDataTable.claimLeadership("a", 60000));
+            assertTrue(metaDataTable.isLeadershipClaimed("a", 60000));
+
+            // A live claim is neither reclaimed nor taken over for another fingerprint
+            assertFalse(metaDataTable.claimLeadership("a", 60000));
+            assertFalse(metaDataTable.claimLeadership("b", 60000));
+            assertTrue(metaDataTable.isLeadershipClaimed("a", 60000));
+            assertFalse(metaDataTable.isLeadershipClaimed("b", 60000));
+
+            // An expired claim is ignored and replaced
+            Thread.sleep(10);
+            assertFalse(metaDataTable.isLeadershipClaimed("a", 1));
+            assertTrue(metaDataTable.claimLeadership("b", 1));
+            assertFalse(metaDataTable.isLeadershipClaimed("a", 60000));
+            assertTrue(metaDataTable.isLeadershipClaimed("b", 60000));
+
+            metaDataTable.releaseLeadership("b");
+            assertFalse(metaDataTable.isLeadershipClaimed("b", 60000));
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Runs this runnable in NUM_THREADS threads at the same time and waits for all of them to complete.
+     *
+     * @param runnable The runnable to run.
+     */
+    private void runConcurrently(Runnable runnable) throws InterruptedException {
         Thread[] threads = new Thread[NUM_THREADS];
         for (int i = 0; i < NUM_THREADS; i++) {
             threads[i] = new Thread(runnable);
@@ -115,12 +267,6 @@ public abstract class ConcurrentMigrationTestCase {
         for (int i = 0; i < NUM_THREADS; i++) {
             threads[i].join();
         }
-
-        assertFalse(failed);
-        assertEquals(6, flyway.history().size());
-        SchemaVersion schemaVersion = flyway.status().getVersion();
-        assertEquals("2.0", schemaVersion.toString());
-        assertEquals(0, flyway.migrate());
     }
 
     private Flyway createFlyway() throws SQLException {
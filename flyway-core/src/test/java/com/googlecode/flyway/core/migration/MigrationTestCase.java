@@ -156,6 +156,38 @@ public abstract class MigrationTestCase {
         assertEquals(2, jdbcTemplate.queryForInt("select count(*) from all_misters"));
     }
 
+    @Test
+    public void migrateBatched() throws Exception {
+        flyway.setLocations(BASEDIR);
+        flyway.setSqlBatchSize(10);
+        flyway.migrate();
+        assertEquals("2.0", flyway.status().getVersion().toString());
+        assertEquals(4, flyway.history().size());
+        assertEquals(2, jdbcTemplate.queryForInt("select count(*) from all_misters"));
+    }
+
+    @Test
+    public void migrateWithFingerprint() throws Exception {
+        flyway.setLocations(BASEDIR);
+        flyway.setUseFingerprint(true);
+
+        flyway.setTarget(new MigrationVersion("1.1"));
+        assertEquals(2, flyway.migrate());
+        assertEquals("1.1", flyway.info().current().getVersion().toString());
+
+        flyway.setTarget(MigrationVersion.LATEST);
+        assertEquals(2, flyway.migrate());
+        assertEquals("2.0", flyway.info().current().getVersion().toString());
+
+        assertEquals(0, flyway.migrate());
+        flyway.validate();
+        assertEquals(4, flyway.info().applied().length);
+        assertEquals(1, jdbcTemplate.queryForInt("select count(*) from " + dbSupport.quote("schema_version_fp")));
+
+        flyway.clean();
+        assertEquals(4, flyway.migrate());
+    }
+
     @Test
     public void target() throws Exception {
         flyway.setLocations(BASEDIR);
@@ -195,7 +227,8 @@ public abstract class MigrationTestCase {
                 PlaceholderReplacer.NO_PLACEHOLDERS,
                 "UTF-8",
                 "V",
-                ".sql");
+                ".sql",
+                0);
         List<ResolvedMigration> migrations = sqlMigrationResolver.resolveMigrations();
         for (ResolvedMigration migration : migrations) {
             if (migration.getVersion().toString().equals(appliedMigration.getVersion().toString())) {
@@ -517,6 +550,23 @@ public abstract class MigrationTestCase {
         flyway.clean();
     }
 
+    @Test
+    public void cleanMultipleSchemasInParallel() throws Exception {
+        flyway.setSchemas("flyway_1", "flyway_2", "flyway_3");
+        flyway.clean();
+
+        flyway.setLocations("migration/sql");
+        assertEquals(4, flyway.migrate());
+
+        flyway.setCleanParallelism(3);
+        flyway.clean();
+
+        assertEquals(0, flyway.info().applied().length);
+        assertEquals(4, flyway.migrate());
+
+        flyway.clean();
+    }
+
     @Test
     public void setCurrentSchema() throws Exception {
         Schema schema = dbSupport.getSchema("current_schema_test");
@@ -552,6 +602,28 @@ public abstract class MigrationTestCase {
         assertEquals(com.googlecode.flyway.core.api.MigrationState.OUT_OF_ORDER, flyway.info().all()[2].getState());
     }
 
+    @Test
+    public void outOfOrderVersionRanks() throws Exception {
+        flyway.setLocations("migration/sql");
+        flyway.migrate();
+
+        assertIntColumnValue("1", "version_rank", 1);
+        assertIntColumnValue("1.1", "version_rank", 2);
+        assertIntColumnValue("1.2", "version_rank", 3);
+        assertIntColumnValue("2.0", "version_rank", 4);
+
+        flyway.setLocations("migration/sql", "migration/outoforder");
+        flyway.setOutOfOrder(true);
+        flyway.migrate();
+
+        assertIntColumnValue("1", "version_rank", 1);
+        assertIntColumnValue("1.1", "version_rank", 2);
+        assertIntColumnValue("1.1.1", "version_rank", 3);
+        assertIntColumnValue("1.1.1", "installed_rank", 5);
+        assertIntColumnValue("1.2", "version_rank", 4);
+        assertIntColumnValue("2.0", "version_rank", 5);
+    }
+
     @Test
     public void format20upgrade() throws Exception {
         createMetaDataTableIn17Format();
@@ -647,7 +719,7 @@ public abstract class MigrationTestCase {
      * Upgrade a Flyway 1.7 format metadata table to the Flyway 2.0 format.
      */
     private void upgradeMetaDataTableTo20Format() throws Exception {
-        CompositeMigrationResolver migrationResolver = new CompositeMigrationResolver(new Locations(BASEDIR), "UTF-8", "V", ".sql", new HashMap<String, String>(), "${", "}");
+        CompositeMigrationResolver migrationResolver = new CompositeMigrationResolver(new Locations(BASEDIR), "UTF-8", "V", ".sql", new HashMap<String, String>(), "${", "}", false, 0);
 
         MetaDataTableTo20FormatUpgrader upgrader = new MetaDataTableTo20FormatUpgrader(dbSupport, dbSupport.getCurrentSchema().getTable(flyway.getTable()), migrationResolver);
         upgrader.upgrade();
@@ -37,7 +37,7 @@ public class CompositeMigrationResolverSmallTest {
     public void resolveMigrationsMultipleLocations() {
         MigrationResolver migrationResolver = new CompositeMigrationResolver(
                 new Locations("migration/subdir/dir2", "db.migration", "migration/subdir/dir1"),
-                "UTF-8", "V", ".sql", new HashMap<String, String>(), "${", "}");
+                "UTF-8", "V", ".sql", new HashMap<String, String>(), "${", "}", false, 0);
 
         List<ResolvedMigration> migrations = migrationResolver.resolveMigrations();
 
@@ -68,6 +68,45 @@ public class CompositeMigrationResolverSmallTest {
         assertEquals(2, migrations.size());
     }
 
+    @Test
+    public void collectMigrationsPerLocation() {
+        List<Collection<MigrationResolver>> migrationResolversPerLocation = new ArrayList<Collection<MigrationResolver>>();
+        for (int i = 1; i <= 3; i++) {
+            final ResolvedMigration migration = createTestMigration(MigrationType.SQL, "" + i, "Description", "V" + i, i);
+            final ResolvedMigration duplicate = createTestMigration(MigrationType.SQL, "1", "Description", "V1", 1);
+            Collection<MigrationResolver> migrationResolvers = new ArrayList<MigrationResolver>();
+            migrationResolvers.add(new MigrationResolver() {
+                public List<ResolvedMigration> resolveMigrations() {
+                    List<ResolvedMigration> migrations = new ArrayList<ResolvedMigration>();
+                    migrations.add(migration);
+                    migrations.add(duplicate);
+                    return migrations;
+                }
+            });
+            migrationResolversPerLocation.add(migrationResolvers);
+        }
+
+        Collection<ResolvedMigration> migrations =
+                CompositeMigrationResolver.collectMigrationsPerLocation(migrationResolversPerLocation);
+        assertEquals(3, migrations.size());
+    }
+
+    @Test(expected = FlywayException.class)
+    public void collectMigrationsPerLocationFailure() {
+        List<Collection<MigrationResolver>> migrationResolversPerLocation = new ArrayList<Collection<MigrationResolver>>();
+        for (int i = 1; i <= 2; i++) {
+            Collection<MigrationResolver> migrationResolvers = new ArrayList<MigrationResolver>();
+            migrationResolvers.add(new MigrationResolver() {
+                public List<ResolvedMigration> resolveMigrations() {
+                    throw new FlywayException("Unable to resolve");
+                }
+            });
+            migrationResolversPerLocation.add(migrationResolvers);
+        }
+
+        CompositeMigrationResolver.collectMigrationsPerLocation(migrationResolversPerLocation);
+    }
+
     @Test
     public void checkForIncompatibilitiesMessage() {
         ResolvedMigration migration1 = createTestMigration(MigrationType.SQL, "1", "First", "V1__First.sql", 123);
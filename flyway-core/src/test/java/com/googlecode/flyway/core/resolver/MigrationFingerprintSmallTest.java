@@ -0,0 +1,95 @@
+/**
+ * Copyright (C) 2010-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.resolver;
+
+import com.googlecode.flyway.core.api.MigrationType;
+import com.googlecode.flyway.core.api.MigrationVersion;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for MigrationFingerprint.
+ */
+public class MigrationFingerprintSmallTest {
+    @Test
+    public void calculate() {
+        String fingerprint = MigrationFingerprint.calculate(
+                migrations(createResolvedMigration("1", 123), createResolvedMigration("2", 456)),
+                MigrationVersion.LATEST, false, false);
+
+        assertTrue(fingerprint.matches("[0-9a-f]{40}"));
+        assertEquals(fingerprint, MigrationFingerprint.calculate(
+                migrations(createResolvedMigration("1", 123), createResolvedMigration("2", 456)),
+                MigrationVersion.LATEST, false, false));
+    }
+
+    @Test
+    public void changedMigrations() {
+        String fingerprint = MigrationFingerprint.calculate(
+                migrations(createResolvedMigration("1", 123), createResolvedMigration("2", 456)),
+                MigrationVersion.LATEST, false, false);
+
+        assertFalse(fingerprint.equals(MigrationFingerprint.calculate(
+                migrations(createResolvedMigration("1", 123), createResolvedMigration("2", 789)),
+                MigrationVersion.LATEST, false, false)));
+        assertFalse(fingerprint.equals(MigrationFingerprint.calculate(
+                migrations(createResolvedMigration("1", 123)),
+                MigrationVersion.LATEST, false, false)));
+    }
+
+    @Test
+    public void changedSettings() {
+        List<ResolvedMigration> migrations = migrations(createResolvedMigration("1", 123));
+        String fingerprint = MigrationFingerprint.calculate(migrations, MigrationVersion.LATEST, false, false);
+
+        assertFalse(fingerprint.equals(MigrationFingerprint.calculate(migrations, new MigrationVersion("1"), false, false)));
+        assertFalse(fingerprint.equals(MigrationFingerprint.calculate(migrations, MigrationVersion.LATEST, true, false)));
+        assertFalse(fingerprint.equals(MigrationFingerprint.calculate(migrations, MigrationVersion.LATEST, false, true)));
+    }
+
+    /**
+     * Creates a list of resolved migrations.
+     *
+     * @param resolvedMigrations The resolved migrations.
+     * @return The list.
+     */
+    private List<ResolvedMigration> migrations(ResolvedMigration... resolvedMigrations) {
+        return Arrays.asList(resolvedMigrations);
+    }
+
+    /**
+     * Creates a resolved migration for testing.
+     *
+     * @param version  The version of the migration.
+     * @param checksum The checksum of the migration.
+     * @return The resolved migration.
+     */
+    private ResolvedMigration createResolvedMigration(String version, int checksum) {
+        ResolvedMigration migration = new ResolvedMigration();
+        migration.setVersion(new MigrationVersion(version));
+        migration.setDescription("abc");
+        migration.setScript("x");
+        migration.setType(MigrationType.SQL);
+        migration.setChecksum(checksum);
+        return migration;
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright (C) 2010-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.resolver;
+
+import com.googlecode.flyway.core.util.FileCopyUtils;
+import com.googlecode.flyway.core.util.Locations;
+import com.googlecode.flyway.core.util.Resource;
+import com.googlecode.flyway.core.util.scanner.classpath.ClassPathIndex;
+import com.googlecode.flyway.core.util.scanner.classpath.ClassPathScanner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Test for MigrationIndexGenerator.
+ */
+public class MigrationIndexGeneratorSmallTest {
+    /**
+     * The classes directory to index.
+     */
+    private File classesDir;
+
+    @Before
+    public void setUp() throws Exception {
+        classesDir = File.createTempFile("flyway", "classes");
+        classesDir.delete();
+
+        writeFile("db/migration/V1__First.sql", "CREATE TABLE t (c INT);");
+        writeFile("db/migration/sub/V1_1__Second_one.sql", "INSERT INTO t VALUES (1);");
+        writeFile("db/migration/V2__Java.class", "");
+        writeFile("other/V3__Elsewhere.sql", "");
+    }
+
+    @After
+    public void tearDown() {
+        delete(classesDir);
+    }
+
+    @Test
+    public void generate() throws Exception {
+        assertEquals(3, new MigrationIndexGenerator(new Locations("db/migration"), "V", ".sql").generate(classesDir));
+
+        String index = FileCopyUtils.copyToString(new InputStreamReader(
+                new FileInputStream(new File(classesDir, ClassPathIndex.INDEX_RESOURCE)), "UTF-8"));
+        assertEquals("# Flyway migration index. Generated at build time, do not edit.\n" +
+                "location\tdb/migration\n" +
+                "resource\tdb/migration/V1__First.sql\t1056642114\t1\tFirst\n" +
+                "resource\tdb/migration/V2__Java.class\n" +
+                "resource\tdb/migration/sub/V1_1__Second_one.sql\t-705379488\t1.1\tSecond one\n", index);
+    }
+
+    @Test
+    public void scanUsingIndex() throws Exception {
+        new MigrationIndexGenerator(new Locations("db/migration"), "V", ".sql").generate(classesDir);
+        // Not in the index, so only found by scanning
+        writeFile("db/migration/V3__Not_indexed.sql", "");
+
+        File jar = new File(classesDir, "migrations.jar");
+        writeJar(jar, "db/migration/V1__First.sql", "db/migration/V2__Java.class", "db/migration/V3__Not_indexed.sql",
+                "db/migration/sub/V1_1__Second_one.sql", "other/V3__Elsewhere.sql", ClassPathIndex.INDEX_RESOURCE);
+
+        ClassLoader classLoader = new URLClassLoader(new URL[]{jar.toURI().toURL()}, null);
+        ClassLoader oldClassLoader = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(classLoader);
+        try {
+            ClassPathScanner classPathScanner = new ClassPathScanner();
+            Resource[] resources = classPathScanner.scanForResources("db/migration", "V", ".sql");
+            assertEquals(2, resources.length);
+            assertEquals("db/migration/V1__First.sql", resources[0].getLocation());
+            assertEquals("db/migration/sub/V1_1__Second_one.sql", resources[1].getLocation());
+
+            assertEquals(Integer.valueOf(1056642114), classPathScanner.findIndexedChecksum("db/migration/V1__First.sql"));
+            assertNull(classPathScanner.findIndexedChecksum("db/migration/V2__Java.class"));
+
+            // Location not covered by the index
+            assertEquals(1, classPathScanner.scanForResources("other", "V", ".sql").length);
+        } finally {
+            Thread.currentThread().setContextClassLoader(oldClassLoader);
+        }
+    }
+
+    /**
+     * Writes this file in the classes directory.
+     *
+     * @param name    The name of the file, relative to the classes directory.
+     * @param content The content of the file.
+     */
+    private void writeFile(String name, String content) throws Exception {
+        File file = new File(classesDir, name);
+        file.getParentFile().mkdirs();
+        FileOutputStream outputStream = new FileOutputStream(file);
+        try {
+            outputStream.write(content.getBytes("UTF-8"));
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    /**
+     * Packages these files of the classes directory as a jar.
+     *
+     * @param jar   The jar to write.
+     * @param names The names of the files, relative to the classes directory.
+     */
+    private void writeJar(File jar, String... names) throws Exception {
+        JarOutputStream jarOutputStream = new JarOutputStream(new FileOutputStream(jar));
+        try {
+            for (String dir : new String[]{"META-INF/", "META-INF/flyway/", "db/", "db/migration/", "db/migration/sub/", "other/"}) {
+                jarOutputStream.putNextEntry(new JarEntry(dir));
+                jarOutputStream.closeEntry();
+            }
+            for (String name : names) {
+                jarOutputStream.putNextEntry(new JarEntry(name));
+                jarOutputStream.write(FileCopyUtils.copyToByteArray(new FileInputStream(new File(classesDir, name))));
+                jarOutputStream.closeEntry();
+            }
+        } finally {
+            jarOutputStream.close();
+        }
+    }
+
+    /**
+     * Deletes this file or directory, including its contents.
+     *
+     * @param file The file or directory to delete.
+     */
+    private void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.googlecode.flyway.core.resolver.sql;
 
+import com.googlecode.flyway.core.api.FlywayException;
 import com.googlecode.flyway.core.util.PlaceholderReplacer;
 import org.junit.Test;
 
@@ -22,6 +23,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 /**
  * Testcase for PlaceholderReplacer.
@@ -55,4 +57,53 @@ public class PlaceholderReplacerSmallTest {
 
         assertEquals("No ${placeholder} right to ${replace}", placeholderReplacer.replacePlaceholders(TEST_STR));
     }
+
+    @Test
+    public void replacePlaceholders() {
+        PlaceholderReplacer placeholderReplacer = new PlaceholderReplacer(placeholders(), "${", "}");
+
+        assertEquals("", placeholderReplacer.replacePlaceholders(""));
+        assertEquals("no placeholders", placeholderReplacer.replacePlaceholders("no placeholders"));
+        assertEquals("CREATE TABLE test_user", placeholderReplacer.replacePlaceholders("CREATE TABLE ${table}"));
+        assertEquals("test_user.name, test_user", placeholderReplacer.replacePlaceholders("${table}.${column}, ${table}"));
+        assertEquals("test_user$name}", placeholderReplacer.replacePlaceholders("${table}$${column}}"));
+        assertEquals("${unknown} test_user", placeholderReplacer.replacePlaceholders("${unknown} ${table}"));
+        assertEquals("${notclosed test_user", placeholderReplacer.replacePlaceholders("${notclosed ${table}"));
+        assertEquals("test_user ${table", placeholderReplacer.replacePlaceholders("${table} ${table"));
+        assertEquals("$1 {table}", placeholderReplacer.replacePlaceholders("${dollar} {table}"));
+    }
+
+    @Test
+    public void replacePlaceholdersValuesNotRescanned() {
+        Map<String, String> placeholders = new HashMap<String, String>();
+        placeholders.put("a", "${b}");
+        placeholders.put("b", "x");
+
+        assertEquals("${b} x", new PlaceholderReplacer(placeholders, "${", "}").replacePlaceholders("${a} ${b}"));
+    }
+
+    @Test
+    public void failOnUnresolvedPlaceholders() {
+        PlaceholderReplacer placeholderReplacer = new PlaceholderReplacer(placeholders(), "${", "}", true);
+
+        assertEquals("test_user", placeholderReplacer.replacePlaceholders("${table}"));
+        assertEquals("${notclosed", placeholderReplacer.replacePlaceholders("${notclosed"));
+        try {
+            placeholderReplacer.replacePlaceholders("${table} ${unknown}");
+            fail();
+        } catch (FlywayException e) {
+            assertEquals("No value provided for placeholder: ${unknown}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return The placeholders to use for the tests.
+     */
+    private Map<String, String> placeholders() {
+        Map<String, String> placeholders = new HashMap<String, String>();
+        placeholders.put("table", "test_user");
+        placeholders.put("column", "name");
+        placeholders.put("dollar", "$1");
+        return placeholders;
+    }
 }
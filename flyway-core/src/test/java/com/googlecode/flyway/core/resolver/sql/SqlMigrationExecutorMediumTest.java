@@ -0,0 +1,96 @@
+/**
+ * Copyright (C) 2010-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.resolver.sql;
+
+import com.googlecode.flyway.core.dbsupport.DbSupport;
+import com.googlecode.flyway.core.dbsupport.DbSupportFactory;
+import com.googlecode.flyway.core.util.ClassPathResource;
+import com.googlecode.flyway.core.util.FileSystemResource;
+import com.googlecode.flyway.core.util.PlaceholderReplacer;
+import com.googlecode.flyway.core.util.Resource;
+import com.googlecode.flyway.core.util.jdbc.DriverDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Medium tests for SqlMigrationExecutor.
+ */
+@SuppressWarnings({"JavaDoc"})
+public class SqlMigrationExecutorMediumTest {
+    /**
+     * The classpath location of the script starting with a UTF-8 BOM.
+     */
+    private static final String UTF8_BOM_SCRIPT = "com/googlecode/flyway/core/util/utf8bom.nofilter";
+
+    private Connection connection;
+
+    private DbSupport dbSupport;
+
+    @Before
+    public void setUp() throws Exception {
+        SqlScriptCache.getInstance().clear();
+        connection = new DriverDataSource(null, "jdbc:h2:mem:flyway_db_executor;DB_CLOSE_DELAY=-1", "sa", "")
+                .getConnection();
+        dbSupport = DbSupportFactory.createDbSupport(connection);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        SqlScriptCache.getInstance().clear();
+        connection.close();
+    }
+
+    @Test
+    public void utf8BomClassPath() throws Exception {
+        execute(new ClassPathResource(UTF8_BOM_SCRIPT));
+    }
+
+    @Test
+    public void utf8BomFileSystem() throws Exception {
+        execute(new FileSystemResource(new ClassPathResource(UTF8_BOM_SCRIPT).getLocationOnDisk()));
+    }
+
+    @Test
+    public void utf8BomCached() throws Exception {
+        Resource resource = new ClassPathResource(UTF8_BOM_SCRIPT);
+        SqlScriptCache sqlScriptCache = SqlScriptCache.getInstance();
+        sqlScriptCache.putBytes(resource.getLocation(), 0, resource.loadAsBytes());
+        int hits = sqlScriptCache.getHits();
+
+        execute(resource);
+        assertEquals(hits + 1, sqlScriptCache.getHits());
+
+        // Second execution from the parsed statements
+        execute(resource);
+        assertEquals(hits + 2, sqlScriptCache.getHits());
+    }
+
+    /**
+     * Executes the script of this resource as a sql migration, from the {@link SqlScriptCache} if it has been cached
+     * and streaming it statement by statement otherwise.
+     *
+     * @param resource The resource of the script.
+     */
+    private void execute(Resource resource) {
+        new SqlMigrationExecutor(resource, 0, PlaceholderReplacer.NO_PLACEHOLDERS, "UTF-8", 0)
+                .execute(dbSupport.getJdbcTemplate(), dbSupport);
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright (C) 2010-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.resolver.sql;
+
+import com.googlecode.flyway.core.dbsupport.SqlStatement;
+import com.googlecode.flyway.core.util.PlaceholderReplacer;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Testcase for SqlScriptCache.
+ */
+public class SqlScriptCacheSmallTest {
+    /**
+     * The cache under test.
+     */
+    private final SqlScriptCache sqlScriptCache = new SqlScriptCache(800);
+
+    @Test
+    public void bytes() {
+        byte[] bytes = new byte[10];
+        sqlScriptCache.putBytes("V1__First.sql", 123, bytes);
+
+        assertSame(bytes, sqlScriptCache.getBytes("V1__First.sql", 123));
+        assertNull(sqlScriptCache.getBytes("V1__First.sql", 456));
+        assertNull(sqlScriptCache.getBytes("V2__Second.sql", 123));
+        assertEquals(1, sqlScriptCache.getHits());
+        assertEquals(2, sqlScriptCache.getMisses());
+    }
+
+    @Test
+    public void statements() {
+        sqlScriptCache.putBytes("V1__First.sql", 123, new byte[10]);
+
+        List<SqlStatement> sqlStatements = Arrays.asList(new SqlStatement(1, "SELECT 1"));
+        sqlScriptCache.putStatements("V1__First.sql", 123, "UTF-8", placeholderReplacer("a"), "H2", sqlStatements);
+
+        assertNull(sqlScriptCache.getBytes("V1__First.sql", 123));
+        assertEquals(sqlStatements,
+                sqlScriptCache.getStatements("V1__First.sql", 123, "UTF-8", placeholderReplacer("a"), "H2"));
+        assertNull(sqlScriptCache.getStatements("V1__First.sql", 123, "UTF-8", placeholderReplacer("b"), "H2"));
+        assertNull(sqlScriptCache.getStatements("V1__First.sql", 123, "UTF-8", placeholderReplacer("a"), "MySQL"));
+        assertNull(sqlScriptCache.getStatements("V1__First.sql", 123, "ISO-8859-1", placeholderReplacer("a"), "H2"));
+        assertEquals(64 + 2 * "SELECT 1".length(), sqlScriptCache.getWeight());
+    }
+
+    @Test
+    public void statementsPlaceholdersModifiedAfterwards() {
+        Map<String, String> placeholders = new HashMap<String, String>();
+        placeholders.put("placeholder", "a");
+        PlaceholderReplacer placeholderReplacer = new PlaceholderReplacer(placeholders, "${", "}");
+
+        List<SqlStatement> sqlStatements = Arrays.asList(new SqlStatement(1, "SELECT 1"));
+        sqlScriptCache.putStatements("V1__First.sql", 123, "UTF-8", placeholderReplacer, "H2", sqlStatements);
+        placeholders.put("placeholder", "b");
+
+        assertEquals(sqlStatements,
+                sqlScriptCache.getStatements("V1__First.sql", 123, "UTF-8", placeholderReplacer, "H2"));
+        assertEquals(sqlStatements,
+                sqlScriptCache.getStatements("V1__First.sql", 123, "UTF-8", placeholderReplacer("a"), "H2"));
+        assertNull(sqlScriptCache.getStatements("V1__First.sql", 123, "UTF-8", placeholderReplacer("b"), "H2"));
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        sqlScriptCache.putBytes("V1__First.sql", 1, new byte[100]);
+        sqlScriptCache.putBytes("V2__Second.sql", 2, new byte[100]);
+        sqlScriptCache.putBytes("V3__Third.sql", 3, new byte[100]);
+        assertEquals(300, sqlScriptCache.getWeight());
+
+        assertNotNull(sqlScriptCache.getBytes("V1__First.sql", 1));
+        for (int i = 4; i <= 9; i++) {
+            sqlScriptCache.putBytes("V" + i + "__Other.sql", i, new byte[100]);
+        }
+
+        assertEquals(800, sqlScriptCache.getWeight());
+        assertNotNull(sqlScriptCache.getBytes("V1__First.sql", 1));
+        assertNull(sqlScriptCache.getBytes("V2__Second.sql", 2));
+        assertNotNull(sqlScriptCache.getBytes("V3__Third.sql", 3));
+    }
+
+    @Test
+    public void tooLarge() {
+        assertTrue(sqlScriptCache.isCacheable(100));
+        assertFalse(sqlScriptCache.isCacheable(101));
+
+        sqlScriptCache.putBytes("V1__First.sql", 1, new byte[101]);
+        assertNull(sqlScriptCache.getBytes("V1__First.sql", 1));
+        assertEquals(0, sqlScriptCache.getWeight());
+    }
+
+    @Test
+    public void shrink() {
+        for (int i = 1; i <= 4; i++) {
+            sqlScriptCache.putBytes("V" + i + "__Script.sql", i, new byte[100]);
+        }
+
+        sqlScriptCache.setMaxWeight(200);
+        assertEquals(200, sqlScriptCache.getWeight());
+        assertNull(sqlScriptCache.getBytes("V2__Script.sql", 2));
+        assertNotNull(sqlScriptCache.getBytes("V4__Script.sql", 4));
+    }
+
+    @Test
+    public void disabled() {
+        sqlScriptCache.putBytes("V1__First.sql", 1, new byte[100]);
+
+        sqlScriptCache.setMaxWeight(0);
+        assertEquals(0, sqlScriptCache.getWeight());
+        assertFalse(sqlScriptCache.isCacheable(0));
+
+        sqlScriptCache.putBytes("V2__Second.sql", 2, new byte[0]);
+        assertNull(sqlScriptCache.getBytes("V1__First.sql", 1));
+        assertNull(sqlScriptCache.getBytes("V2__Second.sql", 2));
+    }
+
+    /**
+     * Creates a placeholder replacer with a single placeholder.
+     *
+     * @param value The value of the placeholder.
+     * @return The placeholder replacer.
+     */
+    private PlaceholderReplacer placeholderReplacer(String value) {
+        Map<String, String> placeholders = new HashMap<String, String>();
+        placeholders.put("placeholder", value);
+        return new PlaceholderReplacer(placeholders, "${", "}");
+    }
+}
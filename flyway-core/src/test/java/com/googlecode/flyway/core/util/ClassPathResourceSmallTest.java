@@ -17,6 +17,8 @@ package com.googlecode.flyway.core.util;
 
 import org.junit.Test;
 
+import java.io.Reader;
+
 import static org.junit.Assert.assertEquals;
 
 /**
@@ -40,4 +42,17 @@ public class ClassPathResourceSmallTest {
         assertEquals("SELECT 1 FROM DUAL;",
                 new ClassPathResource("com/googlecode/flyway/core/util/utf8bom.nofilter").loadAsString("UTF-8"));
     }
+
+    @Test
+    public void loadAsReaderUtf8WithoutBOM() throws Exception {
+        Reader reader = new ClassPathResource("com/googlecode/flyway/core/util/utf8.nofilter").loadAsReader("UTF-8");
+        assertEquals("SELECT 1 FROM DUAL;", FileCopyUtils.copyToString(reader));
+    }
+
+    @Test
+    public void loadAsReaderUtf8WithBOM() throws Exception {
+        Reader reader = new ClassPathResource("com/googlecode/flyway/core/util/utf8bom.nofilter").loadAsReader("UTF-8");
+        assertEquals('S', reader.read());
+        reader.close();
+    }
 }
@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) 2010-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.util.scanner.classpath;
+
+import com.googlecode.flyway.core.resolver.jdbc.dummy.DummyAbstractJdbcMigration;
+import com.googlecode.flyway.core.resolver.jdbc.dummy.Version3dot5;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for ClassFileHeader.
+ */
+public class ClassFileHeaderSmallTest {
+    @Test
+    public void concreteClass() throws Exception {
+        ClassFileHeader header = read(Version3dot5.class);
+
+        assertTrue(header.isConcrete());
+        assertEquals("com/googlecode/flyway/core/resolver/jdbc/dummy/Version3dot5", header.getClassName());
+        assertEquals("com/googlecode/flyway/core/resolver/jdbc/dummy/DummyAbstractJdbcMigration", header.getSuperClassName());
+        assertArrayEquals(new String[]{
+                "com/googlecode/flyway/core/api/migration/MigrationInfoProvider",
+                "com/googlecode/flyway/core/api/migration/MigrationChecksumProvider"}, header.getInterfaceNames());
+    }
+
+    @Test
+    public void abstractClass() throws Exception {
+        ClassFileHeader header = read(DummyAbstractJdbcMigration.class);
+
+        assertFalse(header.isConcrete());
+        assertEquals("java/lang/Object", header.getSuperClassName());
+        assertArrayEquals(new String[]{"com/googlecode/flyway/core/api/migration/jdbc/JdbcMigration"},
+                header.getInterfaceNames());
+    }
+
+    @Test
+    public void interfaceClass() throws Exception {
+        assertFalse(read(UrlResolver.class).isConcrete());
+    }
+
+    @Test
+    public void object() throws Exception {
+        assertNull(read(Object.class).getSuperClassName());
+    }
+
+    @Test(expected = IOException.class)
+    public void notAClassFile() throws Exception {
+        ClassFileHeader.read(new ByteArrayInputStream("Not a class file".getBytes("UTF-8")));
+    }
+
+    /**
+     * Reads the header of the class file of this class.
+     *
+     * @param clazz The class to read the header of.
+     * @return The header.
+     */
+    private ClassFileHeader read(Class<?> clazz) throws IOException {
+        InputStream inputStream = clazz.getClassLoader() == null
+                ? ClassLoader.getSystemResourceAsStream(clazz.getName().replace(".", "/") + ".class")
+                : clazz.getClassLoader().getResourceAsStream(clazz.getName().replace(".", "/") + ".class");
+        try {
+            return ClassFileHeader.read(inputStream);
+        } finally {
+            inputStream.close();
+        }
+    }
+}
@@ -29,8 +29,10 @@ import org.mockito.MockSettings;
 import org.mockito.internal.creation.MockSettingsImpl;
 
 import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -102,7 +104,7 @@ public class ClassPathScannerSmallTest {
 
         assertTrue(resources.length > 7);
 
-        assertEquals("com/googlecode/flyway/core/dbsupport/db2/createMetaDataTable.sql", resources[0].getLocation());
+        assertEquals("com/googlecode/flyway/core/dbsupport/db2/createFingerprintTable.sql", resources[0].getLocation());
     }
 
     @Test
@@ -125,6 +127,22 @@ public class ClassPathScannerSmallTest {
         assertEquals(Version3dot5.class, classes[1]);
     }
 
+    @Test
+    public void scanForInstances() throws Exception {
+        ClassPathScanner classPathScanner = new ClassPathScanner();
+        List<JdbcMigration> instances =
+                classPathScanner.scanForInstances("com/googlecode/flyway/core/resolver/jdbc/dummy", JdbcMigration.class);
+
+        assertEquals(2, instances.size());
+        assertEquals(V2__InterfaceBasedMigration.class, instances.get(0).getClass());
+        assertEquals(Version3dot5.class, instances.get(1).getClass());
+
+        List<JdbcMigration> reusedInstances =
+                classPathScanner.scanForInstances("com/googlecode/flyway/core/resolver/jdbc/dummy", JdbcMigration.class);
+        assertSame(instances.get(0), reusedInstances.get(0));
+        assertSame(instances.get(1), reusedInstances.get(1));
+    }
+
     @Test
     public void scanForClassesSubPackage() throws Exception {
         Class<?>[] classes = new ClassPathScanner().scanForClasses("com/googlecode/flyway/core/dbsupport", MigrationTestCase.class);
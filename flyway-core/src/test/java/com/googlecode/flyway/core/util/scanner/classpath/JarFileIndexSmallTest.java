@@ -0,0 +1,100 @@
+/**
+ * Copyright (C) 2010-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.util.scanner.classpath;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.net.URL;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for JarFileIndex.
+ */
+public class JarFileIndexSmallTest {
+    /**
+     * The jar file to index.
+     */
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("flyway", ".jar");
+        writeJar("db/", "db/migration/", "db/migration/V1__First.sql", "db/migration/V2__Second.sql",
+                "db/migrations/V3__Other.sql", "com/example/App.class");
+    }
+
+    @After
+    public void tearDown() {
+        JarFileIndex.getInstance().clear();
+        file.delete();
+    }
+
+    @Test
+    public void findResourceNames() throws Exception {
+        Set<String> resourceNames = JarFileIndex.getInstance().findResourceNames(file, "db/migration/");
+
+        assertArrayEquals(new String[]{"db/migration/", "db/migration/V1__First.sql", "db/migration/V2__Second.sql"},
+                resourceNames.toArray());
+        assertEquals(6, JarFileIndex.getInstance().findResourceNames(file, "").size());
+        assertEquals(0, JarFileIndex.getInstance().findResourceNames(file, "org/").size());
+    }
+
+    @Test
+    public void changedJarIsIndexedAgain() throws Exception {
+        assertEquals(3, JarFileIndex.getInstance().findResourceNames(file, "db/migration/").size());
+
+        writeJar("db/migration/V1__First.sql");
+        file.setLastModified(file.lastModified() - 10000);
+
+        assertEquals(1, JarFileIndex.getInstance().findResourceNames(file, "db/migration/").size());
+    }
+
+    @Test
+    public void getJarFileOnDisk() throws Exception {
+        String jarUrl = "jar:" + file.toURI().toURL() + "!/";
+
+        assertEquals(file.getCanonicalFile(),
+                JarFileClassPathLocationScanner.getJarFileOnDisk(new URL(jarUrl + "db/migration")).getCanonicalFile());
+        assertNull(JarFileClassPathLocationScanner.getJarFileOnDisk(new URL(jarUrl + "lib/nested.jar!/db/migration")));
+    }
+
+    /**
+     * Writes a jar file with these (empty) entries.
+     *
+     * @param entryNames The names of the entries.
+     */
+    private void writeJar(String... entryNames) throws Exception {
+        JarOutputStream jarOutputStream = new JarOutputStream(new FileOutputStream(file));
+        try {
+            for (String entryName : entryNames) {
+                jarOutputStream.putNextEntry(new JarEntry(entryName));
+                jarOutputStream.closeEntry();
+            }
+        } finally {
+            jarOutputStream.close();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright (C) 2010-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.util.scanner.filesystem;
+
+import com.googlecode.flyway.core.util.Resource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for FileSystemScanner.
+ */
+public class FileSystemScannerSmallTest {
+    /**
+     * The folder to scan.
+     */
+    private File folder;
+
+    @Before
+    public void setUp() throws Exception {
+        folder = File.createTempFile("flyway", "");
+        folder.delete();
+
+        createFile("V1__First.sql");
+        createFile("README.txt");
+        createFile("a/V2__Second.sql");
+        createFile("a/nested/V3__Third.sql");
+        createFile("b/V4__Fourth.sql");
+        createFile("b/V5__Fifth.txt");
+        createFile("c/.sql");
+        new File(folder, "d").mkdirs();
+    }
+
+    @After
+    public void tearDown() {
+        delete(folder);
+    }
+
+    @Test
+    public void findResourceNames() throws Exception {
+        assertArrayEquals(expectedResourceNames(),
+                new FileSystemScanner(1, 2).findResourceNames(folder.getPath(), "V", ".sql").toArray());
+    }
+
+    @Test
+    public void findResourceNamesInParallel() throws Exception {
+        assertArrayEquals(expectedResourceNames(),
+                new FileSystemScanner(4, 2).findResourceNames(folder.getPath(), "V", ".sql").toArray());
+    }
+
+    @Test
+    public void sequentialByDefault() {
+        FileSystemScanner fileSystemScanner = new FileSystemScanner(4, FileSystemScanner.DEFAULT_PARALLEL_THRESHOLD);
+
+        assertFalse(fileSystemScanner.isWalkedInParallel(4));
+        assertFalse(fileSystemScanner.isWalkedInParallel(FileSystemScanner.DEFAULT_PARALLEL_THRESHOLD - 1));
+        assertTrue(fileSystemScanner.isWalkedInParallel(FileSystemScanner.DEFAULT_PARALLEL_THRESHOLD));
+        assertFalse(new FileSystemScanner(1, 2).isWalkedInParallel(100));
+    }
+
+    @Test
+    public void findResourceNamesNonExistingFolder() throws Exception {
+        Set<String> resourceNames =
+                new FileSystemScanner().findResourceNames(new File(folder, "missing").getPath(), "V", ".sql");
+
+        assertTrue(resourceNames.isEmpty());
+    }
+
+    @Test
+    public void scanForResources() throws Exception {
+        Resource[] resources = new FileSystemScanner().scanForResources(folder.getPath(), "V", ".txt");
+
+        assertEquals(1, resources.length);
+        assertEquals(path("b/V5__Fifth.txt"), resources[0].getLocationOnDisk());
+    }
+
+    /**
+     * @return The names of the resources starting with V and ending with .sql, in order.
+     */
+    private String[] expectedResourceNames() {
+        return new String[]{path("V1__First.sql"), path("a/V2__Second.sql"), path("a/nested/V3__Third.sql"),
+                path("b/V4__Fourth.sql")};
+    }
+
+    /**
+     * Computes the path of this file on disk.
+     *
+     * @param name The name of the file relative to the scanned folder.
+     * @return The path.
+     */
+    private String path(String name) {
+        return new File(folder, name).getPath();
+    }
+
+    /**
+     * Creates an empty file, including the folders leading to it.
+     *
+     * @param name The name of the file relative to the scanned folder.
+     */
+    private void createFile(String name) throws IOException {
+        File file = new File(folder, name);
+        file.getParentFile().mkdirs();
+        file.createNewFile();
+    }
+
+    /**
+     * Deletes this file or folder, including its content.
+     *
+     * @param file The file or folder to delete.
+     */
+    private void delete(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2010-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.maven;
+
+import com.googlecode.flyway.core.resolver.MigrationIndexGenerator;
+import com.googlecode.flyway.core.util.Locations;
+import com.googlecode.flyway.core.util.StringUtils;
+import com.googlecode.flyway.core.util.logging.LogFactory;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+
+/**
+ * Maven goal to generate the migration index (META-INF/flyway/index) in the output directory of the project. When the
+ * project is packaged as a jar, Flyway finds the migrations it contains using this index, without scanning the jar at
+ * runtime.<br/>
+ * Unlike the other goals, this one does not need a database connection.
+ *
+ * @goal index
+ * @phase process-classes
+ * @since 2.0.4
+ */
+@SuppressWarnings({"UnusedDeclaration", "JavaDoc"})
+public class IndexMojo extends AbstractMojo {
+    /**
+     * The directory containing the compiled classes and resources to index.
+     *
+     * @parameter expression="${project.build.outputDirectory}"
+     * @required
+     */
+    private File outputDirectory;
+
+    /**
+     * Locations on the classpath to index. These should be the same locations Flyway uses to find migrations at
+     * runtime. (default: db/migration)
+     * <p>Also configurable with Maven or System Property: ${flyway.locations} (Comma-separated list)</p>
+     *
+     * @parameter
+     */
+    private String[] locations = {"db/migration"};
+
+    /**
+     * The file name prefix for Sql migrations (default: V) <p>Also configurable with Maven or System Property:
+     * ${flyway.sqlMigrationPrefix}</p>
+     *
+     * @parameter expression="${flyway.sqlMigrationPrefix}"
+     */
+    private String sqlMigrationPrefix = "V";
+
+    /**
+     * The file name suffix for Sql migrations (default: .sql) <p>Also configurable with Maven or System Property:
+     * ${flyway.sqlMigrationSuffix}</p>
+     *
+     * @parameter expression="${flyway.sqlMigrationSuffix}"
+     */
+    private String sqlMigrationSuffix = ".sql";
+
+    /**
+     * Reference to the current project that includes the Flyway Maven plugin.
+     *
+     * @parameter expression="${project}" required="true"
+     */
+    private MavenProject mavenProject;
+
+    public void execute() throws MojoExecutionException {
+        LogFactory.setLogCreator(new MavenLogCreator(this));
+
+        String locationsProperty = System.getProperty("flyway.locations");
+        if (locationsProperty == null) {
+            locationsProperty = mavenProject.getProperties().getProperty("flyway.locations");
+        }
+        if (locationsProperty != null) {
+            locations = StringUtils.tokenizeToStringArray(locationsProperty, ",");
+        }
+
+        try {
+            new MigrationIndexGenerator(new Locations(locations), sqlMigrationPrefix, sqlMigrationSuffix)
+                    .generate(outputDirectory);
+        } catch (Exception e) {
+            throw new MojoExecutionException("Unable to generate the migration index", e);
+        }
+    }
+}